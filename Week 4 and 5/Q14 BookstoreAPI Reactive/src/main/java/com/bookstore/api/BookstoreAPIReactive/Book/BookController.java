@@ -0,0 +1,126 @@
+package com.bookstore.api.BookstoreAPIReactive.Book;
+
+import com.bookstore.api.BookstoreAPIReactive.ErrorHandling.ConcurrentUpdateException;
+import com.bookstore.api.BookstoreAPIReactive.ErrorHandling.StacklessResourceNotFoundException;
+import com.bookstore.api.BookstoreAPIReactive.ErrorHandling.StacklessValidationException;
+import jakarta.validation.Valid;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+import static org.springframework.hateoas.server.reactive.WebFluxLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.reactive.WebFluxLinkBuilder.methodOn;
+
+@RestController
+@RequestMapping("/books")
+public class BookController {
+
+    private static final int MAX_UPDATE_RETRIES = 4;
+
+    private final BookRepository bookRepository;
+
+    public BookController(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    @GetMapping(value = "/{id}", produces = { "application/json", "application/xml" })
+    public Mono<ResponseEntity<EntityModel<BookDTO>>> getBookById(@PathVariable Long id) {
+        return bookRepository.findById(id)
+            .switchIfEmpty(Mono.error(() -> new StacklessResourceNotFoundException("Book", id)))
+            .flatMap(book -> toModel(toDTO(book)))
+            .map(resource -> new ResponseEntity<>(resource, responseHeaders(), HttpStatus.OK));
+    }
+
+    /**
+     * Streams the catalog. Rows are pulled from R2DBC only as fast as the client reads, so a
+     * slow consumer holds a cursor rather than the whole table in memory.
+     */
+    @GetMapping(produces = { "application/json", "application/x-ndjson", "application/xml" })
+    public ResponseEntity<Flux<EntityModel<BookDTO>>> getAllBooks() {
+        // Element self links are the collection URI plus the id, resolved once rather than per row
+        Flux<EntityModel<BookDTO>> books = linkTo(methodOn(BookController.class).getAllBooks()).withSelfRel().toMono()
+            .flatMapMany(collection -> bookRepository.findAll()
+                .map(book -> EntityModel.of(toDTO(book), Link.of(collection.getHref() + "/" + book.getId()))));
+        return new ResponseEntity<>(books, responseHeaders(), HttpStatus.OK);
+    }
+
+    @PostMapping(consumes = { "application/json", "application/xml" }, produces = { "application/json", "application/xml" })
+    public Mono<ResponseEntity<EntityModel<BookDTO>>> createBook(@Valid @RequestBody BookDTO bookDTO) {
+        if (bookDTO.getPrice() <= 0) {
+            return Mono.error(StacklessValidationException.PRICE_NOT_POSITIVE);
+        }
+        if (bookDTO.getTitle() == null || bookDTO.getTitle().trim().isEmpty()) {
+            return Mono.error(StacklessValidationException.TITLE_EMPTY);
+        }
+
+        Book book = new Book(bookDTO.getTitle(), bookDTO.getAuthor(), bookDTO.getPrice(), bookDTO.getIsbn());
+
+        return bookRepository.save(book)
+            .flatMap(createdBook -> toModel(toDTO(createdBook)))
+            .map(resource -> new ResponseEntity<>(resource, responseHeaders(), HttpStatus.CREATED));
+    }
+
+    @PutMapping(value = "/{id}", consumes = { "application/json", "application/xml" }, produces = { "application/json", "application/xml" })
+    public Mono<ResponseEntity<EntityModel<BookDTO>>> updateBook(@PathVariable Long id, @Valid @RequestBody BookDTO bookDTO) {
+        if (bookDTO.getPrice() <= 0) {
+            return Mono.error(StacklessValidationException.PRICE_NOT_POSITIVE);
+        }
+        if (bookDTO.getTitle() == null || bookDTO.getTitle().trim().isEmpty()) {
+            return Mono.error(StacklessValidationException.TITLE_EMPTY);
+        }
+
+        // Versioned save; a concurrent writer makes it fail and the whole read-modify-write is retried
+        return bookRepository.findById(id)
+            .switchIfEmpty(Mono.error(() -> new StacklessResourceNotFoundException("Book", id)))
+            .flatMap(book -> {
+                book.setTitle(bookDTO.getTitle());
+                book.setAuthor(bookDTO.getAuthor());
+                book.setPrice(bookDTO.getPrice());
+                book.setIsbn(bookDTO.getIsbn());
+                return bookRepository.save(book);
+            })
+            .retryWhen(Retry.backoff(MAX_UPDATE_RETRIES, Duration.ofMillis(2))
+                .filter(OptimisticLockingFailureException.class::isInstance)
+                .onRetryExhaustedThrow((spec, signal) ->
+                    new ConcurrentUpdateException("Book " + id + " is being modified concurrently, please retry")))
+            .flatMap(updatedBook -> toModel(toDTO(updatedBook)))
+            .map(resource -> new ResponseEntity<>(resource, responseHeaders(), HttpStatus.OK));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteBook(@PathVariable Long id) {
+        return bookRepository.findById(id)
+            .switchIfEmpty(Mono.error(() -> new StacklessResourceNotFoundException("Book", id)))
+            .flatMap(bookRepository::delete)
+            .then(Mono.fromSupplier(() -> new ResponseEntity<Void>(responseHeaders(), HttpStatus.NO_CONTENT)));
+    }
+
+    private Mono<EntityModel<BookDTO>> toModel(BookDTO bookDTO) {
+        Mono<EntityModel<BookDTO>> resource = linkTo(methodOn(BookController.class).getBookById(bookDTO.getId()))
+            .withSelfRel()
+            .toMono()
+            .map(selfLink -> EntityModel.of(bookDTO, selfLink));
+        return resource.zipWith(linkTo(methodOn(BookController.class).getAllBooks()).withRel("all-books").toMono(),
+            (model, link) -> model.add(link));
+    }
+
+    private static BookDTO toDTO(Book book) {
+        return new BookDTO(book.getId(), book.getTitle(), book.getAuthor(), book.getPrice(), book.getIsbn());
+    }
+
+    private static HttpHeaders responseHeaders() {
+        HttpHeaders responseHeaders = new HttpHeaders();
+        responseHeaders.add("X-Custom-Header", "CustomValue");
+        responseHeaders.add("X-Powered-By", "Spring Boot");
+        return responseHeaders;
+    }
+}
@@ -0,0 +1,6 @@
+package com.bookstore.api.BookstoreAPIReactive.Book;
+
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+public interface BookRepository extends ReactiveCrudRepository<Book, Long> {
+}
@@ -0,0 +1,11 @@
+package com.bookstore.api.BookstoreAPIReactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class BookstoreApiReactiveApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(BookstoreApiReactiveApplication.class, args);
+    }
+}
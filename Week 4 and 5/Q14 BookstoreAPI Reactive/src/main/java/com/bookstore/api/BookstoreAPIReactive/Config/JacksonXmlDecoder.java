@@ -0,0 +1,29 @@
+package com.bookstore.api.BookstoreAPIReactive.Config;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.AbstractJackson2Decoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+
+/**
+ * Reads XML request bodies with Jackson. Jackson's XML parser is blocking-only, so the body is
+ * buffered and parsed as one document rather than tokenized as it arrives.
+ */
+public class JacksonXmlDecoder extends AbstractJackson2Decoder {
+
+    public JacksonXmlDecoder(XmlMapper xmlMapper) {
+        super(xmlMapper, MediaType.APPLICATION_XML, MediaType.TEXT_XML);
+    }
+
+    @Override
+    public Flux<Object> decode(Publisher<DataBuffer> input, ResolvableType elementType, MimeType mimeType,
+                               Map<String, Object> hints) {
+        return decodeToMono(input, elementType, mimeType, hints).flux();
+    }
+}
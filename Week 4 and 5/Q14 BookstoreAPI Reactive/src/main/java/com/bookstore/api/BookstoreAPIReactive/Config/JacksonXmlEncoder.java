@@ -0,0 +1,40 @@
+package com.bookstore.api.BookstoreAPIReactive.Config;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.AbstractJackson2Encoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WebFlux has no Jackson XML codec, and the servlet application renders XML with Jackson, so
+ * this reuses the Jackson encoder with an {@link XmlMapper}. An XML list needs a single root
+ * element, so a Flux is collected and written as one document; use JSON or NDJSON to stream.
+ */
+public class JacksonXmlEncoder extends AbstractJackson2Encoder {
+
+    public JacksonXmlEncoder(XmlMapper xmlMapper) {
+        super(xmlMapper, MediaType.APPLICATION_XML, MediaType.TEXT_XML);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType,
+                                   MimeType mimeType, Map<String, Object> hints) {
+        if (inputStream instanceof Mono) {
+            return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+        }
+        ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+        return Flux.from(inputStream)
+            .collectList()
+            .map(list -> encodeValue(list, bufferFactory, listType, mimeType, hints))
+            .flux();
+    }
+}
@@ -0,0 +1,38 @@
+package com.bookstore.api.BookstoreAPIReactive.Config;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.hateoas.config.EnableHypermediaSupport;
+import org.springframework.hateoas.config.EnableHypermediaSupport.HypermediaType;
+import org.springframework.hateoas.mediatype.hal.HalConfiguration;
+import org.springframework.hateoas.support.WebStack;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+@Configuration
+@EnableHypermediaSupport(type = HypermediaType.HAL, stacks = WebStack.WEBFLUX)
+public class WebFluxConfig implements WebFluxConfigurer {
+
+    /**
+     * Renders HAL for streamed {@code application/x-ndjson} lists and, as the servlet API does,
+     * for plain {@code application/json}. Boot only registers the JSON one for Spring MVC
+     * (HypermediaAutoConfiguration); without these, NDJSON clients get no encoder for
+     * {@code EntityModel} and JSON clients {@code "links":[...]} instead of {@code "_links"}.
+     */
+    @Bean
+    HalConfiguration halConfiguration(@Value("${spring.hateoas.use-hal-as-default-json-media-type:true}") boolean halAsDefaultJson) {
+        HalConfiguration configuration = new HalConfiguration().withMediaType(MediaType.APPLICATION_NDJSON);
+        return halAsDefaultJson ? configuration.withMediaType(MediaType.APPLICATION_JSON) : configuration;
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        XmlMapper xmlMapper = Jackson2ObjectMapperBuilder.xml().build();
+        configurer.customCodecs().register(new JacksonXmlEncoder(xmlMapper));
+        configurer.customCodecs().register(new JacksonXmlDecoder(xmlMapper));
+    }
+}
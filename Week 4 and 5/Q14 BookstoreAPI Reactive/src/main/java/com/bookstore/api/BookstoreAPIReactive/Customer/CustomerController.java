@@ -0,0 +1,122 @@
+package com.bookstore.api.BookstoreAPIReactive.Customer;
+
+import com.bookstore.api.BookstoreAPIReactive.ErrorHandling.ConcurrentUpdateException;
+import com.bookstore.api.BookstoreAPIReactive.ErrorHandling.StacklessResourceNotFoundException;
+import com.bookstore.api.BookstoreAPIReactive.ErrorHandling.StacklessValidationException;
+import jakarta.validation.Valid;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+import static org.springframework.hateoas.server.reactive.WebFluxLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.reactive.WebFluxLinkBuilder.methodOn;
+
+@RestController
+@RequestMapping("/customers")
+public class CustomerController {
+
+    private static final int MAX_UPDATE_RETRIES = 4;
+
+    private final CustomerRepository customerRepository;
+
+    public CustomerController(CustomerRepository customerRepository) {
+        this.customerRepository = customerRepository;
+    }
+
+    @GetMapping(value = "/{id}", produces = { "application/json", "application/xml" })
+    public Mono<ResponseEntity<EntityModel<CustomerDTO>>> getCustomerById(@PathVariable Long id) {
+        return customerRepository.findById(id)
+            .switchIfEmpty(Mono.error(() -> new StacklessResourceNotFoundException("Customer", id)))
+            .flatMap(customer -> toModel(toDTO(customer)))
+            .map(resource -> new ResponseEntity<>(resource, responseHeaders(), HttpStatus.OK));
+    }
+
+    // Streamed with backpressure like GET /books
+    @GetMapping(produces = { "application/json", "application/x-ndjson", "application/xml" })
+    public ResponseEntity<Flux<EntityModel<CustomerDTO>>> getAllCustomers() {
+        // Element self links are the collection URI plus the id, resolved once rather than per row
+        Flux<EntityModel<CustomerDTO>> customers = linkTo(methodOn(CustomerController.class).getAllCustomers()).withSelfRel().toMono()
+            .flatMapMany(collection -> customerRepository.findAll()
+                .map(customer -> EntityModel.of(toDTO(customer), Link.of(collection.getHref() + "/" + customer.getId()))));
+        return new ResponseEntity<>(customers, responseHeaders(), HttpStatus.OK);
+    }
+
+    @PostMapping(consumes = { "application/json", "application/xml" }, produces = { "application/json", "application/xml" })
+    public Mono<ResponseEntity<EntityModel<CustomerDTO>>> createCustomer(@Valid @RequestBody CustomerDTO customerDTO) {
+        if (customerDTO.getEmail() == null || !customerDTO.getEmail().contains("@")) {
+            return Mono.error(StacklessValidationException.EMAIL_INVALID);
+        }
+        if (customerDTO.getName() == null || customerDTO.getName().trim().isEmpty()) {
+            return Mono.error(StacklessValidationException.NAME_EMPTY);
+        }
+
+        Customer customer = new Customer(customerDTO.getName(), customerDTO.getEmail(), customerDTO.getPhoneNumber());
+
+        return customerRepository.save(customer)
+            .flatMap(createdCustomer -> toModel(toDTO(createdCustomer)))
+            .map(resource -> new ResponseEntity<>(resource, responseHeaders(), HttpStatus.CREATED));
+    }
+
+    @PutMapping(value = "/{id}", consumes = { "application/json", "application/xml" }, produces = { "application/json", "application/xml" })
+    public Mono<ResponseEntity<EntityModel<CustomerDTO>>> updateCustomer(@PathVariable Long id, @Valid @RequestBody CustomerDTO customerDTO) {
+        if (customerDTO.getEmail() == null || !customerDTO.getEmail().contains("@")) {
+            return Mono.error(StacklessValidationException.EMAIL_INVALID);
+        }
+        if (customerDTO.getName() == null || customerDTO.getName().trim().isEmpty()) {
+            return Mono.error(StacklessValidationException.NAME_EMPTY);
+        }
+
+        // Versioned save; a concurrent writer makes it fail and the whole read-modify-write is retried
+        return customerRepository.findById(id)
+            .switchIfEmpty(Mono.error(() -> new StacklessResourceNotFoundException("Customer", id)))
+            .flatMap(customer -> {
+                customer.setName(customerDTO.getName());
+                customer.setEmail(customerDTO.getEmail());
+                customer.setPhoneNumber(customerDTO.getPhoneNumber());
+                return customerRepository.save(customer);
+            })
+            .retryWhen(Retry.backoff(MAX_UPDATE_RETRIES, Duration.ofMillis(2))
+                .filter(OptimisticLockingFailureException.class::isInstance)
+                .onRetryExhaustedThrow((spec, signal) ->
+                    new ConcurrentUpdateException("Customer " + id + " is being modified concurrently, please retry")))
+            .flatMap(updatedCustomer -> toModel(toDTO(updatedCustomer)))
+            .map(resource -> new ResponseEntity<>(resource, responseHeaders(), HttpStatus.OK));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteCustomer(@PathVariable Long id) {
+        return customerRepository.findById(id)
+            .switchIfEmpty(Mono.error(() -> new StacklessResourceNotFoundException("Customer", id)))
+            .flatMap(customerRepository::delete)
+            .then(Mono.fromSupplier(() -> new ResponseEntity<Void>(responseHeaders(), HttpStatus.NO_CONTENT)));
+    }
+
+    private Mono<EntityModel<CustomerDTO>> toModel(CustomerDTO customerDTO) {
+        Mono<EntityModel<CustomerDTO>> resource = linkTo(methodOn(CustomerController.class).getCustomerById(customerDTO.getId()))
+            .withSelfRel()
+            .toMono()
+            .map(selfLink -> EntityModel.of(customerDTO, selfLink));
+        return resource.zipWith(linkTo(methodOn(CustomerController.class).getAllCustomers()).withRel("all-customers").toMono(),
+            (model, link) -> model.add(link));
+    }
+
+    private static CustomerDTO toDTO(Customer customer) {
+        return new CustomerDTO(customer.getId(), customer.getName(), customer.getEmail(), customer.getPhoneNumber());
+    }
+
+    private static HttpHeaders responseHeaders() {
+        HttpHeaders responseHeaders = new HttpHeaders();
+        responseHeaders.add("X-Custom-Header", "CustomValue");
+        responseHeaders.add("X-Powered-By", "Spring Boot");
+        return responseHeaders;
+    }
+}
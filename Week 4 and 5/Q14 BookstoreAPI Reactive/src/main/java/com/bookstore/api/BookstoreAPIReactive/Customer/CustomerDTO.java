@@ -0,0 +1,61 @@
+package com.bookstore.api.BookstoreAPIReactive.Customer;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public class CustomerDTO {
+
+    private Long id;
+
+    @NotBlank(message = "Name must not be empty")
+    private String name;
+
+    @NotNull(message = "Email must not be null")
+    @Email(message = "Email must be valid")
+    private String email;
+
+    private String phoneNumber;
+
+    public CustomerDTO() {
+    }
+
+    public CustomerDTO(Long id, String name, String email, String phoneNumber) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.phoneNumber = phoneNumber;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    public void setPhoneNumber(String phoneNumber) {
+        this.phoneNumber = phoneNumber;
+    }
+}
@@ -0,0 +1,6 @@
+package com.bookstore.api.BookstoreAPIReactive.Customer;
+
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+public interface CustomerRepository extends ReactiveCrudRepository<Customer, Long> {
+}
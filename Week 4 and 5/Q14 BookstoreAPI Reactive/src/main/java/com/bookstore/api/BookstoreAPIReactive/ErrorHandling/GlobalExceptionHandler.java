@@ -0,0 +1,88 @@
+package com.bookstore.api.BookstoreAPIReactive.ErrorHandling;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.reactive.accept.RequestedContentTypeResolver;
+import org.springframework.web.server.NotAcceptableStatusException;
+import org.springframework.web.server.ServerWebExchange;
+
+// Same status codes and ErrorResponse bodies as the servlet application
+@ControllerAdvice
+public class GlobalExceptionHandler {
+
+    static final String NOT_FOUND_ERROR = "Resource not found";
+    static final String VALIDATION_ERROR = "Validation error";
+
+    private final ErrorBodies errorBodies;
+    private final RequestedContentTypeResolver contentTypeResolver;
+
+    public GlobalExceptionHandler(ErrorBodies errorBodies, RequestedContentTypeResolver contentTypeResolver) {
+        this.errorBodies = errorBodies;
+        this.contentTypeResolver = contentTypeResolver;
+    }
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<?> handleResourceNotFoundException(ResourceNotFoundException ex, ServerWebExchange exchange) {
+        if (ex instanceof StacklessResourceNotFoundException missing && acceptsJson(exchange)) {
+            return jsonBody(HttpStatus.NOT_FOUND, errorBodies.notFound(missing.getResource(), missing.getId()));
+        }
+        return new ResponseEntity<>(new ErrorResponse(NOT_FOUND_ERROR, ex.getMessage()), HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(ValidationException.class)
+    public ResponseEntity<?> handleValidationException(ValidationException ex, ServerWebExchange exchange) {
+        if (ex instanceof StacklessValidationException && acceptsJson(exchange)) {
+            return jsonBody(HttpStatus.BAD_REQUEST, errorBodies.fixed(VALIDATION_ERROR, ex.getMessage()));
+        }
+        return new ResponseEntity<>(new ErrorResponse(VALIDATION_ERROR, ex.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ConcurrentUpdateException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ResponseBody
+    public ErrorResponse handleConcurrentUpdateException(ConcurrentUpdateException ex) {
+        return new ErrorResponse("Concurrent modification", ex.getMessage());
+    }
+
+    // WebFlux reports @Valid failures with WebExchangeBindException instead of MethodArgumentNotValidException
+    @ExceptionHandler(WebExchangeBindException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ResponseBody
+    public ErrorResponse handleWebExchangeBindException(WebExchangeBindException ex) {
+        FieldError fieldError = ex.getBindingResult().getFieldError();
+        String fieldName = fieldError != null ? fieldError.getField() : "field";
+        String errorMessage = fieldError != null ? fieldError.getDefaultMessage() : VALIDATION_ERROR;
+        return new ErrorResponse(VALIDATION_ERROR, fieldName + " " + errorMessage);
+    }
+
+    @ExceptionHandler(Exception.class)
+    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+    @ResponseBody
+    public ErrorResponse handleGlobalException(Exception ex) {
+        return new ErrorResponse("Internal server error", ex.getMessage());
+    }
+
+    private boolean acceptsJson(ServerWebExchange exchange) {
+        try {
+            for (MediaType mediaType : contentTypeResolver.resolveMediaTypes(exchange)) {
+                if (!mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (NotAcceptableStatusException e) {
+            return false;
+        }
+    }
+
+    private static ResponseEntity<byte[]> jsonBody(HttpStatus status, byte[] body) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
@@ -0,0 +1,31 @@
+package com.bookstore.api.BookstoreAPIReactive.ErrorHandling;
+
+/**
+ * Cheap "not found by id", as in the servlet application: no stack trace is captured and the
+ * message is only built if someone asks for it. {@link GlobalExceptionHandler} answers it from
+ * a cached body.
+ */
+public class StacklessResourceNotFoundException extends ResourceNotFoundException {
+
+    private final String resource;
+    private final long id;
+
+    public StacklessResourceNotFoundException(String resource, long id) {
+        super(null, false);
+        this.resource = resource;
+        this.id = id;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    @Override
+    public String getMessage() {
+        return resource + " not found with id " + id;
+    }
+}
@@ -0,0 +1,11 @@
+package com.bookstore.api.BookstoreAPIReactive.ErrorHandling;
+
+public class ValidationException extends RuntimeException {
+    public ValidationException(String message) {
+        super(message);
+    }
+
+    protected ValidationException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+}
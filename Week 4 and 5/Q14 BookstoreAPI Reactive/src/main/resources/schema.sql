@@ -0,0 +1,18 @@
+-- Same columns as the tables Hibernate generates for the servlet application, minus the
+-- canonical ISBN key, which this variant does not serve
+CREATE TABLE IF NOT EXISTS book (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    title VARCHAR(100) NOT NULL,
+    author VARCHAR(100) NOT NULL,
+    price DOUBLE PRECISION NOT NULL,
+    isbn VARCHAR(13) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS customer (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    phone VARCHAR(15),
+    version BIGINT NOT NULL DEFAULT 0
+);
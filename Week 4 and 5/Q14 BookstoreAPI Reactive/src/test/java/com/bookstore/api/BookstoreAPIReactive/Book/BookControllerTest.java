@@ -0,0 +1,109 @@
+package com.bookstore.api.BookstoreAPIReactive.Book;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BookControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @LocalServerPort
+    private int port;
+
+    @AfterEach
+    void cleanUp() {
+        bookRepository.deleteAll().block();
+    }
+
+    @Test
+    void createdBookCanBeFetchedWithLinksAndHeaders() {
+        BookDTO created = webTestClient.post().uri("/books")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(new BookDTO(null, "Dune", "Frank Herbert", 9.99, "0441013597"))
+            .exchange()
+            .expectStatus().isCreated()
+            .expectBody(BookDTO.class)
+            .returnResult()
+            .getResponseBody();
+
+        webTestClient.get().uri("/books/{id}", created.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().valueEquals("X-Custom-Header", "CustomValue")
+            .expectBody()
+            .jsonPath("$.title").isEqualTo("Dune")
+            .jsonPath("$._links.self.href").isEqualTo(baseUrl() + "/books/" + created.getId());
+
+        webTestClient.get().uri("/books")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$[0]._links.self.href").isEqualTo(baseUrl() + "/books/" + created.getId());
+    }
+
+    private String baseUrl() {
+        return "http://localhost:" + port;
+    }
+
+    @Test
+    void missingBookReturnsErrorResponse() {
+        webTestClient.get().uri("/books/{id}", 987654)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectHeader().contentType(MediaType.APPLICATION_JSON)
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("Resource not found")
+            .jsonPath("$.message").isEqualTo("Book not found with id 987654");
+
+        webTestClient.get().uri("/books/{id}", 987654)
+            .accept(MediaType.APPLICATION_XML)
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectBody()
+            .xpath("/ErrorResponse/message").isEqualTo("Book not found with id 987654");
+
+        webTestClient.post().uri("/books")
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON)
+            .bodyValue(new BookDTO(null, "Dune", "Frank Herbert", 0.0, "0441013597"))
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("Validation error")
+            .jsonPath("$.message").isEqualTo("Price must be greater than zero");
+    }
+
+    @Test
+    void listIsStreamedOnDemand() {
+        bookRepository.saveAll(Flux.range(0, 50).map(i -> new Book("Title " + i, "Author", 10.0 + i, String.format("%010d", i))))
+            .blockLast();
+
+        Flux<BookDTO> books = webTestClient.get().uri("/books")
+            .accept(MediaType.APPLICATION_NDJSON)
+            .exchange()
+            .expectStatus().isOk()
+            .returnResult(BookDTO.class)
+            .getResponseBody();
+
+        StepVerifier.create(books, 5)
+            .expectNextCount(5)
+            .thenRequest(45)
+            .expectNextCount(45)
+            .verifyComplete();
+    }
+}
@@ -0,0 +1,101 @@
+package com.bookstore.api.BookstoreAPIReactive.Book;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Drives GET /books/{id} and GET /books at high concurrency against this application and,
+ * when {@code -Dbookstore.servlet.url=http://localhost:8080} is given, against the servlet
+ * application running side by side. Start a fresh servlet application (the seed books would
+ * collide with a previous run's ISBNs) with
+ * {@code --bookstore.ratelimit.enabled=false --bookstore.admission.enabled=false} so neither
+ * limiter skews the numbers. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ServletVsReactiveBenchmarkTest {
+
+    private static final int BOOKS = 1_000;
+    private static final int CONCURRENCY = 512;
+    private static final int POINT_REQUESTS = 50_000;
+    private static final int LIST_REQUESTS = 500;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void throughputAtHighConcurrency() {
+        run("reactive", "http://localhost:" + port);
+        String servletUrl = System.getProperty("bookstore.servlet.url");
+        if (servletUrl != null) {
+            run("servlet", servletUrl);
+        }
+    }
+
+    private void run(String name, String baseUrl) {
+        WebClient client = client(baseUrl);
+        List<Long> ids = seed(client, name);
+
+        measure(name, "GET /books/{id} (warm-up)", POINT_REQUESTS / 5, i ->
+            client.get().uri("/books/{id}", ids.get(i % ids.size())).accept(MediaType.APPLICATION_JSON).retrieve().toBodilessEntity().then());
+        measure(name, "GET /books/{id}", POINT_REQUESTS, i ->
+            client.get().uri("/books/{id}", ids.get(i % ids.size())).accept(MediaType.APPLICATION_JSON).retrieve().toBodilessEntity().then());
+        measure(name, "GET /books", LIST_REQUESTS, i ->
+            client.get().uri("/books").accept(MediaType.APPLICATION_JSON).retrieve().bodyToMono(byte[].class).then());
+    }
+
+    private static List<Long> seed(WebClient client, String name) {
+        return Flux.range(0, BOOKS)
+            .flatMap(i -> client.post().uri("/books")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(new BookDTO(null, "Benchmark " + name + " " + i, "Author " + (i % 50), 10.0 + i,
+                    String.format("9%03d%09d", Math.abs(name.hashCode()) % 1000, i)))
+                .retrieve()
+                .bodyToMono(BookDTO.class), 32)
+            .map(BookDTO::getId)
+            .collectList()
+            .block();
+    }
+
+    private static void measure(String name, String operation, int requests, IntFunction<Mono<Void>> call) {
+        long[] latencies = new long[requests];
+        long start = System.nanoTime();
+        Flux.range(0, requests)
+            .flatMap(i -> {
+                long requestStart = System.nanoTime();
+                return call.apply(i).doOnTerminate(() -> latencies[i] = System.nanoTime() - requestStart);
+            }, CONCURRENCY)
+            .blockLast();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        System.out.printf("%-8s %-28s %8.0f req/s  p50 %6.2f ms  p99 %7.2f ms%n", name, operation, requests / seconds,
+            latencies[requests / 2] / 1e6, latencies[(int) (requests * 0.99)] / 1e6);
+    }
+
+    private static WebClient client(String baseUrl) {
+        ConnectionProvider connections = ConnectionProvider.builder("benchmark")
+            .maxConnections(CONCURRENCY)
+            .pendingAcquireMaxCount(-1)
+            .build();
+        return WebClient.builder()
+            .baseUrl(baseUrl)
+            .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+            .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
+            .build();
+    }
+}
@@ -0,0 +1,99 @@
+package com.bookstore.api.BookstoreAPI.Audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.bookstore.api.BookstoreAPI.Audit.AuditRecordCodec.FILE_HEADER_SIZE;
+
+/**
+ * The segment currently appended to. Only the journal writer touches the channel; readers
+ * look records up in the in-memory index, whose access is synchronized on the owning
+ * {@link AuditLog}, and read them through a channel of their own.
+ */
+final class ActiveSegment {
+
+    private final Path log;
+    private final FileChannel channel;
+    private final SegmentIndex index;
+    private long size;
+
+    private ActiveSegment(Path log, FileChannel channel, SegmentIndex index, long size) {
+        this.log = log;
+        this.channel = channel;
+        this.index = index;
+        this.size = size;
+    }
+
+    static ActiveSegment create(Path log, long firstSequence) throws IOException {
+        FileChannel channel = FileChannel.open(log, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer header = AuditRecordCodec.fileHeader(firstSequence);
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        channel.force(true);
+        return new ActiveSegment(log, channel, new SegmentIndex(), FILE_HEADER_SIZE);
+    }
+
+    /** Reopens the last segment after a restart, cutting off a record torn by a crash. */
+    static ActiveSegment recover(Path log) throws IOException {
+        FileChannel channel = FileChannel.open(log, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            SealedSegment.checkLogHeader(channel, log);
+            SegmentIndex index = new SegmentIndex();
+            long end = SegmentIndex.scan(channel, index);
+            if (end < channel.size()) {
+                channel.truncate(end);
+                channel.force(true);
+            }
+            return new ActiveSegment(log, channel, index, end);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Writes a batch of encoded records at the end of the segment. */
+    void write(ByteBuffer records) throws IOException {
+        long position = size;
+        while (records.hasRemaining()) {
+            position += channel.write(records, position);
+        }
+        size = position;
+    }
+
+    /** Drops a partially written batch so a retry does not leave half of it in the log. */
+    void truncate(long newSize) throws IOException {
+        channel.truncate(newSize);
+        size = newSize;
+    }
+
+    void force() throws IOException {
+        channel.force(false);
+    }
+
+    /** Forces the log, writes its index file and closes it; the log is then opened as a {@link SealedSegment}. */
+    void seal() throws IOException {
+        channel.force(true);
+        index.write(SealedSegment.indexFile(log), size);
+        channel.close();
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+    SegmentIndex index() {
+        return index;
+    }
+
+    Path getLog() {
+        return log;
+    }
+
+    long getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,105 @@
+package com.bookstore.api.BookstoreAPI.Audit;
+
+import com.bookstore.api.BookstoreAPI.Audit.AuditRecord.Action;
+import com.bookstore.api.BookstoreAPI.Audit.AuditRecord.EntityType;
+import com.bookstore.api.BookstoreAPI.Book.Book;
+import com.bookstore.api.BookstoreAPI.Customer.Customer;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns every book and customer row Hibernate inserts, updates or deletes into an
+ * {@link AuditRecord}. The records of a transaction are collected as it flushes and written
+ * to the journal just before the database commits, so a write the journal cannot take rolls
+ * back. If the commit itself then fails, the written records are followed by rollback markers.
+ */
+class AuditCapture implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final AuditJournal journal;
+    private final Map<EventSource, Pending> pendingBySession = new ConcurrentHashMap<>();
+
+    AuditCapture(AuditJournal journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        capture(event.getSession(), toRecord(event.getEntity(), event.getId(), Action.CREATED));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        capture(event.getSession(), toRecord(event.getEntity(), event.getId(), Action.UPDATED));
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        capture(event.getSession(), toRecord(event.getEntity(), event.getId(), Action.DELETED));
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    /** The entity's state after the change; a deleted book keeps its last state, a deleted customer none. */
+    private static AuditRecord toRecord(Object entity, Object id, Action action) {
+        long now = System.currentTimeMillis();
+        if (entity instanceof Book book) {
+            return new AuditRecord(0, now, EntityType.BOOK, (Long) id, action,
+                book.getTitle(), book.getAuthor(), book.getPrice() != null ? book.getPrice().toString() : null, book.getIsbn());
+        }
+        if (entity instanceof Customer customer) {
+            return action == Action.DELETED
+                ? new AuditRecord(0, now, EntityType.CUSTOMER, (Long) id, action)
+                : new AuditRecord(0, now, EntityType.CUSTOMER, (Long) id, action,
+                    customer.getName(), customer.getEmail(), customer.getPhoneNumber());
+        }
+        return null;
+    }
+
+    /** Adds the record to the session's pending batch, registering the commit callbacks on its first record. */
+    private void capture(EventSource session, AuditRecord record) {
+        if (record == null) {
+            return;
+        }
+        Pending pending = pendingBySession.get(session);
+        if (pending == null) {
+            // A session is used by one thread at a time, so get-then-put does not race
+            Pending registered = new Pending();
+            pendingBySession.put(session, registered);
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) ignored -> registered.append());
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, ignored) -> {
+                pendingBySession.remove(session);
+                if (!success && registered.attempted) {
+                    journal.appendRolledBack(registered.records);
+                }
+            });
+            pending = registered;
+        }
+        pending.records.add(record);
+    }
+
+    private final class Pending {
+        final List<AuditRecord> records = new ArrayList<>();
+        boolean attempted;
+
+        void append() {
+            attempted = true;
+            journal.appendDurably(records);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.bookstore.api.BookstoreAPI.Audit;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Exposes the audit journal at /actuator/audit and an entity's change history at
+ * /actuator/audit/{entity}/{id}, e.g. /actuator/audit/book/42.
+ */
+@Component
+@Endpoint(id = "audit")
+public class AuditEndpoint {
+
+    private final AuditJournal journal;
+
+    public AuditEndpoint(AuditJournal journal) {
+        this.journal = journal;
+    }
+
+    @ReadOperation
+    public Map<String, Object> summary() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", journal.isEnabled());
+        result.put("segments", journal.segmentCount());
+        result.put("lastSequence", journal.lastSequence());
+        result.put("queued", journal.queued());
+        return result;
+    }
+
+    @ReadOperation
+    public List<Map<String, Object>> history(@Selector String entity, @Selector long id) {
+        AuditRecord.EntityType entityType;
+        try {
+            entityType = AuditRecord.EntityType.valueOf(entity.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        List<Map<String, Object>> changes = new ArrayList<>();
+        for (AuditRecord record : journal.history(entityType, id)) {
+            Map<String, Object> change = new LinkedHashMap<>();
+            change.put("sequence", record.getSequence());
+            change.put("timestamp", record.getTimestamp());
+            change.put("action", record.getAction());
+            change.put("state", record.getState());
+            changes.add(change);
+        }
+        return changes;
+    }
+}
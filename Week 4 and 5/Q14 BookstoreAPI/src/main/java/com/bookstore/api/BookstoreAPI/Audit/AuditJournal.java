@@ -0,0 +1,325 @@
+package com.bookstore.api.BookstoreAPI.Audit;
+
+import com.bookstore.api.BookstoreAPI.Audit.AuditRecord.Action;
+import com.bookstore.api.BookstoreAPI.Audit.AuditRecord.EntityType;
+import com.bookstore.api.BookstoreAPI.ErrorHandling.StoreUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Audit trail of every book and customer write, switched on with {@code bookstore.audit.enabled}.
+ * {@link AuditCapture} hands over the records of each transaction just before the database
+ * commits, and book imports, which bypass Hibernate, call {@link #appendInTransaction}. A
+ * single writer thread appends queued records to the {@link AuditLog} in batches and forces
+ * each batch with one fsync (group commit); the committing thread waits for its batch, so no
+ * write commits before its record is on disk.
+ * <p>
+ * A batch is whatever queued up during the previous fsync, topped up for at most
+ * {@code group-commit-ms}. A full queue holds writers back; if their records are not on disk
+ * within {@code append-timeout-ms} the write fails with 503 and rolls back rather than
+ * committing unaudited. Records of a transaction that then fails to commit are followed by
+ * {@code ROLLED_BACK} markers.
+ */
+@Service
+public class AuditJournal {
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long segmentBytes;
+    private final long segmentMillis;
+    private final long retentionMillis;
+    private final int batchSize;
+    private final long groupCommitNanos;
+    private final long appendTimeoutNanos;
+    private final EntityManagerFactory entityManagerFactory;
+    private final BlockingQueue<Submission> queue;
+
+    private final Counter appended;
+    private final Counter rejected;
+    private final Counter writeErrors;
+    private final DistributionSummary batchSizes;
+    private final Timer fsyncs;
+
+    private volatile AuditLog log;
+    private volatile boolean running;
+    private Thread writer;
+
+    public AuditJournal(MeterRegistry meterRegistry,
+                        EntityManagerFactory entityManagerFactory,
+                        @Value("${bookstore.audit.enabled:false}") boolean enabled,
+                        @Value("${bookstore.audit.directory:${java.io.tmpdir}/bookstore-audit}") String directory,
+                        @Value("${bookstore.audit.segment-bytes:67108864}") long segmentBytes,
+                        @Value("${bookstore.audit.segment-ms:86400000}") long segmentMillis,
+                        @Value("${bookstore.audit.retention-ms:0}") long retentionMillis,
+                        @Value("${bookstore.audit.queue-size:65536}") int queueSize,
+                        @Value("${bookstore.audit.batch-size:1024}") int batchSize,
+                        @Value("${bookstore.audit.group-commit-ms:2}") long groupCommitMillis,
+                        @Value("${bookstore.audit.append-timeout-ms:1000}") long appendTimeoutMillis) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.segmentBytes = segmentBytes;
+        this.segmentMillis = segmentMillis;
+        this.retentionMillis = retentionMillis;
+        this.batchSize = Math.max(1, batchSize);
+        this.groupCommitNanos = TimeUnit.MILLISECONDS.toNanos(groupCommitMillis);
+        this.appendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(appendTimeoutMillis);
+        this.entityManagerFactory = entityManagerFactory;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+
+        this.appended = meterRegistry.counter("audit_journal_records");
+        this.rejected = Counter.builder("audit_journal_rejected_writes")
+            .description("Writes rolled back because their records were not on disk within append-timeout-ms")
+            .register(meterRegistry);
+        this.writeErrors = meterRegistry.counter("audit_journal_write_errors");
+        this.batchSizes = DistributionSummary.builder("audit_journal_batch_size")
+            .description("Records forced to disk per fsync")
+            .register(meterRegistry);
+        this.fsyncs = Timer.builder("audit_journal_fsync")
+            .description("Time to write and fsync one batch")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        Gauge.builder("audit_journal_queue_depth", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("audit_journal_segments", this, AuditJournal::segmentCount).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            log = AuditLog.open(directory, segmentBytes, segmentMillis);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the audit journal in " + directory, e);
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "audit-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+
+        EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry().getService(EventListenerRegistry.class);
+        AuditCapture capture = new AuditCapture(this);
+        listeners.appendListeners(EventType.POST_INSERT, capture);
+        listeners.appendListeners(EventType.POST_UPDATE, capture);
+        listeners.appendListeners(EventType.POST_DELETE, capture);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues the records and waits until they are on disk, blocking while the queue is full.
+     * Throws {@link StoreUnavailableException} if that takes longer than {@code append-timeout-ms},
+     * so the caller's transaction rolls back instead of committing an unaudited write.
+     */
+    public void appendDurably(List<AuditRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        Submission submission = new Submission(records);
+        long deadline = System.nanoTime() + appendTimeoutNanos;
+        try {
+            if (!running || !queue.offer(submission, appendTimeoutNanos, TimeUnit.NANOSECONDS)
+                    || !submission.written.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                throw unavailable(records);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw unavailable(records);
+        }
+    }
+
+    /**
+     * For writes that bypass Hibernate: appends the records durably from inside the caller's
+     * transaction, and marks them rolled back if that transaction does not commit.
+     */
+    public void appendInTransaction(List<AuditRecord> records) {
+        if (!enabled) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    appendRolledBack(records);
+                }
+            }
+        });
+        appendDurably(records);
+    }
+
+    /**
+     * Follows records whose transaction did not commit with a {@code ROLLED_BACK} marker each.
+     * The markers are not waited for: the write has already failed either way.
+     */
+    void appendRolledBack(List<AuditRecord> records) {
+        List<AuditRecord> markers = new ArrayList<>(records.size());
+        long now = System.currentTimeMillis();
+        for (AuditRecord record : records) {
+            markers.add(new AuditRecord(0, now, record.getEntityType(), record.getEntityId(), Action.ROLLED_BACK, record.values()));
+        }
+        try {
+            if (!running || !queue.offer(new Submission(markers), appendTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                writeErrors.increment();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writeErrors.increment();
+        }
+    }
+
+    private StoreUnavailableException unavailable(List<AuditRecord> records) {
+        rejected.increment();
+        AuditRecord first = records.get(0);
+        return new StoreUnavailableException("The audit journal could not record the change to "
+            + first.getEntityType().name().toLowerCase(Locale.ROOT) + " " + first.getEntityId() + ", please retry", 1);
+    }
+
+    /** Every journaled change of the entity, oldest first; records still queued are not included. */
+    public List<AuditRecord> history(EntityType entityType, long entityId) {
+        AuditLog current = log;
+        if (current == null) {
+            return List.of();
+        }
+        try {
+            return current.history(entityType, entityId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the audit history of " + entityType + " " + entityId, e);
+        }
+    }
+
+    private void writeLoop() {
+        List<Submission> submissions = new ArrayList<>();
+        List<AuditRecord> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Submission first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                add(first, submissions, batch);
+                long deadline = System.nanoTime() + groupCommitNanos;
+                while (batch.size() < batchSize) {
+                    Submission next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    add(next, submissions, batch);
+                }
+                if (commit(batch)) {
+                    submissions.forEach(submission -> submission.written.countDown());
+                }
+                submissions.clear();
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static void add(Submission submission, List<Submission> submissions, List<AuditRecord> batch) {
+        submissions.add(submission);
+        batch.addAll(submission.records);
+    }
+
+    /**
+     * Writes the batch, retrying until the disk takes it or the journal stops. Writers whose
+     * timeout passes meanwhile have already rolled back, and get rollback markers later.
+     */
+    private boolean commit(List<AuditRecord> batch) throws InterruptedException {
+        while (true) {
+            long start = System.nanoTime();
+            try {
+                log.append(batch);
+                fsyncs.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                batchSizes.record(batch.size());
+                appended.increment(batch.size());
+                return true;
+            } catch (IOException | UncheckedIOException e) {
+                writeErrors.increment();
+                if (!running) {
+                    return false;
+                }
+                Thread.sleep(1000);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${bookstore.audit.compaction-interval-ms:3600000}",
+               initialDelayString = "${bookstore.audit.compaction-interval-ms:3600000}")
+    public void compact() {
+        AuditLog current = log;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.compact(retentionMillis > 0 ? System.currentTimeMillis() - retentionMillis : 0);
+        } catch (IOException e) {
+            // Compaction only reorganizes sealed segments; the next run retries
+            writeErrors.increment();
+        }
+    }
+
+    int segmentCount() {
+        AuditLog current = log;
+        return current != null ? current.segmentCount() : 0;
+    }
+
+    long lastSequence() {
+        AuditLog current = log;
+        return current != null ? current.lastSequence() : 0;
+    }
+
+    long queued() {
+        return queue.size();
+    }
+
+    /** One transaction's records; {@code written} opens once they are all on disk. */
+    private static final class Submission {
+        final List<AuditRecord> records;
+        final CountDownLatch written = new CountDownLatch(1);
+
+        Submission(List<AuditRecord> records) {
+            this.records = records;
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        if (writer == null) {
+            return;
+        }
+        // Not interrupted: an interrupt mid-write would close the segment's FileChannel
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        log.close();
+    }
+}
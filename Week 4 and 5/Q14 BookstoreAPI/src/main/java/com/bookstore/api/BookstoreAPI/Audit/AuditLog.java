@@ -0,0 +1,311 @@
+package com.bookstore.api.BookstoreAPI.Audit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.bookstore.api.BookstoreAPI.Audit.AuditRecordCodec.FILE_HEADER_SIZE;
+
+/**
+ * The journal on disk: a directory of append-only segments named after their first sequence
+ * ({@code audit-00000000000000000001.log}), each sealed with a sorted entity index once it
+ * reaches {@code segmentBytes} or its oldest record is {@code segmentMillis} old. Records are never rewritten; compaction only merges small
+ * sealed segments into one and drops segments past the retention period.
+ * <p>
+ * {@link #append} is called from a single writer thread. {@link #history} and
+ * {@link #compact} may run concurrently with it and with each other.
+ */
+final class AuditLog implements Closeable {
+
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".log";
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final long segmentMillis;
+    private final Object compactionLock = new Object();
+    private ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+
+    // Swapped under the monitor of this; readers take a consistent pair under it
+    private volatile List<SealedSegment> sealed;
+    private ActiveSegment active;
+    private long nextSequence;
+
+    private AuditLog(Path directory, long segmentBytes, long segmentMillis, List<SealedSegment> sealed, ActiveSegment active,
+                     long nextSequence) {
+        this.directory = directory;
+        this.segmentBytes = Math.min(segmentBytes, MAX_SEGMENT_BYTES);
+        this.segmentMillis = segmentMillis;
+        this.sealed = sealed;
+        this.active = active;
+        this.nextSequence = nextSequence;
+    }
+
+    /**
+     * Opens the journal in {@code directory}, recovering from a crash: a torn record at the end
+     * of the last segment is cut off, missing or stale indexes are rebuilt, and segments left
+     * over from an interrupted compaction are deleted.
+     */
+    static AuditLog open(Path directory, long segmentBytes, long segmentMillis) throws IOException {
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(directory, PREFIX + "*.tmp")) {
+            for (Path leftover : leftovers) {
+                Files.deleteIfExists(leftover);
+            }
+        }
+        List<Path> logs = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            stream.forEach(logs::add);
+        }
+        logs.sort(Comparator.comparingLong(AuditLog::firstSequenceOf));
+
+        List<SealedSegment> sealed = new ArrayList<>();
+        ActiveSegment active = null;
+        long lastSequence = 0;
+        for (int i = 0; i < logs.size(); i++) {
+            Path log = logs.get(i);
+            if (i == logs.size() - 1 && !Files.exists(SealedSegment.indexFile(log))) {
+                active = ActiveSegment.recover(log);
+                lastSequence = Math.max(lastSequence, active.index().lastSequence());
+                continue;
+            }
+            SealedSegment segment = SealedSegment.open(log);
+            if (segment.getRecords() == 0 || segment.getFirstSequence() <= lastSequence) {
+                // Empty, or already merged into the segment before it by an interrupted compaction
+                segment.delete();
+                continue;
+            }
+            sealed.add(segment);
+            lastSequence = segment.getLastSequence();
+        }
+        if (active == null) {
+            active = ActiveSegment.create(logPath(directory, lastSequence + 1), lastSequence + 1);
+        }
+        return new AuditLog(directory, segmentBytes, segmentMillis, List.copyOf(sealed), active, lastSequence + 1);
+    }
+
+    private static long firstSequenceOf(Path log) {
+        String name = log.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static Path logPath(Path directory, long firstSequence) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX));
+    }
+
+    /**
+     * Writes the records with consecutive sequences and forces them to disk with a single
+     * fsync. A segment due for sealing is sealed before the batch, so a batch never spans two
+     * segments. Returns the last sequence written.
+     */
+    long append(List<AuditRecord> records) throws IOException {
+        SegmentIndex activeIndex = active.index();
+        if (active.getSize() >= segmentBytes
+                || (activeIndex.records() > 0 && System.currentTimeMillis() - activeIndex.minTimestamp() >= segmentMillis)) {
+            roll();
+        }
+        long start = active.getSize();
+        long firstSequence = nextSequence;
+        int count = records.size();
+        long[] keys = new long[count];
+        int[] offsets = new int[count];
+
+        buffer.clear();
+        for (int i = 0; i < count; i++) {
+            AuditRecord record = records.get(i);
+            byte[][] values = AuditRecordCodec.encodeValues(record);
+            int size = AuditRecordCodec.recordSize(values);
+            if (buffer.remaining() < size) {
+                buffer = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + size)).put(buffer.flip());
+            }
+            keys[i] = AuditRecordCodec.key(record.getEntityType(), record.getEntityId());
+            offsets[i] = (int) (start + buffer.position());
+            AuditRecordCodec.encode(record, firstSequence + i, values, buffer);
+        }
+        buffer.flip();
+        try {
+            active.write(buffer);
+            active.force();
+        } catch (IOException e) {
+            try {
+                active.truncate(start);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            for (int i = 0; i < count; i++) {
+                active.index().add(keys[i], offsets[i], firstSequence + i, records.get(i).getTimestamp());
+            }
+            nextSequence = firstSequence + count;
+        }
+        return nextSequence - 1;
+    }
+
+    private void roll() throws IOException {
+        ActiveSegment full = active;
+        full.seal();
+        SealedSegment segment = SealedSegment.open(full.getLog());
+        ActiveSegment next = ActiveSegment.create(logPath(directory, nextSequence), nextSequence);
+        synchronized (this) {
+            List<SealedSegment> segments = new ArrayList<>(sealed);
+            segments.add(segment);
+            sealed = List.copyOf(segments);
+            active = next;
+        }
+    }
+
+    /** Every record of the entity, oldest first. */
+    List<AuditRecord> history(AuditRecord.EntityType entityType, long entityId) throws IOException {
+        long key = AuditRecordCodec.key(entityType, entityId);
+        List<SealedSegment> segments;
+        Path activeLog;
+        int[] activeOffsets;
+        synchronized (this) {
+            segments = sealed;
+            activeLog = active.getLog();
+            activeOffsets = active.index().offsets(key);
+        }
+
+        List<AuditRecord> history = new ArrayList<>();
+        for (SealedSegment segment : segments) {
+            segment.collect(key, history);
+        }
+        if (activeOffsets.length > 0) {
+            // A channel per lookup: an interrupt while reading closes it, and must not close the writer's
+            try (FileChannel channel = FileChannel.open(activeLog, StandardOpenOption.READ)) {
+                for (int offset : activeOffsets) {
+                    history.add(readFramed(channel, offset));
+                }
+            }
+        }
+        return history;
+    }
+
+    private static AuditRecord readFramed(FileChannel channel, int offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(AuditRecordCodec.RECORD_HEADER_SIZE);
+        SegmentIndex.readFully(channel, header, offset);
+        int length = header.getInt(0);
+        if (length <= 0 || length > AuditRecordCodec.MAX_BODY_SIZE) {
+            throw new IOException("Audit record at " + offset + " of " + channel + " is corrupt");
+        }
+        ByteBuffer framed = ByteBuffer.allocate(AuditRecordCodec.RECORD_HEADER_SIZE + length);
+        SegmentIndex.readFully(channel, framed, offset);
+        return AuditRecordCodec.decodeFramed(framed, 0);
+    }
+
+    /**
+     * Deletes sealed segments whose newest record is older than {@code retainAfterMillis}
+     * (0 keeps everything), then merges runs of adjacent sealed segments that together fit in
+     * one segment. A merged segment takes the name of the first one it replaces; the others are
+     * deleted afterwards, and {@link #open} discards any that a crash left behind.
+     *
+     * @return the number of segment files removed
+     */
+    int compact(long retainAfterMillis) throws IOException {
+        synchronized (compactionLock) {
+            int removed = 0;
+            List<SealedSegment> expired = new ArrayList<>();
+            for (SealedSegment segment : sealed) {
+                if (retainAfterMillis <= 0 || segment.getMaxTimestamp() >= retainAfterMillis) {
+                    break;
+                }
+                expired.add(segment);
+            }
+            if (!expired.isEmpty()) {
+                replace(expired, null);
+                for (SealedSegment segment : expired) {
+                    segment.delete();
+                }
+                removed += expired.size();
+            }
+
+            List<SealedSegment> run = new ArrayList<>();
+            long runBytes = FILE_HEADER_SIZE;
+            for (SealedSegment segment : sealed) {
+                long records = segment.getSize() - FILE_HEADER_SIZE;
+                if (runBytes + records > segmentBytes) {
+                    removed += merge(run);
+                    run.clear();
+                    runBytes = FILE_HEADER_SIZE;
+                }
+                run.add(segment);
+                runBytes += records;
+            }
+            removed += merge(run);
+            return removed;
+        }
+    }
+
+    private int merge(List<SealedSegment> run) throws IOException {
+        if (run.size() < 2) {
+            return 0;
+        }
+        Path target = run.get(0).getLog();
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            ByteBuffer header = AuditRecordCodec.fileHeader(run.get(0).getFirstSequence());
+            while (header.hasRemaining()) {
+                out.write(header);
+            }
+            for (SealedSegment segment : run) {
+                segment.transferRecordsTo(out);
+            }
+            out.force(true);
+        }
+        // The old index no longer matches the log's size, so a crash from here on rebuilds it
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        SealedSegment merged = SealedSegment.open(target);
+        replace(run, merged);
+        for (SealedSegment segment : run.subList(1, run.size())) {
+            segment.delete();
+        }
+        return run.size() - 1;
+    }
+
+    /** Swaps {@code old} (adjacent in the list) for {@code replacement}, or removes it if that is null. */
+    private synchronized void replace(List<SealedSegment> old, SealedSegment replacement) {
+        List<SealedSegment> segments = new ArrayList<>(sealed.size());
+        boolean replaced = false;
+        for (SealedSegment segment : sealed) {
+            if (old.contains(segment)) {
+                if (!replaced && replacement != null) {
+                    segments.add(replacement);
+                }
+                replaced = true;
+            } else {
+                segments.add(segment);
+            }
+        }
+        sealed = List.copyOf(segments);
+    }
+
+    int segmentCount() {
+        return sealed.size() + 1;
+    }
+
+    synchronized long lastSequence() {
+        return nextSequence - 1;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        active.close();
+    }
+}
@@ -0,0 +1,86 @@
+package com.bookstore.api.BookstoreAPI.Audit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One entry of the audit journal: which entity changed, how, when, and its state after the
+ * change (before it, for deletes where the state is known). Field values are kept as strings
+ * in the order of {@link EntityType#getFields()}. A {@code ROLLED_BACK} record repeats an
+ * earlier record of the same entity whose transaction did not commit.
+ */
+public final class AuditRecord {
+
+    public enum EntityType {
+        BOOK("title", "author", "price", "isbn"),
+        CUSTOMER("name", "email", "phoneNumber");
+
+        private final String[] fields;
+
+        EntityType(String... fields) {
+            this.fields = fields;
+        }
+
+        public String[] getFields() {
+            return fields.clone();
+        }
+    }
+
+    public enum Action { CREATED, UPDATED, DELETED, ROLLED_BACK }
+
+    private final long sequence;
+    private final long timestamp;
+    private final EntityType entityType;
+    private final long entityId;
+    private final Action action;
+    private final String[] values;
+
+    /**
+     * @param sequence position in the journal; 0 for a record that has not been written yet
+     * @param timestamp epoch milliseconds of the change
+     */
+    public AuditRecord(long sequence, long timestamp, EntityType entityType, long entityId, Action action, String... values) {
+        if (values.length > entityType.fields.length) {
+            throw new IllegalArgumentException(entityType + " records have at most " + entityType.fields.length + " fields");
+        }
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.action = action;
+        this.values = values;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    public long getEntityId() {
+        return entityId;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    /** Field name to value; empty when the state was not recorded. */
+    public Map<String, String> getState() {
+        Map<String, String> state = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            state.put(entityType.fields[i], values[i]);
+        }
+        return state;
+    }
+
+    String[] values() {
+        return values;
+    }
+}
@@ -0,0 +1,136 @@
+package com.bookstore.api.BookstoreAPI.Audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary layout of journal segments, all big-endian:
+ * <pre>
+ *   file header  magic:int format:int firstSequence:long
+ *   record       length:int crc32c:int body
+ *   body         sequence:long timestamp:long entityType:byte action:byte entityId:long
+ *                fieldCount:byte fields   (strings: length:u16 + UTF-8, 0xFFFF meaning null)
+ * </pre>
+ * The checksum covers the body, so a record torn by a crash is detected and cut off on
+ * recovery.
+ */
+final class AuditRecordCodec {
+
+    static final int MAGIC = 0x424B4155; // "BKAU"
+    static final int FORMAT = 1;
+    static final int FILE_HEADER_SIZE = 16;
+    static final int RECORD_HEADER_SIZE = 8;
+    static final int MAX_BODY_SIZE = 1 << 20;
+
+    private static final int FIXED_BODY_SIZE = 27;
+    private static final int NULL_LENGTH = 0xFFFF;
+
+    private AuditRecordCodec() {
+    }
+
+    static ByteBuffer fileHeader(long firstSequence) {
+        return ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).putInt(FORMAT).putLong(firstSequence).flip();
+    }
+
+    /**
+     * Encoded field values, computed once so the record size is known before writing. Values
+     * longer than 65534 bytes are cut off; entity validation keeps real fields far below that.
+     */
+    static byte[][] encodeValues(AuditRecord record) {
+        String[] values = record.values();
+        byte[][] encoded = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                byte[] bytes = values[i].getBytes(StandardCharsets.UTF_8);
+                encoded[i] = bytes.length < NULL_LENGTH ? bytes : Arrays.copyOf(bytes, NULL_LENGTH - 1);
+            }
+        }
+        return encoded;
+    }
+
+    /** Size of the framed record, header included. */
+    static int recordSize(byte[][] values) {
+        int size = RECORD_HEADER_SIZE + FIXED_BODY_SIZE;
+        for (byte[] value : values) {
+            size += 2 + (value != null ? value.length : 0);
+        }
+        return size;
+    }
+
+    static void encode(AuditRecord record, long sequence, byte[][] values, ByteBuffer out) {
+        int start = out.position();
+        out.position(start + RECORD_HEADER_SIZE);
+        out.putLong(sequence);
+        out.putLong(record.getTimestamp());
+        out.put((byte) record.getEntityType().ordinal());
+        out.put((byte) record.getAction().ordinal());
+        out.putLong(record.getEntityId());
+        out.put((byte) values.length);
+        for (byte[] value : values) {
+            if (value == null) {
+                out.putShort((short) NULL_LENGTH);
+            } else {
+                out.putShort((short) value.length);
+                out.put(value);
+            }
+        }
+        int bodyLength = out.position() - start - RECORD_HEADER_SIZE;
+        CRC32C crc = new CRC32C();
+        crc.update(out.slice(start + RECORD_HEADER_SIZE, bodyLength));
+        out.putInt(start, bodyLength);
+        out.putInt(start + 4, (int) crc.getValue());
+    }
+
+    static boolean checksumMatches(ByteBuffer body, int expected) {
+        CRC32C crc = new CRC32C();
+        crc.update(body.duplicate());
+        return (int) crc.getValue() == expected;
+    }
+
+    /** Checks and decodes the framed record at {@code offset}; {@code data} is not modified. */
+    static AuditRecord decodeFramed(ByteBuffer data, int offset) throws IOException {
+        if (offset < 0 || offset + RECORD_HEADER_SIZE > data.limit()) {
+            throw new IOException("Audit record at " + offset + " is truncated");
+        }
+        int length = data.getInt(offset);
+        if (length <= 0 || length > MAX_BODY_SIZE || offset + RECORD_HEADER_SIZE + length > data.limit()) {
+            throw new IOException("Audit record at " + offset + " is corrupt or truncated");
+        }
+        ByteBuffer body = data.slice(offset + RECORD_HEADER_SIZE, length);
+        if (!checksumMatches(body, data.getInt(offset + 4))) {
+            throw new IOException("Audit record at " + offset + " fails its checksum");
+        }
+        return decode(body);
+    }
+
+    /** Decodes a body positioned at its first byte. */
+    static AuditRecord decode(ByteBuffer body) throws IOException {
+        try {
+            long sequence = body.getLong();
+            long timestamp = body.getLong();
+            AuditRecord.EntityType entityType = AuditRecord.EntityType.values()[body.get()];
+            AuditRecord.Action action = AuditRecord.Action.values()[body.get()];
+            long entityId = body.getLong();
+            String[] values = new String[body.get()];
+            for (int i = 0; i < values.length; i++) {
+                int length = Short.toUnsignedInt(body.getShort());
+                if (length != NULL_LENGTH) {
+                    byte[] bytes = new byte[length];
+                    body.get(bytes);
+                    values[i] = new String(bytes, StandardCharsets.UTF_8);
+                }
+            }
+            return new AuditRecord(sequence, timestamp, entityType, entityId, action, values);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt audit record", e);
+        }
+    }
+
+    /** Index key of an entity: the id shifted left by one with the entity type in the low bit. */
+    static long key(AuditRecord.EntityType entityType, long entityId) {
+        return (entityId << 1) | entityType.ordinal();
+    }
+}
@@ -0,0 +1,160 @@
+package com.bookstore.api.BookstoreAPI.Audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static com.bookstore.api.BookstoreAPI.Audit.AuditRecordCodec.FILE_HEADER_SIZE;
+import static com.bookstore.api.BookstoreAPI.Audit.SegmentIndex.INDEX_ENTRY_SIZE;
+import static com.bookstore.api.BookstoreAPI.Audit.SegmentIndex.INDEX_HEADER_SIZE;
+import static com.bookstore.api.BookstoreAPI.Audit.SegmentIndex.INDEX_MAGIC;
+
+/**
+ * A full, read-only journal segment. Log and index are memory-mapped: finding an entity's
+ * records is a binary search over the index plus one absolute read per record, so history
+ * lookups never scan a log, and there is no channel for an interrupted reader to close.
+ * The mappings stay valid after compaction deletes the files. Safe to share between threads.
+ */
+final class SealedSegment {
+
+    private final Path log;
+    private final MappedByteBuffer data;
+    private final MappedByteBuffer index;
+    private final int records;
+    private final long firstSequence;
+    private final long lastSequence;
+    private final long maxTimestamp;
+
+    private SealedSegment(Path log, MappedByteBuffer data, MappedByteBuffer index) {
+        this.log = log;
+        this.data = data;
+        this.index = index;
+        this.records = index.getInt(8);
+        this.firstSequence = index.getLong(24);
+        this.lastSequence = index.getLong(32);
+        this.maxTimestamp = index.getLong(48);
+    }
+
+    /** Opens a sealed log, rebuilding its index file first if it is missing or stale. */
+    static SealedSegment open(Path log) throws IOException {
+        Path indexFile = indexFile(log);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            checkLogHeader(channel, log);
+            long size = channel.size();
+            MappedByteBuffer index = mapIndex(indexFile, size);
+            if (index == null) {
+                SegmentIndex rebuilt = new SegmentIndex();
+                long end = SegmentIndex.scan(channel, rebuilt);
+                rebuilt.write(indexFile, end);
+                if (end < size) {
+                    // A torn tail left by a crash before the segment was sealed
+                    channel.truncate(end);
+                    channel.force(true);
+                    size = end;
+                }
+                index = mapIndex(indexFile, size);
+                if (index == null) {
+                    throw new IOException("Could not index audit segment " + log);
+                }
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Audit segment exceeds 2 GB: " + log);
+            }
+            return new SealedSegment(log, channel.map(FileChannel.MapMode.READ_ONLY, 0, size), index);
+        }
+    }
+
+    static void checkLogHeader(FileChannel channel, Path log) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        if (SegmentIndex.readFully(channel, header, 0) < FILE_HEADER_SIZE || !SegmentIndex.isLogHeader(header)) {
+            throw new IOException("Not an audit segment: " + log);
+        }
+    }
+
+    private static MappedByteBuffer mapIndex(Path indexFile, long logSize) throws IOException {
+        if (!Files.exists(indexFile)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < INDEX_HEADER_SIZE || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (index.getInt(0) != INDEX_MAGIC || index.getInt(4) != AuditRecordCodec.FORMAT
+                    || index.getLong(16) != logSize
+                    || INDEX_HEADER_SIZE + (long) index.getInt(8) * INDEX_ENTRY_SIZE != size) {
+                return null;
+            }
+            return index;
+        }
+    }
+
+    static Path indexFile(Path log) {
+        String name = log.getFileName().toString();
+        return log.resolveSibling(name.substring(0, name.length() - ".log".length()) + ".idx");
+    }
+
+    /** The entity's records in this segment, in journal order. */
+    void collect(long key, List<AuditRecord> into) throws IOException {
+        int low = 0;
+        int high = records - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (index.getLong(entry(mid)) < key) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        for (int i = low; i < records && index.getLong(entry(i)) == key; i++) {
+            into.add(AuditRecordCodec.decodeFramed(data, index.getInt(entry(i) + 8)));
+        }
+    }
+
+    private static int entry(int i) {
+        return INDEX_HEADER_SIZE + i * INDEX_ENTRY_SIZE;
+    }
+
+    /** Copies the records, without the file header, to the end of {@code target}. */
+    void transferRecordsTo(FileChannel target) throws IOException {
+        ByteBuffer records = data.slice(FILE_HEADER_SIZE, data.limit() - FILE_HEADER_SIZE);
+        while (records.hasRemaining()) {
+            target.write(records);
+        }
+    }
+
+    Path getLog() {
+        return log;
+    }
+
+    int getRecords() {
+        return records;
+    }
+
+    long getSize() {
+        return data.limit();
+    }
+
+    long getFirstSequence() {
+        return firstSequence;
+    }
+
+    long getLastSequence() {
+        return lastSequence;
+    }
+
+    long getMaxTimestamp() {
+        return maxTimestamp;
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(indexFile(log));
+        Files.deleteIfExists(log);
+    }
+}
@@ -0,0 +1,170 @@
+package com.bookstore.api.BookstoreAPI.Audit;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.bookstore.api.BookstoreAPI.Audit.AuditRecordCodec.FILE_HEADER_SIZE;
+import static com.bookstore.api.BookstoreAPI.Audit.AuditRecordCodec.MAGIC;
+import static com.bookstore.api.BookstoreAPI.Audit.AuditRecordCodec.MAX_BODY_SIZE;
+import static com.bookstore.api.BookstoreAPI.Audit.AuditRecordCodec.RECORD_HEADER_SIZE;
+
+/**
+ * In-memory entity index of one segment (entity key to record offsets, ascending) plus the
+ * segment's sequence and timestamp range. The active segment keeps one up to date as it is
+ * appended to; sealing writes it next to the log as a sorted index file:
+ * <pre>
+ *   header   magic:int format:int records:int reserved:int logSize:long firstSequence:long
+ *            lastSequence:long minTimestamp:long maxTimestamp:long
+ *   entries  key:long offset:int, ascending by key then offset
+ * </pre>
+ * {@code logSize} ties the index to the exact log it describes; an index whose log has a
+ * different size is rebuilt.
+ */
+final class SegmentIndex {
+
+    static final int INDEX_MAGIC = 0x424B4149; // "BKAI"
+    static final int INDEX_HEADER_SIZE = 56;
+    static final int INDEX_ENTRY_SIZE = 12;
+
+    private static final int[] NO_OFFSETS = new int[0];
+
+    private final Map<Long, Offsets> offsetsByKey = new HashMap<>();
+    private int records;
+    private long firstSequence = -1;
+    private long lastSequence = -1;
+    private long minTimestamp = Long.MAX_VALUE;
+    private long maxTimestamp = Long.MIN_VALUE;
+
+    void add(long key, int offset, long sequence, long timestamp) {
+        Offsets offsets = offsetsByKey.computeIfAbsent(key, ignored -> new Offsets());
+        offsets.add(offset);
+        records++;
+        if (firstSequence < 0) {
+            firstSequence = sequence;
+        }
+        lastSequence = sequence;
+        minTimestamp = Math.min(minTimestamp, timestamp);
+        maxTimestamp = Math.max(maxTimestamp, timestamp);
+    }
+
+    int[] offsets(long key) {
+        Offsets offsets = offsetsByKey.get(key);
+        return offsets != null ? Arrays.copyOf(offsets.values, offsets.size) : NO_OFFSETS;
+    }
+
+    int records() {
+        return records;
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    long minTimestamp() {
+        return minTimestamp;
+    }
+
+    /**
+     * Reads every valid record of a log and indexes it. Returns the end of the last intact
+     * record; anything after it is a torn or corrupt tail.
+     */
+    static long scan(FileChannel channel, SegmentIndex index) throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        ByteBuffer body = ByteBuffer.allocate(4096);
+        long position = FILE_HEADER_SIZE;
+        while (position + RECORD_HEADER_SIZE <= size) {
+            header.clear();
+            if (readFully(channel, header, position) < RECORD_HEADER_SIZE) {
+                break;
+            }
+            int length = header.getInt(0);
+            if (length <= 0 || length > MAX_BODY_SIZE || position + RECORD_HEADER_SIZE + length > size) {
+                break;
+            }
+            if (body.capacity() < length) {
+                body = ByteBuffer.allocate(Math.max(length, body.capacity() * 2));
+            }
+            body.clear().limit(length);
+            if (readFully(channel, body, position + RECORD_HEADER_SIZE) < length) {
+                break;
+            }
+            body.flip();
+            if (!AuditRecordCodec.checksumMatches(body, header.getInt(4))) {
+                break;
+            }
+            AuditRecord record = AuditRecordCodec.decode(body);
+            index.add(AuditRecordCodec.key(record.getEntityType(), record.getEntityId()), (int) position,
+                record.getSequence(), record.getTimestamp());
+            position += RECORD_HEADER_SIZE + length;
+        }
+        return position;
+    }
+
+    static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    /** Writes the index file for a log of {@code logSize} bytes, atomically and durably. */
+    void write(Path target, long logSize) throws IOException {
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        Long[] keys = offsetsByKey.keySet().toArray(new Long[0]);
+        Arrays.sort(keys);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeInt(AuditRecordCodec.FORMAT);
+            out.writeInt(records);
+            out.writeInt(0);
+            out.writeLong(logSize);
+            out.writeLong(firstSequence);
+            out.writeLong(lastSequence);
+            out.writeLong(minTimestamp);
+            out.writeLong(maxTimestamp);
+            for (Long key : keys) {
+                Offsets offsets = offsetsByKey.get(key);
+                for (int i = 0; i < offsets.size; i++) {
+                    out.writeLong(key);
+                    out.writeInt(offsets.values[i]);
+                }
+            }
+        }
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    static boolean isLogHeader(ByteBuffer header) {
+        return header.getInt(0) == MAGIC && header.getInt(4) == AuditRecordCodec.FORMAT;
+    }
+
+    private static final class Offsets {
+        int[] values = new int[2];
+        int size;
+
+        void add(int offset) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = offset;
+        }
+    }
+}
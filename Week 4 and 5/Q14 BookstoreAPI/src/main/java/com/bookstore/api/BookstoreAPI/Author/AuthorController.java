@@ -0,0 +1,33 @@
+package com.bookstore.api.BookstoreAPI.Author;
+
+import com.bookstore.api.BookstoreAPI.ErrorHandling.ResourceNotFoundException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/authors")
+public class AuthorController {
+
+    private final AuthorStatsService authorStatsService;
+
+    public AuthorController(AuthorStatsService authorStatsService) {
+        this.authorStatsService = authorStatsService;
+    }
+
+    @GetMapping(value = "/stats", produces = { "application/json", "application/xml" })
+    public ResponseEntity<List<AuthorStats>> getAllAuthorStats() {
+        return ResponseEntity.ok(authorStatsService.getAllStats());
+    }
+
+    @GetMapping(value = "/stats/{author}", produces = { "application/json", "application/xml" })
+    public ResponseEntity<AuthorStats> getAuthorStats(@PathVariable String author) {
+        AuthorStats stats = authorStatsService.getStats(author);
+        if (stats == null) {
+            throw new ResourceNotFoundException("No books found for author " + author);
+        }
+
+        return ResponseEntity.ok(stats);
+    }
+}
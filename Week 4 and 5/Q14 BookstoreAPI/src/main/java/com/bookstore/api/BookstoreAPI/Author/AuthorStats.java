@@ -0,0 +1,45 @@
+package com.bookstore.api.BookstoreAPI.Author;
+
+/**
+ * Immutable snapshot of the aggregates for one author.
+ */
+public class AuthorStats {
+
+    private final String author;
+    private final long bookCount;
+    private final double totalPrice;
+    private final Double minPrice;
+    private final Double maxPrice;
+
+    public AuthorStats(String author, long bookCount, double totalPrice, Double minPrice, Double maxPrice) {
+        this.author = author;
+        this.bookCount = bookCount;
+        this.totalPrice = totalPrice;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public long getBookCount() {
+        return bookCount;
+    }
+
+    public double getTotalPrice() {
+        return totalPrice;
+    }
+
+    public Double getAveragePrice() {
+        return bookCount == 0 ? null : totalPrice / bookCount;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+}
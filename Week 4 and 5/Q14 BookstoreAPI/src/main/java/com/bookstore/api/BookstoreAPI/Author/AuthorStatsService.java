@@ -0,0 +1,180 @@
+package com.bookstore.api.BookstoreAPI.Author;
+
+import com.bookstore.api.BookstoreAPI.Book.BookCatalogReloadedEvent;
+import com.bookstore.api.BookstoreAPI.Book.BookChangedEvent;
+import com.bookstore.api.BookstoreAPI.Book.BookDTO;
+import com.bookstore.api.BookstoreAPI.Book.BookRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps books-per-author and price aggregates in memory. Book writes adjust a single
+ * author's entry; reads return a precomputed snapshot. A periodic reconciliation against
+ * the database corrects drift from floating point sums or writes that bypassed the events.
+ */
+@Service
+public class AuthorStatsService {
+
+    private final BookRepository bookRepository;
+    private final Map<String, AuthorAggregate> authors = new ConcurrentHashMap<>();
+    private final AtomicLong writeSequence = new AtomicLong();
+    private final Counter driftCorrections;
+
+    public AuthorStatsService(BookRepository bookRepository, MeterRegistry meterRegistry) {
+        this.bookRepository = bookRepository;
+        this.driftCorrections = meterRegistry.counter("author_stats_drift_corrections");
+    }
+
+    public AuthorStats getStats(String author) {
+        AuthorAggregate aggregate = authors.get(author);
+        if (aggregate == null || aggregate.snapshot.getBookCount() == 0) {
+            return null;
+        }
+        return aggregate.snapshot;
+    }
+
+    public List<AuthorStats> getAllStats() {
+        List<AuthorStats> result = new ArrayList<>(authors.size());
+        for (AuthorAggregate aggregate : authors.values()) {
+            if (aggregate.snapshot.getBookCount() > 0) {
+                result.add(aggregate.snapshot);
+            }
+        }
+        result.sort(Comparator.comparing(AuthorStats::getAuthor));
+        return result;
+    }
+
+    @EventListener
+    public void onBookChanged(BookChangedEvent event) {
+        BookDTO previous = event.getPrevious();
+        BookDTO current = event.getCurrent();
+        if (previous != null) {
+            apply(previous.getAuthor(), previous.getPrice(), -1);
+        }
+        if (current != null) {
+            apply(current.getAuthor(), current.getPrice(), 1);
+        }
+    }
+
+    @EventListener({ ApplicationReadyEvent.class, BookCatalogReloadedEvent.class })
+    public void rebuild() {
+        reconcile();
+    }
+
+    /**
+     * Recomputes every author from the database and replaces entries that disagree. Authors
+     * written to while the query was running are skipped: the query may or may not have seen
+     * those writes, and the next run will check them again.
+     */
+    @Scheduled(fixedDelayString = "${bookstore.authors.reconcile-interval-ms:300000}",
+               initialDelayString = "${bookstore.authors.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        long startSequence = writeSequence.get();
+
+        Map<String, AuthorAggregate> fromDatabase = new HashMap<>();
+        for (Object[] row : bookRepository.countByAuthorAndPrice()) {
+            String author = (String) row[0];
+            Double price = (Double) row[1];
+            long count = ((Number) row[2]).longValue();
+            fromDatabase.computeIfAbsent(author, AuthorAggregate::new).add(price, count);
+        }
+
+        Set<String> names = new HashSet<>(authors.keySet());
+        names.addAll(fromDatabase.keySet());
+        for (String author : names) {
+            AuthorAggregate expected = fromDatabase.get(author);
+            authors.compute(author, (name, actual) -> {
+                if (actual != null && actual.lastModified > startSequence) {
+                    return actual;
+                }
+                if (expected == null) {
+                    if (actual != null && actual.count != 0) {
+                        driftCorrections.increment();
+                    }
+                    return null;
+                }
+                if (actual == null || !actual.matches(expected)) {
+                    driftCorrections.increment();
+                    expected.publish();
+                    return expected;
+                }
+                return actual;
+            });
+        }
+    }
+
+    private void apply(String author, Double price, int delta) {
+        if (author == null || price == null) {
+            return;
+        }
+        long sequence = writeSequence.incrementAndGet();
+        // compute() serializes writers of the same author without blocking other authors
+        authors.compute(author, (name, aggregate) -> {
+            AuthorAggregate target = aggregate != null ? aggregate : new AuthorAggregate(name);
+            target.add(price, delta);
+            target.lastModified = sequence;
+            target.publish();
+            return target;
+        });
+    }
+
+    /**
+     * Mutable per-author state, only touched inside {@code authors.compute}. Prices are kept as
+     * a multiset so that min/max stay correct when the cheapest or dearest book is removed.
+     */
+    private static final class AuthorAggregate {
+        private final String author;
+        private final TreeMap<Double, Long> prices = new TreeMap<>();
+        private long count;
+        private double sum;
+        private long lastModified;
+        private volatile AuthorStats snapshot;
+
+        AuthorAggregate(String author) {
+            this.author = author;
+            this.snapshot = new AuthorStats(author, 0, 0, null, null);
+        }
+
+        void add(Double price, long times) {
+            long remaining = prices.getOrDefault(price, 0L) + times;
+            if (remaining > 0) {
+                prices.put(price, remaining);
+            } else {
+                prices.remove(price);
+            }
+            count += times;
+            sum += price * times;
+            if (count <= 0) {
+                count = 0;
+                sum = 0;
+            }
+        }
+
+        boolean matches(AuthorAggregate other) {
+            return count == other.count
+                && Math.abs(sum - other.sum) < 0.005
+                && prices.equals(other.prices);
+        }
+
+        void publish() {
+            snapshot = prices.isEmpty()
+                ? new AuthorStats(author, 0, 0, null, null)
+                : new AuthorStats(author, count, sum, prices.firstKey(), prices.lastKey());
+        }
+    }
+}
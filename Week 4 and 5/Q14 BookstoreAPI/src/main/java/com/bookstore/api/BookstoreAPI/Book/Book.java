@@ -1,9 +1,18 @@
 package com.bookstore.api.BookstoreAPI.Book;
 
+import com.bookstore.api.BookstoreAPI.Isbn.Isbn;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
+// UPDATE statements list only the dirty columns, so a repricing writes just price and version
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "books")
+@Table(indexes = @Index(name = "ux_book_canonical_isbn", columnList = "canonical_isbn", unique = true))
 public class Book {
 
     @Id
@@ -24,6 +33,15 @@ public class Book {
     @NotBlank(message = "ISBN is mandatory")
     @Size(min = 10, max = 13)
     private String isbn;
+
+    // ISBN-10 and ISBN-13 forms of the same book map to one key, see Isbn.canonicalize
+    @Column(name = "canonical_isbn", length = 13)
+    private String canonicalIsbn;
+
+    // Bumped by Hibernate on every update, which runs as UPDATE ... WHERE id = ? AND version = ?
+    @Version
+    @Column(nullable = false)
+    private Long version;
     
     public Book(){
     };
@@ -74,4 +92,22 @@ public class Book {
     public void setIsbn(String isbn) {
         this.isbn = isbn;
     }
+
+    public String getCanonicalIsbn() {
+        return canonicalIsbn;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void canonicalizeIsbn() {
+        this.canonicalIsbn = Isbn.canonicalize(isbn);
+    }
 }
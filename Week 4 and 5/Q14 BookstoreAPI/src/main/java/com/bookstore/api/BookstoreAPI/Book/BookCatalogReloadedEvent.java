@@ -0,0 +1,9 @@
+package com.bookstore.api.BookstoreAPI.Book;
+
+/**
+ * Published when books were written in bulk outside {@link BookController} (for example by
+ * the CSV/NDJSON importer). No per-book events are sent, so listeners should rebuild
+ * their state from the database.
+ */
+public class BookCatalogReloadedEvent {
+}
@@ -0,0 +1,53 @@
+package com.bookstore.api.BookstoreAPI.Book;
+
+/**
+ * Published by {@link BookController} after a book write has been committed, so that
+ * in-memory read structures can be maintained incrementally instead of re-querying.
+ */
+public class BookChangedEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private final Type type;
+    private final BookDTO previous;
+    private final BookDTO current;
+    private final Long version;
+
+    private BookChangedEvent(Type type, BookDTO previous, BookDTO current, Long version) {
+        this.type = type;
+        this.previous = previous;
+        this.current = current;
+        this.version = version;
+    }
+
+    public static BookChangedEvent created(BookDTO current, Long version) {
+        return new BookChangedEvent(Type.CREATED, null, current, version);
+    }
+
+    public static BookChangedEvent updated(BookDTO previous, BookDTO current, Long version) {
+        return new BookChangedEvent(Type.UPDATED, previous, current, version);
+    }
+
+    public static BookChangedEvent deleted(BookDTO previous) {
+        return new BookChangedEvent(Type.DELETED, previous, null, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /** State before the write; {@code null} for {@link Type#CREATED}. */
+    public BookDTO getPrevious() {
+        return previous;
+    }
+
+    /** State after the write; {@code null} for {@link Type#DELETED}. */
+    public BookDTO getCurrent() {
+        return current;
+    }
+
+    /** Entity version after the write; {@code null} for {@link Type#DELETED}. */
+    public Long getVersion() {
+        return version;
+    }
+}
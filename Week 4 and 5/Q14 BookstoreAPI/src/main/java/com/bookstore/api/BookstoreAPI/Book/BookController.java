@@ -1,185 +1,351 @@
 package com.bookstore.api.BookstoreAPI.Book;
 
-import com.bookstore.api.BookstoreAPI.ErrorHandling.ResourceNotFoundException;
-import com.bookstore.api.BookstoreAPI.ErrorHandling.ValidationException;
+import com.bookstore.api.BookstoreAPI.Concurrency.EntityTags;
+import com.bookstore.api.BookstoreAPI.Duplicates.NearDuplicateService;
+import com.bookstore.api.BookstoreAPI.ErrorHandling.DuplicateResourceException;
+import com.bookstore.api.BookstoreAPI.ErrorHandling.StacklessResourceNotFoundException;
+import com.bookstore.api.BookstoreAPI.ErrorHandling.StacklessValidationException;
+import com.bookstore.api.BookstoreAPI.HotKeys.HotKeyTracker;
+import com.bookstore.api.BookstoreAPI.Isbn.Isbn;
+import com.bookstore.api.BookstoreAPI.Isbn.IsbnIndex;
 import com.bookstore.api.BookstoreAPI.Metrics.BookMetrics;
+import com.bookstore.api.BookstoreAPI.Patch.JsonPatches;
+import com.bookstore.api.BookstoreAPI.Profiling.DtoMappingEvent;
+import com.bookstore.api.BookstoreAPI.Profiling.RepositoryCallEvent;
+import com.bookstore.api.BookstoreAPI.Profiling.RequestPhaseEvent;
+import com.bookstore.api.BookstoreAPI.ReadModel.BookEntry;
+import com.bookstore.api.BookstoreAPI.ReadModel.BookReadModel;
+import com.bookstore.api.BookstoreAPI.ReadModel.BookView;
+import com.bookstore.api.BookstoreAPI.ReadModel.ConsistencyToken;
+import com.bookstore.api.BookstoreAPI.Resilience.CachedBook;
+import com.bookstore.api.BookstoreAPI.Resilience.ResilientBookReader;
+import com.bookstore.api.BookstoreAPI.Serialization.DtoLinks;
+import com.bookstore.api.BookstoreAPI.Snapshot.CatalogSnapshotService;
+import com.bookstore.api.BookstoreAPI.Snapshot.SnapshotBook;
+import com.bookstore.api.BookstoreAPI.Throttling.RequestExecutors;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
-import org.springframework.hateoas.EntityModel;
-import org.springframework.hateoas.Link;
-import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
+/**
+ * Book endpoints. Handlers return the DTO itself: the fixed headers come from
+ * {@link com.bookstore.api.BookstoreAPI.Headers.FixedHeadersFilter}, the HATEOAS links are
+ * written during serialization ({@link DtoLinks}) and the ETag goes straight onto the response.
+ * Reads and writes run on separate executors ({@link RequestExecutors}) so write bursts queue
+ * behind each other rather than in front of lookups.
+ * <p>
+ * Reads are answered from the {@link BookReadModel} when it is enabled and has caught up to
+ * the request's {@link ConsistencyToken}, and from the database otherwise. Write responses
+ * carry the token that includes the write.
+ */
 @RestController
 @RequestMapping("/books")
 public class BookController {
 
     private final BookRepository bookRepository;
     private final BookMetrics bookMetrics; // Add BookMetrics
-
-    public BookController(BookRepository bookRepository, BookMetrics bookMetrics) {
+    private final ApplicationEventPublisher eventPublisher;
+    private final IsbnIndex isbnIndex;
+    private final NearDuplicateService nearDuplicateService;
+    private final BookUpdateService bookUpdateService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final HotKeyTracker hotKeyTracker;
+    private final ResilientBookReader bookReader;
+    private final RequestExecutors requestExecutors;
+    private final BookReadModel bookReadModel;
+
+    public BookController(BookRepository bookRepository, BookMetrics bookMetrics, ApplicationEventPublisher eventPublisher,
+                          IsbnIndex isbnIndex, NearDuplicateService nearDuplicateService, BookUpdateService bookUpdateService,
+                          CatalogSnapshotService catalogSnapshotService, HotKeyTracker hotKeyTracker,
+                          ResilientBookReader bookReader, RequestExecutors requestExecutors, BookReadModel bookReadModel) {
         this.bookRepository = bookRepository;
         this.bookMetrics = bookMetrics; // Initialize BookMetrics
+        this.eventPublisher = eventPublisher;
+        this.isbnIndex = isbnIndex;
+        this.nearDuplicateService = nearDuplicateService;
+        this.bookUpdateService = bookUpdateService;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.hotKeyTracker = hotKeyTracker;
+        this.bookReader = bookReader;
+        this.requestExecutors = requestExecutors;
+        this.bookReadModel = bookReadModel;
     }
 
     @GetMapping(value = "/{id}", produces = { "application/json", "application/xml" })
-    public ResponseEntity<EntityModel<BookDTO>> getBookById(@PathVariable Long id) {
-        Optional<Book> book = bookRepository.findById(id);
-
-        if (book.isPresent()) {
-            BookDTO bookDTO = new BookDTO(
-                book.get().getId(),
-                book.get().getTitle(),
-                book.get().getAuthor(),
-                book.get().getPrice(),
-                book.get().getIsbn()
-            );
-
-            // Add HATEOAS links
-            EntityModel<BookDTO> resource = EntityModel.of(bookDTO);
-            Link selfLink = WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(BookController.class).getBookById(id)).withSelfRel();
-            Link allBooksLink = WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(BookController.class).getAllBooks()).withRel("all-books");
-            resource.add(selfLink, allBooksLink);
-
-            HttpHeaders responseHeaders = new HttpHeaders();
-            responseHeaders.add("X-Custom-Header", "CustomValue");
-            responseHeaders.add("X-Powered-By", "Spring Boot");
+    public WebAsyncTask<BookDTO> getBookById(@PathVariable Long id,
+                                             @RequestHeader(value = ConsistencyToken.HEADER, required = false) String consistencyToken,
+                                             HttpServletResponse response) {
+        return requestExecutors.read(() -> {
+            hotKeyTracker.recordBook(id);
+            BookView view = readModelView(consistencyToken);
+            if (view != null) {
+                RepositoryCallEvent readModelCall = RepositoryCallEvent.start("getBookById (read model)");
+                BookEntry entry = view.find(id);
+                readModelCall.finish(id, entry != null ? 1 : 0);
+                // A miss can be a book imported since the last load, so it is left to the paths below
+                if (entry != null) {
+                    DtoLinks.BOOK.apply();
+                    EntityTags.setETag(response, entry.getVersion());
+                    response.setHeader(ConsistencyToken.HEADER, view.getToken().toString());
+                    return entry.getBook();
+                }
+            }
+
+            if (catalogSnapshotService.isEnabled()) {
+                RepositoryCallEvent snapshotCall = RepositoryCallEvent.start("getBookById (snapshot)");
+                SnapshotBook snapshotBook = catalogSnapshotService.find(id);
+                snapshotCall.finish(id, snapshotBook != null ? 1 : 0);
+                if (snapshotBook != null) {
+                    DtoLinks.BOOK.apply();
+                    EntityTags.setETag(response, snapshotBook.getVersion());
+                    return snapshotBook.getBook();
+                }
+            }
+
+            if (bookReader.isEnabled()) {
+                RepositoryCallEvent cachedCall = RepositoryCallEvent.start("getBookById (resilient)");
+                CachedBook cachedBook = bookReader.find(id);
+                cachedCall.finish(id, cachedBook != null ? 1 : 0);
+                if (cachedBook == null) {
+                    throw new StacklessResourceNotFoundException("Book", id);
+                }
+                DtoLinks.BOOK.apply();
+                EntityTags.setETag(response, cachedBook.getVersion());
+                return cachedBook.getBook();
+            }
+
+            RepositoryCallEvent repositoryCall = RepositoryCallEvent.start("getBookById");
+            Optional<Book> book = bookRepository.findById(id);
+            repositoryCall.finish(id, book.isPresent() ? 1 : 0);
+
+            if (book.isPresent()) {
+                DtoMappingEvent dtoMapping = DtoMappingEvent.start("getBookById");
+                BookDTO bookDTO = new BookDTO(
+                    book.get().getId(),
+                    book.get().getTitle(),
+                    book.get().getAuthor(),
+                    book.get().getPrice(),
+                    book.get().getIsbn()
+                );
+                dtoMapping.finish(id, 1);
+
+                DtoLinks.BOOK.apply();
+                EntityTags.setETag(response, book.get().getVersion());
+                return bookDTO;
+            } else {
+                throw new StacklessResourceNotFoundException("Book", id);
+            }
+        });
+    }
 
-            return new ResponseEntity<>(resource, responseHeaders, HttpStatus.OK);
-        } else {
-            throw new ResourceNotFoundException("Book not found with id " + id);
-        }
+    @GetMapping(value = "/isbn/{isbn}", produces = { "application/json", "application/xml" })
+    public WebAsyncTask<BookDTO> getBookByIsbn(@PathVariable String isbn, HttpServletResponse response) {
+        return requestExecutors.read(() -> {
+            String canonicalIsbn = Isbn.canonicalize(isbn);
+            // A Bloom filter miss proves the ISBN is unknown without a database round trip
+            Optional<Book> book = isbnIndex.mightExist(canonicalIsbn)
+                ? bookRepository.findByCanonicalIsbn(canonicalIsbn)
+                : Optional.empty();
+
+            if (book.isPresent()) {
+                BookDTO bookDTO = new BookDTO(
+                    book.get().getId(),
+                    book.get().getTitle(),
+                    book.get().getAuthor(),
+                    book.get().getPrice(),
+                    book.get().getIsbn()
+                );
+
+                DtoLinks.BOOK.apply();
+                EntityTags.setETag(response, book.get().getVersion());
+                return bookDTO;
+            } else {
+                throw new StacklessResourceNotFoundException("Book", "ISBN", isbn);
+            }
+        });
     }
 
     @GetMapping(produces = { "application/json", "application/xml" })
-    public ResponseEntity<List<EntityModel<BookDTO>>> getAllBooks() {
-        List<Book> books = bookRepository.findAll();
-
-        List<EntityModel<BookDTO>> bookDTOs = books.stream().map(book -> {
-            BookDTO dto = new BookDTO(
-                book.getId(),
-                book.getTitle(),
-                book.getAuthor(),
-                book.getPrice(),
-                book.getIsbn()
-            );
-
-            EntityModel<BookDTO> resource = EntityModel.of(dto);
-            Link selfLink = WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(BookController.class).getBookById(book.getId())).withSelfRel();
-            resource.add(selfLink);
-
-            return resource;
-        }).collect(Collectors.toList());
-
-        HttpHeaders responseHeaders = new HttpHeaders();
-        responseHeaders.add("X-Custom-Header", "CustomValue");
-        responseHeaders.add("X-Powered-By", "Spring Boot");
-
-        return new ResponseEntity<>(bookDTOs, responseHeaders, HttpStatus.OK);
+    public WebAsyncTask<List<BookDTO>> getAllBooks(@RequestHeader(value = ConsistencyToken.HEADER, required = false) String consistencyToken,
+                                                   HttpServletResponse response) {
+        return requestExecutors.read(() -> {
+            BookView view = readModelView(consistencyToken);
+            if (view != null) {
+                RepositoryCallEvent readModelCall = RepositoryCallEvent.start("getAllBooks (read model)");
+                List<BookDTO> dtos = view.books();
+                readModelCall.finish(RequestPhaseEvent.NO_ENTITY, dtos.size());
+
+                DtoLinks.BOOK_IN_LIST.apply();
+                response.setHeader(ConsistencyToken.HEADER, view.getToken().toString());
+                return dtos;
+            }
+
+            RepositoryCallEvent repositoryCall = RepositoryCallEvent.start("getAllBooks");
+            List<Book> books = bookRepository.findAll();
+            repositoryCall.finish(RequestPhaseEvent.NO_ENTITY, books.size());
+
+            DtoMappingEvent dtoMapping = DtoMappingEvent.start("getAllBooks");
+            List<BookDTO> dtos = new ArrayList<>(books.size());
+            for (Book book : books) {
+                dtos.add(new BookDTO(
+                    book.getId(),
+                    book.getTitle(),
+                    book.getAuthor(),
+                    book.getPrice(),
+                    book.getIsbn()
+                ));
+            }
+            dtoMapping.finish(RequestPhaseEvent.NO_ENTITY, dtos.size());
+
+            DtoLinks.BOOK_IN_LIST.apply();
+            return dtos;
+        });
     }
 
     @PostMapping(consumes = { "application/json", "application/xml" }, produces = { "application/json", "application/xml" })
-    public ResponseEntity<EntityModel<BookDTO>> createBook(@Valid @RequestBody BookDTO bookDTO) {
-        if (bookDTO.getPrice() <= 0) {
-            throw new ValidationException("Price must be greater than zero");
-        }
-        if (bookDTO.getTitle() == null || bookDTO.getTitle().trim().isEmpty()) {
-            throw new ValidationException("Title must not be empty");
-        }
-
-        Book book = new Book(null, null, null, null);
-        book.setTitle(bookDTO.getTitle());
-        book.setAuthor(bookDTO.getAuthor());
-        book.setPrice(bookDTO.getPrice());
-        book.setIsbn(bookDTO.getIsbn());
-
-        Book createdBook = bookRepository.save(book);
-
-        // Increment the custom metric
-        bookMetrics.incrementBooksCreated();
-
-        BookDTO responseDTO = new BookDTO(
-            createdBook.getId(),
-            createdBook.getTitle(),
-            createdBook.getAuthor(),
-            createdBook.getPrice(),
-            createdBook.getIsbn()
-        );
-
-        // Add HATEOAS links
-        EntityModel<BookDTO> resource = EntityModel.of(responseDTO);
-        Link selfLink = WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(BookController.class).getBookById(createdBook.getId())).withSelfRel();
-        Link allBooksLink = WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(BookController.class).getAllBooks()).withRel("all-books");
-        resource.add(selfLink, allBooksLink);
-
-        HttpHeaders responseHeaders = new HttpHeaders();
-        responseHeaders.add("X-Custom-Header", "CustomValue");
-        responseHeaders.add("X-Powered-By", "Spring Boot");
+    @ResponseStatus(HttpStatus.CREATED)
+    public WebAsyncTask<BookDTO> createBook(@Valid @RequestBody BookDTO bookDTO, HttpServletResponse response) {
+        return requestExecutors.write(() -> {
+            if (bookDTO.getPrice() <= 0) {
+                throw StacklessValidationException.PRICE_NOT_POSITIVE;
+            }
+            if (bookDTO.getTitle() == null || bookDTO.getTitle().trim().isEmpty()) {
+                throw StacklessValidationException.TITLE_EMPTY;
+            }
+            String canonicalIsbn = Isbn.canonicalize(bookDTO.getIsbn());
+            if (isbnIndex.mightExist(canonicalIsbn) && bookRepository.existsByCanonicalIsbn(canonicalIsbn)) {
+                throw new DuplicateResourceException("Book already exists with ISBN " + bookDTO.getIsbn());
+            }
+            // Near duplicates are only flagged; suppliers legitimately send new editions
+            List<NearDuplicateService.DuplicateCandidate> possibleDuplicates =
+                nearDuplicateService.findCandidates(bookDTO.getTitle(), bookDTO.getAuthor());
+
+            Book book = new Book(null, null, null, null);
+            book.setTitle(bookDTO.getTitle());
+            book.setAuthor(bookDTO.getAuthor());
+            book.setPrice(bookDTO.getPrice());
+            book.setIsbn(bookDTO.getIsbn());
+
+            Book createdBook = bookRepository.save(book);
+
+            // Increment the custom metric
+            bookMetrics.incrementBooksCreated();
+            if (!possibleDuplicates.isEmpty()) {
+                nearDuplicateService.incrementFlaggedBooks();
+            }
+
+            BookDTO responseDTO = new BookDTO(
+                createdBook.getId(),
+                createdBook.getTitle(),
+                createdBook.getAuthor(),
+                createdBook.getPrice(),
+                createdBook.getIsbn()
+            );
 
-        return new ResponseEntity<>(resource, responseHeaders, HttpStatus.CREATED);
+            eventPublisher.publishEvent(BookChangedEvent.created(responseDTO, createdBook.getVersion()));
+            setConsistencyToken(response);
+
+            DtoLinks.BOOK.apply();
+            EntityTags.setETag(response, createdBook.getVersion());
+            if (!possibleDuplicates.isEmpty()) {
+                StringBuilder duplicateIds = new StringBuilder();
+                for (NearDuplicateService.DuplicateCandidate candidate : possibleDuplicates) {
+                    if (duplicateIds.length() > 0) {
+                        duplicateIds.append(',');
+                    }
+                    duplicateIds.append(candidate.getBookId());
+                }
+                response.setHeader("X-Possible-Duplicates", duplicateIds.toString());
+            }
+
+            return responseDTO;
+        });
     }
 
     @PutMapping(value = "/{id}", consumes = { "application/json", "application/xml" }, produces = { "application/json", "application/xml" })
-    public ResponseEntity<EntityModel<BookDTO>> updateBook(@PathVariable Long id, @Valid @RequestBody BookDTO bookDTO) {
-        if (!bookRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Book not found with id " + id);
-        }
-
-        if (bookDTO.getPrice() <= 0) {
-            throw new ValidationException("Price must be greater than zero");
-        }
-        if (bookDTO.getTitle() == null || bookDTO.getTitle().trim().isEmpty()) {
-            throw new ValidationException("Title must not be empty");
-        }
+    public WebAsyncTask<BookDTO> updateBook(@PathVariable Long id, @Valid @RequestBody BookDTO bookDTO,
+                              @RequestHeader(value = "If-Match", required = false) String ifMatch, HttpServletResponse response) {
+        return requestExecutors.write(() -> {
+            if (bookDTO.getPrice() <= 0) {
+                throw StacklessValidationException.PRICE_NOT_POSITIVE;
+            }
+            if (bookDTO.getTitle() == null || bookDTO.getTitle().trim().isEmpty()) {
+                throw StacklessValidationException.TITLE_EMPTY;
+            }
+
+            BookUpdateService.BookUpdate update = bookUpdateService.update(id, EntityTags.parseIfMatch(ifMatch), book -> {
+                book.setTitle(bookDTO.getTitle());
+                book.setAuthor(bookDTO.getAuthor());
+                book.setPrice(bookDTO.getPrice());
+                book.setIsbn(bookDTO.getIsbn());
+            });
+            BookDTO responseDTO = update.getCurrent();
+
+            eventPublisher.publishEvent(BookChangedEvent.updated(update.getPrevious(), responseDTO, update.getVersion()));
+            setConsistencyToken(response);
+
+            DtoLinks.BOOK.apply();
+            EntityTags.setETag(response, update.getVersion());
+            return responseDTO;
+        });
+    }
 
-        Book book = new Book();
-        book.setId(id);
-        book.setTitle(bookDTO.getTitle());
-        book.setAuthor(bookDTO.getAuthor());
-        book.setPrice(bookDTO.getPrice());
-        book.setIsbn(bookDTO.getIsbn());
-
-        Book updatedBook = bookRepository.save(book);
-
-        BookDTO responseDTO = new BookDTO(
-            updatedBook.getId(),
-            updatedBook.getTitle(),
-            updatedBook.getAuthor(),
-            updatedBook.getPrice(),
-            updatedBook.getIsbn()
-        );
-
-        // Add HATEOAS links
-        EntityModel<BookDTO> resource = EntityModel.of(responseDTO);
-        Link selfLink = WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(BookController.class).getBookById(updatedBook.getId())).withSelfRel();
-        Link allBooksLink = WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(BookController.class).getAllBooks()).withRel("all-books");
-        resource.add(selfLink, allBooksLink);
-
-        HttpHeaders responseHeaders = new HttpHeaders();
-        responseHeaders.add("X-Custom-Header", "CustomValue");
-        responseHeaders.add("X-Powered-By", "Spring Boot");
-
-        return new ResponseEntity<>(resource, responseHeaders, HttpStatus.OK);
+    @PatchMapping(value = "/{id}", consumes = { JsonPatches.MERGE_PATCH_JSON_VALUE, JsonPatches.JSON_PATCH_JSON_VALUE }, produces = { "application/json", "application/xml" })
+    public WebAsyncTask<BookDTO> patchBook(@PathVariable Long id, @RequestBody JsonNode patch,
+                             @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                             @RequestHeader(value = "If-Match", required = false) String ifMatch, HttpServletResponse response) {
+        return requestExecutors.write(() -> {
+            BookUpdateService.BookUpdate update = bookUpdateService.patch(id, EntityTags.parseIfMatch(ifMatch), contentType, patch);
+            BookDTO responseDTO = update.getCurrent();
+
+            eventPublisher.publishEvent(BookChangedEvent.updated(update.getPrevious(), responseDTO, update.getVersion()));
+            setConsistencyToken(response);
+
+            DtoLinks.BOOK.apply();
+            EntityTags.setETag(response, update.getVersion());
+            return responseDTO;
+        });
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteBook(@PathVariable Long id) {
-        if (!bookRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Book not found with id " + id);
-        }
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public WebAsyncTask<Void> deleteBook(@PathVariable Long id, HttpServletResponse response) {
+        return requestExecutors.write(() -> {
+            Book existingBook = bookRepository.findById(id)
+                .orElseThrow(() -> new StacklessResourceNotFoundException("Book", id));
+            BookDTO previousDTO = new BookDTO(
+                existingBook.getId(),
+                existingBook.getTitle(),
+                existingBook.getAuthor(),
+                existingBook.getPrice(),
+                existingBook.getIsbn()
+            );
 
-        bookRepository.deleteById(id);
+            bookRepository.deleteById(id);
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.add("X-Custom-Header", "CustomValue");
-        headers.add("X-Powered-By", "Spring Boot");
+            eventPublisher.publishEvent(BookChangedEvent.deleted(previousDTO));
+            setConsistencyToken(response);
+            return null;
+        });
+    }
 
-        return new ResponseEntity<>(headers, HttpStatus.NO_CONTENT);
+    private BookView readModelView(String consistencyToken) {
+        return bookReadModel.isEnabled() ? bookReadModel.viewFor(ConsistencyToken.parse(consistencyToken)) : null;
+    }
+
+    // The read model applies the change event synchronously, so its token now includes this write
+    private void setConsistencyToken(HttpServletResponse response) {
+        if (bookReadModel.isEnabled()) {
+            response.setHeader(ConsistencyToken.HEADER, bookReadModel.currentToken().toString());
+        }
     }
 }
@@ -1,6 +1,7 @@
 package com.bookstore.api.BookstoreAPI.Book;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 @Mapper
@@ -8,5 +9,6 @@ public interface BookMapper {
     BookMapper INSTANCE = Mappers.getMapper(BookMapper.class);
     
     BookDTO toDTO(Book book);
+    @Mapping(target = "version", ignore = true)
     Book toEntity(BookDTO bookDTO);
 }
@@ -1,10 +1,39 @@
 package com.bookstore.api.BookstoreAPI.Book;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookRepository extends JpaRepository<Book, Long> {
+
+    // Finder results are kept in the "books-query" region; Hibernate invalidates it whenever the book table is written
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "books-query")
+    })
     List<Book> findByTitle(String title);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "books-query")
+    })
     List<Book> findByAuthor(String author);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "books-query")
+    })
     List<Book> findByTitleAndAuthor(String title, String author);
+
+    Optional<Book> findByCanonicalIsbn(String canonicalIsbn);
+
+    boolean existsByCanonicalIsbn(String canonicalIsbn);
+
+    // One row per (author, price, count) - enough to rebuild the per-author aggregates
+    @Query("select b.author, b.price, count(b) from Book b group by b.author, b.price")
+    List<Object[]> countByAuthorAndPrice();
 }
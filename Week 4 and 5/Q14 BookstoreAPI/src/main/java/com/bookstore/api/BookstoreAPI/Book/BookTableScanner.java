@@ -0,0 +1,57 @@
+package com.bookstore.api.BookstoreAPI.Book;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Streams the whole book table row by row for rebuilding in-memory indexes. Plain JDBC is
+ * used so a full scan neither materializes entities nor floods the second-level cache.
+ */
+@Component
+public class BookTableScanner {
+
+    private static final String SELECT_ALL = "SELECT id, title, author, price, isbn FROM book";
+    private static final String SELECT_ALL_VERSIONED = "SELECT id, title, author, price, isbn, version FROM book";
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookTableScanner(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void forEachBook(Consumer<BookDTO> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_ALL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(new BookDTO(
+            rs.getLong(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getObject(4, Double.class),
+            rs.getString(5)
+        )));
+    }
+
+    /** Like {@link #forEachBook} but also hands over each row's entity version. */
+    public void forEachVersionedBook(ObjLongConsumer<BookDTO> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_ALL_VERSIONED, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(new BookDTO(
+            rs.getLong(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getObject(4, Double.class),
+            rs.getString(5)
+        ), rs.getLong(6)));
+    }
+}
@@ -0,0 +1,143 @@
+package com.bookstore.api.BookstoreAPI.Book;
+
+import com.bookstore.api.BookstoreAPI.Concurrency.OptimisticRetry;
+import com.bookstore.api.BookstoreAPI.ErrorHandling.PreconditionFailedException;
+import com.bookstore.api.BookstoreAPI.ErrorHandling.StacklessResourceNotFoundException;
+import com.bookstore.api.BookstoreAPI.ErrorHandling.StacklessValidationException;
+import com.bookstore.api.BookstoreAPI.ErrorHandling.ValidationException;
+import com.bookstore.api.BookstoreAPI.Patch.JsonPatches;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Applies changes to a book under optimistic locking. Each attempt loads the managed entity
+ * (usually from the second-level cache, so without a database read), applies the changes and
+ * flushes, which Hibernate issues as a single {@code UPDATE ... WHERE id = ? AND version = ?}.
+ * If another writer got there first the attempt is rolled back and retried from a fresh read.
+ */
+@Service
+public class BookUpdateService {
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final OptimisticRetry optimisticRetry;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    public BookUpdateService(BookRepository bookRepository, PlatformTransactionManager transactionManager,
+                             OptimisticRetry optimisticRetry, ObjectMapper objectMapper, Validator validator) {
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.optimisticRetry = optimisticRetry;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    /**
+     * Applies {@code changes} to the book and returns its state before and after. With an
+     * {@code expectedVersion} the update only succeeds against exactly that version.
+     */
+    public BookUpdate update(Long id, Long expectedVersion, Consumer<Book> changes) {
+        return optimisticRetry.execute("Book", id, expectedVersion, () -> transactionTemplate.execute(status -> {
+            Book book = bookRepository.findById(id)
+                .orElseThrow(() -> new StacklessResourceNotFoundException("Book", id));
+            if (expectedVersion != null && !expectedVersion.equals(book.getVersion())) {
+                throw new PreconditionFailedException("Book " + id + " is at version " + book.getVersion() + ", not " + expectedVersion);
+            }
+            BookDTO previous = toDTO(book);
+            changes.accept(book);
+            bookRepository.flush();
+            return new BookUpdate(previous, toDTO(book), book.getVersion());
+        }));
+    }
+
+    /**
+     * Applies a JSON Merge Patch or JSON Patch document. Only the fields the patch changes are
+     * validated and set, so with dynamic updates a price patch writes just price and version.
+     * A retried attempt reapplies the patch to the fresh state.
+     */
+    public BookUpdate patch(Long id, Long expectedVersion, String contentType, JsonNode patch) {
+        return update(id, expectedVersion, book -> {
+            JsonNode before = objectMapper.valueToTree(toDTO(book));
+            JsonNode after = JsonPatches.apply(contentType, before, patch);
+            BookDTO patched = toPatchedDTO(after);
+            for (String field : JsonPatches.changedFields(before, after)) {
+                validateField(patched, field);
+                switch (field) {
+                    case "title" -> book.setTitle(patched.getTitle());
+                    case "author" -> book.setAuthor(patched.getAuthor());
+                    case "price" -> book.setPrice(patched.getPrice());
+                    case "isbn" -> book.setIsbn(patched.getIsbn());
+                    case "id" -> throw new ValidationException("id cannot be changed");
+                    default -> throw new ValidationException("Unknown field " + field);
+                }
+            }
+        });
+    }
+
+    private BookDTO toPatchedDTO(JsonNode patched) {
+        if (!patched.isObject()) {
+            throw new ValidationException("The patched book must be a JSON object");
+        }
+        try {
+            return objectMapper.treeToValue(patched, BookDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("The patched book is invalid: " + e.getOriginalMessage());
+        }
+    }
+
+    private void validateField(BookDTO book, String field) {
+        if (field.equals("id")) {
+            return;
+        }
+        Set<ConstraintViolation<BookDTO>> violations;
+        try {
+            violations = validator.validateProperty(book, field);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Unknown field " + field);
+        }
+        if (!violations.isEmpty()) {
+            throw new ValidationException(field + " " + violations.iterator().next().getMessage());
+        }
+        if (field.equals("price") && book.getPrice() <= 0) {
+            throw StacklessValidationException.PRICE_NOT_POSITIVE;
+        }
+    }
+
+    private static BookDTO toDTO(Book book) {
+        return new BookDTO(book.getId(), book.getTitle(), book.getAuthor(), book.getPrice(), book.getIsbn());
+    }
+
+    public static class BookUpdate {
+        private final BookDTO previous;
+        private final BookDTO current;
+        private final Long version;
+
+        BookUpdate(BookDTO previous, BookDTO current, Long version) {
+            this.previous = previous;
+            this.current = current;
+            this.version = version;
+        }
+
+        public BookDTO getPrevious() {
+            return previous;
+        }
+
+        public BookDTO getCurrent() {
+            return current;
+        }
+
+        public Long getVersion() {
+            return version;
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.bookstore.api.BookstoreAPI;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class BookstoreApiApplication {
     public static void main(String[] args) {
         SpringApplication.run(BookstoreApiApplication.class, args);
@@ -0,0 +1,55 @@
+package com.bookstore.api.BookstoreAPI.Concurrency;
+
+import com.bookstore.api.BookstoreAPI.ErrorHandling.PreconditionFailedException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Maps entity versions to strong ETags ({@code "3"}) and back from If-Match headers.
+ */
+public final class EntityTags {
+
+    // Most rows are updated only a handful of times, so their tags are shared constants
+    private static final String[] COMMON_TAGS = new String[1024];
+
+    static {
+        for (int version = 0; version < COMMON_TAGS.length; version++) {
+            COMMON_TAGS[version] = "\"" + version + "\"";
+        }
+    }
+
+    private EntityTags() {
+    }
+
+    public static void setETag(HttpServletResponse response, Long version) {
+        if (version != null) {
+            response.setHeader(HttpHeaders.ETAG, tag(version));
+        }
+    }
+
+    private static String tag(long version) {
+        return version >= 0 && version < COMMON_TAGS.length ? COMMON_TAGS[(int) version] : "\"" + version + "\"";
+    }
+
+    /**
+     * Returns the version named by an If-Match header, or null when the header is absent or
+     * {@code *}. A tag that is not one of ours can never match.
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match " + ifMatch + " does not match the current version");
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.bookstore.api.BookstoreAPI.Concurrency;
+
+import com.bookstore.api.BookstoreAPI.ErrorHandling.ConcurrentUpdateException;
+import com.bookstore.api.BookstoreAPI.ErrorHandling.PreconditionFailedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a read-modify-write attempt against a versioned entity and repeats it when another
+ * writer committed first. Each attempt must run in its own transaction so it rereads the
+ * row. Retries back off exponentially with jitter and are bounded; after the last one the
+ * caller gets a 409.
+ * <p>
+ * When the client sent If-Match it already chose the version it is overwriting, so there is
+ * exactly one attempt and a conflict is reported as 412 instead of being retried.
+ */
+@Component
+public class OptimisticRetry {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public OptimisticRetry(MeterRegistry meterRegistry,
+                           @Value("${bookstore.updates.max-attempts:5}") int maxAttempts,
+                           @Value("${bookstore.updates.retry-backoff-ms:2}") long backoffMillis) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMillis = backoffMillis;
+    }
+
+    public <T> T execute(String resourceType, Long id, Long expectedVersion, Supplier<T> attempt) {
+        if (expectedVersion != null) {
+            try {
+                return attempt.get();
+            } catch (OptimisticLockingFailureException e) {
+                throw new PreconditionFailedException(resourceType + " " + id + " was modified after version " + expectedVersion);
+            }
+        }
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            try {
+                return attempt.get();
+            } catch (OptimisticLockingFailureException e) {
+                meterRegistry.counter("optimistic_lock_conflicts", "resource", resourceType).increment();
+                if (attemptNumber >= maxAttempts) {
+                    throw new ConcurrentUpdateException(resourceType + " " + id + " is being modified concurrently, please retry");
+                }
+                backOff(attemptNumber);
+            }
+        }
+    }
+
+    private void backOff(int attemptNumber) {
+        long ceiling = backoffMillis << Math.min(attemptNumber - 1, 10);
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Interrupted while retrying a concurrent update");
+        }
+    }
+}
@@ -2,8 +2,14 @@ package com.bookstore.api.BookstoreAPI.Customer;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "customers")
 public class Customer {
 
     @Id
@@ -22,6 +28,10 @@ public class Customer {
     @Size(min = 10, max = 15)
     private String phone;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public Customer(){
     };
 
@@ -57,10 +67,19 @@ public class Customer {
     }
 
     public String getPhoneNumber() {
-        return getPhoneNumber();
+        return phone;
     }
 
     public void setPhoneNumber(String phoneNumber) {
+        this.phone = phoneNumber;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
     }
 
 }
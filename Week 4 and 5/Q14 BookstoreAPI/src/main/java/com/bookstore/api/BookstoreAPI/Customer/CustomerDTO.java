@@ -1,9 +1,12 @@
 package com.bookstore.api.BookstoreAPI.Customer;
 
+import com.bookstore.api.BookstoreAPI.Serialization.DtoLinksWriter;
+import com.fasterxml.jackson.databind.annotation.JsonAppend;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
+@JsonAppend(props = @JsonAppend.Prop(value = DtoLinksWriter.class, name = "_links"))
 public class CustomerDTO {
 
     private Long id;
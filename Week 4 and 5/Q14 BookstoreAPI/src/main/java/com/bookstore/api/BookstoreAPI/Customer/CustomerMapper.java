@@ -1,6 +1,7 @@
 package com.bookstore.api.BookstoreAPI.Customer;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 @Mapper
@@ -8,5 +9,6 @@ public interface CustomerMapper {
     CustomerMapper INSTANCE = Mappers.getMapper(CustomerMapper.class);
 
     CustomerDTO toDTO(Customer customer);
+    @Mapping(target = "version", ignore = true)
     Customer toEntity(CustomerDTO customerDTO);
 }
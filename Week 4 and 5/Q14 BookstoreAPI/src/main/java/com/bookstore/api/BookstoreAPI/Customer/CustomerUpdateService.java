@@ -0,0 +1,121 @@
+package com.bookstore.api.BookstoreAPI.Customer;
+
+import com.bookstore.api.BookstoreAPI.Concurrency.OptimisticRetry;
+import com.bookstore.api.BookstoreAPI.ErrorHandling.PreconditionFailedException;
+import com.bookstore.api.BookstoreAPI.ErrorHandling.StacklessResourceNotFoundException;
+import com.bookstore.api.BookstoreAPI.ErrorHandling.ValidationException;
+import com.bookstore.api.BookstoreAPI.Patch.JsonPatches;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Applies changes to a customer under optimistic locking, retrying from a fresh read when a
+ * concurrent writer wins. See {@link com.bookstore.api.BookstoreAPI.Book.BookUpdateService}.
+ */
+@Service
+public class CustomerUpdateService {
+
+    private final CustomerRepository customerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final OptimisticRetry optimisticRetry;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    public CustomerUpdateService(CustomerRepository customerRepository, PlatformTransactionManager transactionManager,
+                                 OptimisticRetry optimisticRetry, ObjectMapper objectMapper, Validator validator) {
+        this.customerRepository = customerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.optimisticRetry = optimisticRetry;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    public CustomerUpdate update(Long id, Long expectedVersion, Consumer<Customer> changes) {
+        return optimisticRetry.execute("Customer", id, expectedVersion, () -> transactionTemplate.execute(status -> {
+            Customer customer = customerRepository.findById(id)
+                .orElseThrow(() -> new StacklessResourceNotFoundException("Customer", id));
+            if (expectedVersion != null && !expectedVersion.equals(customer.getVersion())) {
+                throw new PreconditionFailedException("Customer " + id + " is at version " + customer.getVersion() + ", not " + expectedVersion);
+            }
+            changes.accept(customer);
+            customerRepository.flush();
+            return new CustomerUpdate(toDTO(customer), customer.getVersion());
+        }));
+    }
+
+    /** Applies a JSON Merge Patch or JSON Patch document, validating and setting only the changed fields. */
+    public CustomerUpdate patch(Long id, Long expectedVersion, String contentType, JsonNode patch) {
+        return update(id, expectedVersion, customer -> {
+            JsonNode before = objectMapper.valueToTree(toDTO(customer));
+            JsonNode after = JsonPatches.apply(contentType, before, patch);
+            CustomerDTO patched = toPatchedDTO(after);
+            for (String field : JsonPatches.changedFields(before, after)) {
+                validateField(patched, field);
+                switch (field) {
+                    case "name" -> customer.setName(patched.getName());
+                    case "email" -> customer.setEmail(patched.getEmail());
+                    case "phoneNumber" -> customer.setPhoneNumber(patched.getPhoneNumber());
+                    case "id" -> throw new ValidationException("id cannot be changed");
+                    default -> throw new ValidationException("Unknown field " + field);
+                }
+            }
+        });
+    }
+
+    private CustomerDTO toPatchedDTO(JsonNode patched) {
+        if (!patched.isObject()) {
+            throw new ValidationException("The patched customer must be a JSON object");
+        }
+        try {
+            return objectMapper.treeToValue(patched, CustomerDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("The patched customer is invalid: " + e.getOriginalMessage());
+        }
+    }
+
+    private void validateField(CustomerDTO customer, String field) {
+        if (field.equals("id")) {
+            return;
+        }
+        Set<ConstraintViolation<CustomerDTO>> violations;
+        try {
+            violations = validator.validateProperty(customer, field);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Unknown field " + field);
+        }
+        if (!violations.isEmpty()) {
+            throw new ValidationException(field + " " + violations.iterator().next().getMessage());
+        }
+    }
+
+    private static CustomerDTO toDTO(Customer customer) {
+        return new CustomerDTO(customer.getId(), customer.getName(), customer.getEmail(), customer.getPhoneNumber());
+    }
+
+    public static class CustomerUpdate {
+        private final CustomerDTO current;
+        private final Long version;
+
+        CustomerUpdate(CustomerDTO current, Long version) {
+            this.current = current;
+            this.version = version;
+        }
+
+        public CustomerDTO getCurrent() {
+            return current;
+        }
+
+        public Long getVersion() {
+            return version;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.bookstore.api.BookstoreAPI.Duplicates;
+
+import com.bookstore.api.BookstoreAPI.Book.BookDTO;
+import com.bookstore.api.BookstoreAPI.Serialization.DtoLinksWriter;
+import com.fasterxml.jackson.databind.annotation.JsonAppend;
+
+@JsonAppend(props = @JsonAppend.Prop(value = DtoLinksWriter.class, name = "_links"))
+public class DuplicateBookDTO {
+
+    private BookDTO book;
+    private double similarity;
+
+    public DuplicateBookDTO() {
+    }
+
+    public DuplicateBookDTO(BookDTO book, double similarity) {
+        this.book = book;
+        this.similarity = similarity;
+    }
+
+    public BookDTO getBook() {
+        return book;
+    }
+
+    public void setBook(BookDTO book) {
+        this.book = book;
+    }
+
+    public double getSimilarity() {
+        return similarity;
+    }
+
+    public void setSimilarity(double similarity) {
+        this.similarity = similarity;
+    }
+}
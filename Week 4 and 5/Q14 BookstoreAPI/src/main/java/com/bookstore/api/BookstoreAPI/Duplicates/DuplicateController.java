@@ -0,0 +1,62 @@
+package com.bookstore.api.BookstoreAPI.Duplicates;
+
+import com.bookstore.api.BookstoreAPI.Book.Book;
+import com.bookstore.api.BookstoreAPI.Book.BookDTO;
+import com.bookstore.api.BookstoreAPI.Book.BookRepository;
+import com.bookstore.api.BookstoreAPI.ErrorHandling.StacklessResourceNotFoundException;
+import com.bookstore.api.BookstoreAPI.Serialization.DtoLinks;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/books")
+public class DuplicateController {
+
+    private final NearDuplicateService nearDuplicateService;
+    private final BookRepository bookRepository;
+
+    public DuplicateController(NearDuplicateService nearDuplicateService, BookRepository bookRepository) {
+        this.nearDuplicateService = nearDuplicateService;
+        this.bookRepository = bookRepository;
+    }
+
+    @GetMapping(value = "/{id}/duplicates", produces = { "application/json", "application/xml" })
+    public List<DuplicateBookDTO> getDuplicates(@PathVariable Long id) {
+        List<NearDuplicateService.DuplicateCandidate> candidates = nearDuplicateService.findDuplicates(id);
+        if (candidates == null) {
+            throw new StacklessResourceNotFoundException("Book", id);
+        }
+
+        List<Long> ids = new ArrayList<>(candidates.size());
+        for (NearDuplicateService.DuplicateCandidate candidate : candidates) {
+            ids.add(candidate.getBookId());
+        }
+        Map<Long, Book> booksById = new HashMap<>();
+        for (Book book : bookRepository.findAllById(ids)) {
+            booksById.put(book.getId(), book);
+        }
+
+        List<DuplicateBookDTO> duplicates = new ArrayList<>(candidates.size());
+        for (NearDuplicateService.DuplicateCandidate candidate : candidates) {
+            Book book = booksById.get(candidate.getBookId());
+            if (book == null) {
+                continue;
+            }
+            BookDTO dto = new BookDTO(
+                book.getId(),
+                book.getTitle(),
+                book.getAuthor(),
+                book.getPrice(),
+                book.getIsbn()
+            );
+            duplicates.add(new DuplicateBookDTO(dto, candidate.getSimilarity()));
+        }
+
+        DtoLinks.BOOK_IN_LIST.apply();
+        return duplicates;
+    }
+}
@@ -0,0 +1,114 @@
+package com.bookstore.api.BookstoreAPI.Duplicates;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Locality-sensitive hashing over MinHash signatures. Each signature is cut into bands and
+ * every band is hashed into a bucket; books sharing any bucket become candidates, and only
+ * those candidates are compared. With 8 bands of 4 rows, pairs above about 0.6 similarity
+ * are very likely to collide while dissimilar books almost never do.
+ * <p>
+ * Not thread-safe: {@link NearDuplicateService} guards it with a read/write lock.
+ */
+class LshIndex {
+
+    private final MinHasher hasher;
+    private final int bands;
+    private final int rows;
+    private final Map<Long, int[]> signatures = new HashMap<>();
+    private final List<Map<Long, List<Long>>> buckets = new ArrayList<>();
+
+    LshIndex(MinHasher hasher, int bands, int rows) {
+        this.hasher = hasher;
+        this.bands = bands;
+        this.rows = rows;
+        for (int band = 0; band < bands; band++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    int[] signature(String title, String author) {
+        return hasher.signature(title, author);
+    }
+
+    int[] signatureOf(long bookId) {
+        return signatures.get(bookId);
+    }
+
+    int size() {
+        return signatures.size();
+    }
+
+    void put(long bookId, String title, String author) {
+        remove(bookId);
+        int[] signature = hasher.signature(title, author);
+        signatures.put(bookId, signature);
+        for (int band = 0; band < bands; band++) {
+            buckets.get(band).computeIfAbsent(bandKey(signature, band), key -> new ArrayList<>(1)).add(bookId);
+        }
+    }
+
+    void remove(long bookId) {
+        int[] signature = signatures.remove(bookId);
+        if (signature == null) {
+            return;
+        }
+        for (int band = 0; band < bands; band++) {
+            Map<Long, List<Long>> bandBuckets = buckets.get(band);
+            long key = bandKey(signature, band);
+            List<Long> bucket = bandBuckets.get(key);
+            if (bucket != null) {
+                bucket.remove(Long.valueOf(bookId));
+                if (bucket.isEmpty()) {
+                    bandBuckets.remove(key);
+                }
+            }
+        }
+    }
+
+    /** Books whose estimated similarity to {@code signature} is at least {@code threshold}, best first. */
+    List<Match> findSimilar(int[] signature, long excludeBookId, double threshold) {
+        Set<Long> seen = new HashSet<>();
+        List<Match> matches = new ArrayList<>();
+        for (int band = 0; band < bands; band++) {
+            List<Long> bucket = buckets.get(band).get(bandKey(signature, band));
+            if (bucket == null) {
+                continue;
+            }
+            for (Long candidate : bucket) {
+                if (candidate == excludeBookId || !seen.add(candidate)) {
+                    continue;
+                }
+                double similarity = MinHasher.similarity(signature, signatures.get(candidate));
+                if (similarity >= threshold) {
+                    matches.add(new Match(candidate, similarity));
+                }
+            }
+        }
+        matches.sort((a, b) -> Double.compare(b.similarity, a.similarity));
+        return matches;
+    }
+
+    private long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int row = band * rows; row < (band + 1) * rows; row++) {
+            key = key * 0x9E3779B97F4A7C15L + signature[row];
+        }
+        return key;
+    }
+
+    static class Match {
+        final long bookId;
+        final double similarity;
+
+        Match(long bookId, double similarity) {
+            this.bookId = bookId;
+            this.similarity = similarity;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.bookstore.api.BookstoreAPI.Duplicates;
+
+import com.bookstore.api.BookstoreAPI.Search.BookTokenizer;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * MinHash signatures over character 3-grams of the normalized "title author" text. Two
+ * books' signatures agree in roughly the same fraction of positions as the Jaccard
+ * similarity of their shingle sets, so spelling variants still score highly.
+ */
+final class MinHasher {
+
+    private static final int SHINGLE = 3;
+
+    private final long[] multipliers;
+    private final long[] increments;
+
+    MinHasher(int hashCount, long seed) {
+        Random random = new Random(seed);
+        multipliers = new long[hashCount];
+        increments = new long[hashCount];
+        for (int i = 0; i < hashCount; i++) {
+            multipliers[i] = random.nextLong() | 1L;
+            increments[i] = random.nextLong();
+        }
+    }
+
+    int[] signature(String title, String author) {
+        String text = String.join(" ", BookTokenizer.words(title)) + " " + String.join(" ", BookTokenizer.words(author));
+        int[] signature = new int[multipliers.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        int shingles = Math.max(1, text.length() - SHINGLE + 1);
+        for (int start = 0; start < shingles; start++) {
+            long shingle = shingleHash(text, start, Math.min(text.length(), start + SHINGLE));
+            for (int i = 0; i < multipliers.length; i++) {
+                int hash = (int) ((multipliers[i] * shingle + increments[i]) >>> 33);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+
+    private static long shingleHash(String text, int from, int to) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = from; i < to; i++) {
+            h ^= text.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h ^ (h >>> 29);
+    }
+}
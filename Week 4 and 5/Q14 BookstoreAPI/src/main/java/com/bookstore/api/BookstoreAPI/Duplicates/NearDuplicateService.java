@@ -0,0 +1,156 @@
+package com.bookstore.api.BookstoreAPI.Duplicates;
+
+import com.bookstore.api.BookstoreAPI.Book.BookCatalogReloadedEvent;
+import com.bookstore.api.BookstoreAPI.Book.BookChangedEvent;
+import com.bookstore.api.BookstoreAPI.Book.BookTableScanner;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Detects books that are probably the same work sent with slightly different titles or
+ * author spellings. Lookups touch only the LSH buckets of one signature, so checking a new
+ * book costs well under a millisecond regardless of catalog size.
+ */
+@Service
+public class NearDuplicateService {
+
+    private static final int BANDS = 8;
+    private static final int ROWS = 4;
+    private static final long SEED = 0x5DEECE66DL;
+
+    private final BookTableScanner bookTableScanner;
+    private final MinHasher hasher = new MinHasher(BANDS * ROWS, SEED);
+    private final double threshold;
+    private final Counter flaggedBooks;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private LshIndex index;
+    private List<BookChangedEvent> changesDuringRebuild;
+
+    public NearDuplicateService(BookTableScanner bookTableScanner,
+                                MeterRegistry meterRegistry,
+                                @Value("${bookstore.duplicates.similarity-threshold:0.7}") double threshold) {
+        this.bookTableScanner = bookTableScanner;
+        this.threshold = threshold;
+        this.flaggedBooks = meterRegistry.counter("books_flagged_as_duplicates");
+        this.index = new LshIndex(hasher, BANDS, ROWS);
+    }
+
+    /** Existing books similar to a book about to be created. */
+    public List<DuplicateCandidate> findCandidates(String title, String author) {
+        int[] signature = hasher.signature(title, author);
+        lock.readLock().lock();
+        try {
+            return toCandidates(index.findSimilar(signature, -1, threshold));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Counts a book saved despite having candidates; a create that fails afterwards flags nothing. */
+    public void incrementFlaggedBooks() {
+        flaggedBooks.increment();
+    }
+
+    /** Books similar to an existing book, or {@code null} if the book is not indexed. */
+    public List<DuplicateCandidate> findDuplicates(long bookId) {
+        lock.readLock().lock();
+        try {
+            int[] signature = index.signatureOf(bookId);
+            if (signature == null) {
+                return null;
+            }
+            return toCandidates(index.findSimilar(signature, bookId, threshold));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onBookChanged(BookChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            apply(index, event);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Same scan-then-replay rebuild as the search index: put/remove are idempotent per book id. */
+    @EventListener({ ApplicationReadyEvent.class, BookCatalogReloadedEvent.class })
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        LshIndex rebuilt = new LshIndex(hasher, BANDS, ROWS);
+        boolean scanned = false;
+        try {
+            bookTableScanner.forEachBook(book -> rebuilt.put(book.getId(), book.getTitle(), book.getAuthor()));
+            scanned = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (scanned) {
+                    for (BookChangedEvent event : changesDuringRebuild) {
+                        apply(rebuilt, event);
+                    }
+                    index = rebuilt;
+                }
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private static void apply(LshIndex target, BookChangedEvent event) {
+        if (event.getPrevious() != null) {
+            target.remove(event.getPrevious().getId());
+        }
+        if (event.getCurrent() != null) {
+            target.put(event.getCurrent().getId(), event.getCurrent().getTitle(), event.getCurrent().getAuthor());
+        }
+    }
+
+    private static List<DuplicateCandidate> toCandidates(List<LshIndex.Match> matches) {
+        List<DuplicateCandidate> candidates = new ArrayList<>(matches.size());
+        for (LshIndex.Match match : matches) {
+            candidates.add(new DuplicateCandidate(match.bookId, match.similarity));
+        }
+        return candidates;
+    }
+
+    public static class DuplicateCandidate {
+        private final long bookId;
+        private final double similarity;
+
+        public DuplicateCandidate(long bookId, double similarity) {
+            this.bookId = bookId;
+            this.similarity = similarity;
+        }
+
+        public long getBookId() {
+            return bookId;
+        }
+
+        public double getSimilarity() {
+            return similarity;
+        }
+    }
+}
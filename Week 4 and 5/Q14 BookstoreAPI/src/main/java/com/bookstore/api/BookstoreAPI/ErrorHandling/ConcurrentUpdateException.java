@@ -0,0 +1,7 @@
+package com.bookstore.api.BookstoreAPI.ErrorHandling;
+
+public class ConcurrentUpdateException extends RuntimeException {
+    public ConcurrentUpdateException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.bookstore.api.BookstoreAPI.ErrorHandling;
+
+public class DuplicateResourceException extends RuntimeException {
+    public DuplicateResourceException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,87 @@
+package com.bookstore.api.BookstoreAPI.ErrorHandling;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pre-serialized JSON error bodies. Fixed messages are serialized once; "not found" bodies
+ * are a cached prefix and suffix per resource and key name with the key spliced in, so
+ * answering a miss allocates one small array.
+ */
+@Component
+public class ErrorBodies {
+
+    private static final String KEY_PLACEHOLDER = "{key}";
+
+    private final ObjectMapper objectMapper;
+    private final ConcurrentHashMap<String, byte[]> fixedBodies = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, byte[][]> notFoundTemplates = new ConcurrentHashMap<>();
+
+    public ErrorBodies(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /** Callers must only pass messages from a small fixed set; every distinct one is kept. */
+    public byte[] fixed(String error, String message) {
+        return fixedBodies.computeIfAbsent(error + '\u0000' + message, key -> serialize(new ErrorResponse(error, message)));
+    }
+
+    public byte[] notFound(String resource, long id) {
+        return splice(notFoundTemplates.computeIfAbsent(resource + " id", ignored -> notFoundTemplate(resource, "id")),
+            Long.toString(id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Same for a lookup by another key. Keys come from the request path, so one that would
+     * need escaping in JSON is serialized the slow way instead of spliced in.
+     */
+    public byte[] notFound(String resource, String keyName, String key) {
+        if (!isPlainAscii(key)) {
+            return serialize(new ErrorResponse(GlobalExceptionHandler.NOT_FOUND_ERROR, resource + " not found with " + keyName + " " + key));
+        }
+        return splice(notFoundTemplates.computeIfAbsent(resource + ' ' + keyName, ignored -> notFoundTemplate(resource, keyName)),
+            key.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static byte[] splice(byte[][] template, byte[] key) {
+        byte[] prefix = template[0];
+        byte[] suffix = template[1];
+        byte[] body = Arrays.copyOf(prefix, prefix.length + key.length + suffix.length);
+        System.arraycopy(key, 0, body, prefix.length, key.length);
+        System.arraycopy(suffix, 0, body, prefix.length + key.length, suffix.length);
+        return body;
+    }
+
+    private static boolean isPlainAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c > 0x7e || c == '"' || c == '\\') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[][] notFoundTemplate(String resource, String keyName) {
+        byte[] body = serialize(new ErrorResponse(GlobalExceptionHandler.NOT_FOUND_ERROR, resource + " not found with " + keyName + " " + KEY_PLACEHOLDER));
+        String json = new String(body, StandardCharsets.UTF_8);
+        int at = json.lastIndexOf(KEY_PLACEHOLDER);
+        return new byte[][] {
+            json.substring(0, at).getBytes(StandardCharsets.UTF_8),
+            json.substring(at + KEY_PLACEHOLDER.length()).getBytes(StandardCharsets.UTF_8)
+        };
+    }
+
+    private byte[] serialize(ErrorResponse errorResponse) {
+        try {
+            return objectMapper.writeValueAsBytes(errorResponse);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize error body", e);
+        }
+    }
+}
@@ -1,51 +1,183 @@
 package com.bookstore.api.BookstoreAPI.ErrorHandling;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+
+import java.util.concurrent.ConcurrentHashMap;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    static final String NOT_FOUND_ERROR = "Resource not found";
+    static final String VALIDATION_ERROR = "Validation error";
+
+    private final ErrorBodies errorBodies;
+    private final ContentNegotiationManager contentNegotiationManager;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<Class<?>, Counter> errorCounters = new ConcurrentHashMap<>();
+
+    public GlobalExceptionHandler(ErrorBodies errorBodies, ContentNegotiationManager contentNegotiationManager, MeterRegistry meterRegistry) {
+        this.errorBodies = errorBodies;
+        this.contentNegotiationManager = contentNegotiationManager;
+        this.meterRegistry = meterRegistry;
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
-    @ResponseStatus(HttpStatus.NOT_FOUND)
-    @ResponseBody
-    public ErrorResponse handleResourceNotFoundException(ResourceNotFoundException ex) {
-        return new ErrorResponse("Resource not found", ex.getMessage());
+    public ResponseEntity<?> handleResourceNotFoundException(ResourceNotFoundException ex, NativeWebRequest request) {
+        count(ex);
+        if (ex instanceof StacklessResourceNotFoundException missing && acceptsJson(request)) {
+            return jsonBody(HttpStatus.NOT_FOUND, missing.getKey() != null
+                ? errorBodies.notFound(missing.getResource(), missing.getKeyName(), missing.getKey())
+                : errorBodies.notFound(missing.getResource(), missing.getId()));
+        }
+        return new ResponseEntity<>(new ErrorResponse(NOT_FOUND_ERROR, ex.getMessage()), HttpStatus.NOT_FOUND);
     }
 
     @ExceptionHandler(UnauthorizedException.class)
     @ResponseStatus(HttpStatus.UNAUTHORIZED)
     @ResponseBody
     public ErrorResponse handleUnauthorizedException(UnauthorizedException ex) {
+        count(ex);
         return new ErrorResponse("Unauthorized access", ex.getMessage());
     }
 
     @ExceptionHandler(ValidationException.class)
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<?> handleValidationException(ValidationException ex, NativeWebRequest request) {
+        count(ex);
+        if (ex instanceof StacklessValidationException && acceptsJson(request)) {
+            return jsonBody(HttpStatus.BAD_REQUEST, errorBodies.fixed(VALIDATION_ERROR, ex.getMessage()));
+        }
+        return new ResponseEntity<>(new ErrorResponse(VALIDATION_ERROR, ex.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(DuplicateResourceException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ResponseBody
+    public ErrorResponse handleDuplicateResourceException(DuplicateResourceException ex) {
+        count(ex);
+        return new ErrorResponse("Duplicate resource", ex.getMessage());
+    }
+
+    @ExceptionHandler(ConcurrentUpdateException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ResponseBody
+    public ErrorResponse handleConcurrentUpdateException(ConcurrentUpdateException ex) {
+        count(ex);
+        return new ErrorResponse("Concurrent modification", ex.getMessage());
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    @ResponseBody
+    public ErrorResponse handlePreconditionFailedException(PreconditionFailedException ex) {
+        count(ex);
+        return new ErrorResponse("Precondition failed", ex.getMessage());
+    }
+
+    @ExceptionHandler(PatchConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
     @ResponseBody
-    public ErrorResponse handleValidationException(ValidationException ex) {
-        return new ErrorResponse("Validation error", ex.getMessage());
+    public ErrorResponse handlePatchConflictException(PatchConflictException ex) {
+        count(ex);
+        return new ErrorResponse("Patch conflict", ex.getMessage());
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimitExceededException(RateLimitExceededException ex) {
+        count(ex);
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("X-RateLimit-Limit", Integer.toString(ex.getLimit()));
+        headers.add("X-RateLimit-Remaining", "0");
+        headers.add(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()));
+        return new ResponseEntity<>(new ErrorResponse("Too many requests", ex.getMessage()), headers, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @ExceptionHandler(StoreUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleStoreUnavailableException(StoreUnavailableException ex) {
+        count(ex);
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()));
+        return new ResponseEntity<>(new ErrorResponse("Service unavailable", ex.getMessage()), headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    // The handler executor's queue is full, or the handler did not finish in time
+    @ExceptionHandler({ TaskRejectedException.class, AsyncRequestTimeoutException.class })
+    public ResponseEntity<ErrorResponse> handleHandlerBacklog(Exception ex) {
+        count(ex);
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.RETRY_AFTER, "1");
+        return new ResponseEntity<>(new ErrorResponse("Service unavailable", "The server is at capacity, please retry later"),
+            headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    // A concurrent insert can still hit a unique index after the duplicate check passed
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ResponseBody
+    public ErrorResponse handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        count(ex);
+        return new ErrorResponse("Duplicate resource", "The request conflicts with an existing resource");
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ResponseBody
     public ErrorResponse handleMethodArgumentNotValidException(MethodArgumentNotValidException ex) {
+        count(ex);
         FieldError fieldError = ex.getBindingResult().getFieldError();
         String fieldName = fieldError != null ? fieldError.getField() : "field";
         String errorMessage = fieldError != null ? fieldError.getDefaultMessage() : "Validation error";
-        return new ErrorResponse("Validation error", fieldName + " " + errorMessage);
+        return new ErrorResponse(VALIDATION_ERROR, fieldName + " " + errorMessage);
     }
 
+    // Commit hooks such as the audit journal fail the commit, and arrive wrapped by Hibernate and the transaction manager
     @ExceptionHandler(Exception.class)
-    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
-    @ResponseBody
-    public ErrorResponse handleGlobalException(Exception ex) {
-        return new ErrorResponse("Internal server error", ex.getMessage());
+    public ResponseEntity<ErrorResponse> handleGlobalException(Exception ex) {
+        for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof StoreUnavailableException unavailable) {
+                return handleStoreUnavailableException(unavailable);
+            }
+        }
+        count(ex);
+        return new ResponseEntity<>(new ErrorResponse("Internal server error", ex.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    private void count(Exception ex) {
+        errorCounters.computeIfAbsent(ex.getClass(),
+            type -> meterRegistry.counter("api_errors", "exception", type.getSimpleName())).increment();
+    }
+
+    // Cached bodies are JSON only; anything else goes through the usual message converters
+    private boolean acceptsJson(NativeWebRequest request) {
+        try {
+            for (MediaType mediaType : contentNegotiationManager.resolveMediaTypes(request)) {
+                if (!mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            return false;
+        }
+    }
+
+    private static ResponseEntity<byte[]> jsonBody(HttpStatus status, byte[] body) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(body);
     }
 }
@@ -0,0 +1,7 @@
+package com.bookstore.api.BookstoreAPI.ErrorHandling;
+
+public class PatchConflictException extends RuntimeException {
+    public PatchConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.bookstore.api.BookstoreAPI.ErrorHandling;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,21 @@
+package com.bookstore.api.BookstoreAPI.ErrorHandling;
+
+public class RateLimitExceededException extends RuntimeException {
+
+    private final int limit;
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, int limit, long retryAfterSeconds) {
+        super(message);
+        this.limit = limit;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,53 @@
+package com.bookstore.api.BookstoreAPI.ErrorHandling;
+
+/**
+ * Cheap "not found by id" for hot lookup paths: no stack trace is captured and the message
+ * is only built if someone asks for it. {@link GlobalExceptionHandler} answers it from a
+ * cached body.
+ */
+public class StacklessResourceNotFoundException extends ResourceNotFoundException {
+
+    private final String resource;
+    private final long id;
+    private final String keyName;
+    private final String key;
+
+    public StacklessResourceNotFoundException(String resource, long id) {
+        super(null, false);
+        this.resource = resource;
+        this.id = id;
+        this.keyName = "id";
+        this.key = null;
+    }
+
+    /** A lookup by some other unique key, e.g. {@code ("Book", "ISBN", isbn)}. */
+    public StacklessResourceNotFoundException(String resource, String keyName, String key) {
+        super(null, false);
+        this.resource = resource;
+        this.id = 0;
+        this.keyName = keyName;
+        this.key = key;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getKeyName() {
+        return keyName;
+    }
+
+    /** The key that was looked up, or {@code null} for a lookup by {@link #getId() id}. */
+    public String getKey() {
+        return key;
+    }
+
+    @Override
+    public String getMessage() {
+        return resource + " not found with " + keyName + " " + (key != null ? key : Long.toString(id));
+    }
+}
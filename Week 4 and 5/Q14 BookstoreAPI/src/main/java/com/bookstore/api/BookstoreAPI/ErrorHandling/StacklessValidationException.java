@@ -0,0 +1,17 @@
+package com.bookstore.api.BookstoreAPI.ErrorHandling;
+
+/**
+ * Validation failures with a fixed message. Instances carry no stack trace, cause or
+ * suppressed exceptions, so the constants below are thrown as-is and shared by all requests.
+ */
+public class StacklessValidationException extends ValidationException {
+
+    public static final StacklessValidationException PRICE_NOT_POSITIVE = new StacklessValidationException("Price must be greater than zero");
+    public static final StacklessValidationException TITLE_EMPTY = new StacklessValidationException("Title must not be empty");
+    public static final StacklessValidationException EMAIL_INVALID = new StacklessValidationException("Email must be valid");
+    public static final StacklessValidationException NAME_EMPTY = new StacklessValidationException("Name must not be empty");
+
+    private StacklessValidationException(String message) {
+        super(message, false);
+    }
+}
@@ -0,0 +1,16 @@
+package com.bookstore.api.BookstoreAPI.ErrorHandling;
+
+/** The data store cannot answer right now; the client should retry after the given delay. */
+public class StoreUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public StoreUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,101 @@
+package com.bookstore.api.BookstoreAPI.EventSourcing;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The catalog folded from a snapshot and the events after it: every live book's latest
+ * created or updated event, by id. Not thread-safe; each recovery builds its own.
+ */
+final class BookCatalogState {
+
+    private final Map<Long, BookEvent> books;
+    private BookEventLog.Position position = BookEventLog.Position.START;
+    private BookSnapshot snapshot;
+    private long replayed;
+
+    private BookCatalogState(int expectedBooks) {
+        this.books = new HashMap<>(Math.max(16, (int) (expectedBooks / 0.75f) + 1));
+    }
+
+    /**
+     * Loads the newest usable snapshot taken no later than {@code untilTimestamp} and replays
+     * the log after it, stopping at {@code limit} bytes or the first newer event. A damaged
+     * snapshot is skipped in favour of the next older one, down to replaying the whole log.
+     */
+    static BookCatalogState recover(Path snapshotDirectory, Path log, long limit, long untilTimestamp) throws IOException {
+        long logSize = Files.size(log);
+        for (Path file : BookSnapshot.list(snapshotDirectory)) {
+            BookCatalogState state;
+            try {
+                BookSnapshot snapshot = BookSnapshot.open(file);
+                if (snapshot.position.timestamp > untilTimestamp || snapshot.position.offset > Math.min(limit, logSize)) {
+                    continue;
+                }
+                state = new BookCatalogState(snapshot.count);
+                snapshot.load(state);
+                state.snapshot = snapshot;
+                state.position = snapshot.position;
+            } catch (IOException e) {
+                continue;
+            }
+            state.replay(log, limit, untilTimestamp);
+            return state;
+        }
+        BookCatalogState state = new BookCatalogState(0);
+        state.replay(log, limit, untilTimestamp);
+        return state;
+    }
+
+    private void replay(Path log, long limit, long untilTimestamp) throws IOException {
+        position = BookEventLog.replay(log, position, limit, untilTimestamp, this::apply);
+    }
+
+    void apply(BookEvent event) {
+        if (event.getType() == BookEvent.Type.DELETED) {
+            books.remove(event.getBookId());
+        } else {
+            books.put(event.getBookId(), event);
+        }
+        replayed++;
+    }
+
+    void put(BookEvent book) {
+        books.put(book.getBookId(), book);
+    }
+
+    Map<Long, BookEvent> books() {
+        return books;
+    }
+
+    Collection<BookEvent> values() {
+        return books.values();
+    }
+
+    long maxBookId() {
+        long max = 0;
+        for (long id : books.keySet()) {
+            max = Math.max(max, id);
+        }
+        return max;
+    }
+
+    /** Position after the last event folded in. */
+    BookEventLog.Position position() {
+        return position;
+    }
+
+    /** The snapshot recovery started from; {@code null} if it replayed the whole log. */
+    BookSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /** Events replayed on top of the snapshot. */
+    long replayed() {
+        return replayed;
+    }
+}
@@ -0,0 +1,95 @@
+package com.bookstore.api.BookstoreAPI.EventSourcing;
+
+import com.bookstore.api.BookstoreAPI.Book.BookDTO;
+
+/**
+ * One committed book write: {@code BookCreated}, {@code BookUpdated} or {@code BookDeleted}.
+ * Created and updated events carry the book's full state after the write, so the latest
+ * event of a book is also its current state; deleted events carry only the id.
+ */
+public final class BookEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private final long sequence;
+    private final long timestamp;
+    private final Type type;
+    private final long bookId;
+    private final long version;
+    private final String title;
+    private final String author;
+    private final Double price;
+    private final String isbn;
+
+    BookEvent(long sequence, long timestamp, Type type, long bookId, long version,
+              String title, String author, Double price, String isbn) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.type = type;
+        this.bookId = bookId;
+        this.version = version;
+        this.title = title;
+        this.author = author;
+        this.price = price;
+        this.isbn = isbn;
+    }
+
+    /** An event that has not been appended yet; the log assigns sequence and timestamp. */
+    static BookEvent pending(Type type, long bookId, long version, String title, String author, Double price, String isbn) {
+        return new BookEvent(0, 0, type, bookId, version, title, author, price, isbn);
+    }
+
+    static BookEvent deleted(long bookId) {
+        return pending(Type.DELETED, bookId, 0, null, null, null, null);
+    }
+
+    /** The event that undoes this one, given the book's state before it ({@code null} if it did not exist). */
+    BookEvent compensation(BookEvent before) {
+        if (before == null) {
+            return deleted(bookId);
+        }
+        return pending(type == Type.DELETED ? Type.CREATED : Type.UPDATED,
+            bookId, before.version, before.title, before.author, before.price, before.isbn);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getBookId() {
+        return bookId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    /** The book as of this event; {@code null} for {@link Type#DELETED}. */
+    public BookDTO toDTO() {
+        return type == Type.DELETED ? null : new BookDTO(bookId, title, author, price, isbn);
+    }
+}
@@ -0,0 +1,131 @@
+package com.bookstore.api.BookstoreAPI.EventSourcing;
+
+import com.bookstore.api.BookstoreAPI.Book.Book;
+import org.hibernate.HibernateException;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns every book row Hibernate inserts, updates or deletes into a {@link BookEvent}. The
+ * events of a transaction are collected as it flushes and appended to the log just before
+ * the database commits, so a failed append rolls the write back. If the commit itself then
+ * fails, each appended event is undone by appending its compensation.
+ */
+class BookEventCapture implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final BookEventStore store;
+    private final Map<EventSource, Pending> pendingBySession = new ConcurrentHashMap<>();
+
+    BookEventCapture(BookEventStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Book book) {
+            BookEvent created = BookEvent.pending(BookEvent.Type.CREATED, book.getId(), book.getVersion() != null ? book.getVersion() : 0,
+                book.getTitle(), book.getAuthor(), book.getPrice(), book.getIsbn());
+            capture(event.getSession(), created, created.compensation(null));
+            store.created(book.getId());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Book) {
+            long id = (Long) event.getId();
+            BookEvent after = fromState(BookEvent.Type.UPDATED, id, event.getState(), event.getPersister());
+            Object[] oldState = event.getOldState();
+            capture(event.getSession(), after,
+                oldState != null ? after.compensation(fromState(BookEvent.Type.UPDATED, id, oldState, event.getPersister())) : null);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Book) {
+            long id = (Long) event.getId();
+            BookEvent deleted = BookEvent.deleted(id);
+            Object[] deletedState = event.getDeletedState();
+            capture(event.getSession(), deleted,
+                deletedState != null ? deleted.compensation(fromState(BookEvent.Type.UPDATED, id, deletedState, event.getPersister())) : null);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private static BookEvent fromState(BookEvent.Type type, long id, Object[] state, EntityPersister persister) {
+        List<String> names = Arrays.asList(persister.getPropertyNames());
+        Object version = state[persister.getVersionProperty()];
+        return BookEvent.pending(type, id, version != null ? ((Number) version).longValue() : 0,
+            (String) state[names.indexOf("title")], (String) state[names.indexOf("author")],
+            (Double) state[names.indexOf("price")], (String) state[names.indexOf("isbn")]);
+    }
+
+    /** Adds the event to the session's pending batch, registering the commit callbacks on its first event. */
+    private void capture(EventSource session, BookEvent event, BookEvent compensation) {
+        Pending pending = pendingBySession.get(session);
+        if (pending == null) {
+            // A session is used by one thread at a time, so get-then-put does not race
+            Pending registered = new Pending();
+            pendingBySession.put(session, registered);
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) ignored -> registered.append());
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, ignored) -> {
+                pendingBySession.remove(session);
+                if (!success) {
+                    registered.compensate();
+                }
+            });
+            pending = registered;
+        }
+        pending.events.add(event);
+        pending.compensations.add(compensation);
+    }
+
+    private final class Pending {
+        final List<BookEvent> events = new ArrayList<>();
+        final List<BookEvent> compensations = new ArrayList<>();
+        boolean attempted;
+
+        void append() {
+            attempted = true;
+            try {
+                store.append(events);
+            } catch (IOException e) {
+                throw new HibernateException("Could not append " + events.size() + " book events", e);
+            }
+        }
+
+        /** Undoes the batch newest first. Harmless if the append never reached the disk: each compensation restores the logged state. */
+        void compensate() {
+            if (!attempted) {
+                return;
+            }
+            List<BookEvent> undo = new ArrayList<>(compensations.size());
+            for (int i = compensations.size() - 1; i >= 0; i--) {
+                if (compensations.get(i) != null) {
+                    undo.add(compensations.get(i));
+                }
+            }
+            store.compensate(undo);
+        }
+    }
+}
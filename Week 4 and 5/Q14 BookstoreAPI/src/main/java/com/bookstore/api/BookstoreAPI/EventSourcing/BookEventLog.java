@@ -0,0 +1,317 @@
+package com.bookstore.api.BookstoreAPI.EventSourcing;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only file of {@link BookEvent}s. Layout, all big-endian:
+ * <pre>
+ *   file header  magic:int format:int
+ *   record       length:int crc32c:int body
+ *   body         sequence:long timestamp:long type:byte bookId:long version:long price:double
+ *                title author isbn   (strings: length:u16 + UTF-8, 0xFFFF meaning null)
+ * </pre>
+ * Appends are group-committed: each caller writes its batch under the write lock, then the
+ * first caller to reach {@link FileChannel#force} syncs everything written so far and the
+ * callers behind it find their records already durable. Reads never use the append channel;
+ * {@link #replay} opens its own, so an interrupted reader cannot close the log.
+ */
+final class BookEventLog implements Closeable {
+
+    static final int MAGIC = 0x424B4556; // "BKEV"
+    static final int FORMAT = 1;
+    static final int HEADER_SIZE = 8;
+    static final int RECORD_HEADER_SIZE = 8;
+
+    private static final int FIXED_BODY_SIZE = 41;
+    private static final int MAX_BODY_SIZE = FIXED_BODY_SIZE + 3 * (2 + 0xFFFE);
+    private static final int NULL_LENGTH = 0xFFFF;
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+
+    private final Path file;
+    private final Object writeLock = new Object();
+    private final Object forceLock = new Object();
+    private FileChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    private long position;
+    private long lastSequence;
+    private long lastTimestamp;
+    private volatile long durablePosition;
+    private volatile long durableSequence;
+
+    private BookEventLog(Path file, FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+    }
+
+    /** Opens or creates the log. Appending starts once {@link #resume} has been told where the valid records end. */
+    static BookEventLog open(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                channel.write(ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(FORMAT).flip(), 0);
+                channel.force(true);
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                if (channel.read(header, 0) != HEADER_SIZE || header.getInt(0) != MAGIC || header.getInt(4) != FORMAT) {
+                    throw new IOException(file + " is not a book event log");
+                }
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new BookEventLog(file, channel);
+    }
+
+    /** Cuts off anything after the last valid record (a write torn by a crash) and continues from there. */
+    void resume(Position end) throws IOException {
+        synchronized (writeLock) {
+            channel.truncate(end.offset);
+            channel.force(true);
+            position = end.offset;
+            lastSequence = end.sequence;
+            lastTimestamp = end.timestamp;
+            durablePosition = end.offset;
+            durableSequence = end.sequence;
+        }
+    }
+
+    /**
+     * Appends the events with consecutive sequences and non-decreasing timestamps and returns
+     * once they are on disk. Returns the last sequence written.
+     */
+    long append(List<BookEvent> events) throws IOException {
+        long end;
+        long endSequence;
+        synchronized (writeLock) {
+            long start = position;
+            long now = Math.max(System.currentTimeMillis(), lastTimestamp);
+            buffer.clear();
+            for (int i = 0; i < events.size(); i++) {
+                encode(events.get(i), lastSequence + 1 + i, now);
+            }
+            buffer.flip();
+            try {
+                FileChannel out = channel();
+                while (buffer.hasRemaining()) {
+                    position += out.write(buffer, position);
+                }
+            } catch (IOException e) {
+                position = start;
+                try {
+                    channel().truncate(start);
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+            lastSequence += events.size();
+            lastTimestamp = now;
+            end = position;
+            endSequence = lastSequence;
+        }
+        force(end);
+        return endSequence;
+    }
+
+    private void force(long end) throws IOException {
+        synchronized (forceLock) {
+            if (durablePosition >= end) {
+                return;
+            }
+            long target;
+            long targetSequence;
+            synchronized (writeLock) {
+                target = position;
+                targetSequence = lastSequence;
+            }
+            channel().force(false);
+            durablePosition = target;
+            durableSequence = targetSequence;
+        }
+    }
+
+    /** The append channel, reopened if an interrupted writer closed it. */
+    private FileChannel channel() throws IOException {
+        synchronized (writeLock) {
+            if (!channel.isOpen()) {
+                channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+            return channel;
+        }
+    }
+
+    private void encode(BookEvent event, long sequence, long timestamp) {
+        byte[] title = encodeString(event.getTitle());
+        byte[] author = encodeString(event.getAuthor());
+        byte[] isbn = encodeString(event.getIsbn());
+        int bodySize = FIXED_BODY_SIZE + stringSize(title) + stringSize(author) + stringSize(isbn);
+        if (buffer.remaining() < RECORD_HEADER_SIZE + bodySize) {
+            buffer = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + RECORD_HEADER_SIZE + bodySize)).put(buffer.flip());
+        }
+        int start = buffer.position();
+        buffer.putInt(bodySize).putInt(0);
+        buffer.putLong(sequence).putLong(timestamp).put((byte) event.getType().ordinal())
+            .putLong(event.getBookId()).putLong(event.getVersion())
+            .putDouble(event.getPrice() != null ? event.getPrice() : Double.NaN);
+        putString(title);
+        putString(author);
+        putString(isbn);
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), start + RECORD_HEADER_SIZE, bodySize);
+        buffer.putInt(start + 4, (int) crc.getValue());
+    }
+
+    /** Field values longer than 65534 bytes are cut off; entity validation keeps real fields far below that. */
+    private static byte[] encodeString(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return bytes.length < NULL_LENGTH ? bytes : Arrays.copyOf(bytes, NULL_LENGTH - 1);
+    }
+
+    private static int stringSize(byte[] value) {
+        return 2 + (value != null ? value.length : 0);
+    }
+
+    private void putString(byte[] value) {
+        if (value == null) {
+            buffer.putShort((short) NULL_LENGTH);
+        } else {
+            buffer.putShort((short) value.length).put(value);
+        }
+    }
+
+    /**
+     * Reads the records between {@code from} and {@code limit} in order, handing each one to
+     * the consumer, and stops early at a torn or corrupt record or at the first event newer
+     * than {@code untilTimestamp}. Returns the position after the last record delivered.
+     */
+    static Position replay(Path file, Position from, long limit, long untilTimestamp, Consumer<BookEvent> consumer) throws IOException {
+        long offset = from.offset;
+        long sequence = from.sequence;
+        long timestamp = from.timestamp;
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long end = Math.min(limit, in.size());
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            long filePosition = offset;
+            buffer.flip();
+            CRC32C crc = new CRC32C();
+            while (true) {
+                if (buffer.remaining() < RECORD_HEADER_SIZE
+                        || buffer.remaining() < RECORD_HEADER_SIZE + buffer.getInt(buffer.position())) {
+                    buffer.compact();
+                    while (buffer.hasRemaining() && filePosition < end) {
+                        if (end - filePosition < buffer.remaining()) {
+                            buffer.limit(buffer.position() + (int) (end - filePosition));
+                        }
+                        int read = in.read(buffer, filePosition);
+                        if (read < 0) {
+                            break;
+                        }
+                        filePosition += read;
+                    }
+                    buffer.flip();
+                    if (buffer.remaining() < RECORD_HEADER_SIZE) {
+                        break;
+                    }
+                }
+                int bodySize = buffer.getInt(buffer.position());
+                if (bodySize < FIXED_BODY_SIZE + 6 || bodySize > MAX_BODY_SIZE
+                        || buffer.remaining() < RECORD_HEADER_SIZE + bodySize) {
+                    break;
+                }
+                int bodyStart = buffer.position() + RECORD_HEADER_SIZE;
+                crc.reset();
+                crc.update(buffer.array(), bodyStart, bodySize);
+                if ((int) crc.getValue() != buffer.getInt(buffer.position() + 4)) {
+                    break;
+                }
+                BookEvent event = decode(buffer, bodyStart);
+                if (event.getTimestamp() > untilTimestamp) {
+                    break;
+                }
+                consumer.accept(event);
+                buffer.position(bodyStart + bodySize);
+                offset += RECORD_HEADER_SIZE + bodySize;
+                sequence = event.getSequence();
+                timestamp = event.getTimestamp();
+            }
+        }
+        return new Position(offset, sequence, timestamp);
+    }
+
+    private static BookEvent decode(ByteBuffer buffer, int bodyStart) {
+        buffer.position(bodyStart);
+        long sequence = buffer.getLong();
+        long timestamp = buffer.getLong();
+        BookEvent.Type type = BookEvent.Type.values()[buffer.get()];
+        long bookId = buffer.getLong();
+        long version = buffer.getLong();
+        double price = buffer.getDouble();
+        String title = getString(buffer);
+        String author = getString(buffer);
+        String isbn = getString(buffer);
+        return new BookEvent(sequence, timestamp, type, bookId, version, title, author, Double.isNaN(price) ? null : price, isbn);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    /** End of the records known to be on disk; replays bounded by it only see committed events. */
+    long durablePosition() {
+        return durablePosition;
+    }
+
+    long durableSequence() {
+        return durableSequence;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            channel.close();
+        }
+    }
+
+    /** A point in the log: the offset after a record, with that record's sequence and timestamp. */
+    static final class Position {
+
+        static final Position START = new Position(HEADER_SIZE, 0, 0);
+
+        final long offset;
+        final long sequence;
+        final long timestamp;
+
+        Position(long offset, long sequence, long timestamp) {
+            this.offset = offset;
+            this.sequence = sequence;
+            this.timestamp = timestamp;
+        }
+    }
+}
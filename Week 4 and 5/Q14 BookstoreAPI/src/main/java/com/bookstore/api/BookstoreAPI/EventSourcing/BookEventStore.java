@@ -0,0 +1,321 @@
+package com.bookstore.api.BookstoreAPI.EventSourcing;
+
+import com.bookstore.api.BookstoreAPI.Book.BookCatalogReloadedEvent;
+import com.bookstore.api.BookstoreAPI.Isbn.Isbn;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Event-sourced persistence for books, switched on with {@code bookstore.eventsourcing.enabled}.
+ * The event log is then the system of record and the book table behind {@code BookRepository}
+ * is a projection of it: every insert, update and delete Hibernate makes is captured by
+ * {@link BookEventCapture} and appended before the transaction commits, and on startup the
+ * table is rebuilt from the newest snapshot plus the events after it.
+ * <p>
+ * Snapshots are taken in the background once {@code snapshot-every-events} events have been
+ * appended since the last one, by folding the log tail into the previous snapshot; the
+ * newest {@code retained-snapshots} are kept, so {@link #catalogAt} can start close to the
+ * requested time. Book imports insert with plain JDBC, so their rows are logged by
+ * {@link #captureUnloggedBooks} when the import publishes {@link BookCatalogReloadedEvent}.
+ */
+@Service
+public class BookEventStore {
+
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM book";
+    private static final String INSERT_SQL = "INSERT INTO book (id, title, author, price, isbn, canonical_isbn, version) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String RESTART_IDENTITY_SQL = "ALTER TABLE book ALTER COLUMN id RESTART WITH ";
+    private static final String SELECT_AFTER_SQL = "SELECT id, title, author, price, isbn, version FROM book WHERE id > ? ORDER BY id";
+    private static final int BATCH_SIZE = 1000;
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Path directory;
+    private final long snapshotEveryEvents;
+    private final int retainedSnapshots;
+
+    // Ids created through Hibernate since the last import scan, which that scan must not log twice
+    private final Set<Long> createdSinceScan = ConcurrentHashMap.newKeySet();
+    private volatile long scannedUpToId;
+    private volatile long snapshotSequence;
+
+    private final Counter appended;
+    private final Counter compensations;
+    private final Counter compensationFailures;
+    private final Timer commits;
+    private final Timer recoveries;
+
+    private volatile BookEventLog log;
+
+    public BookEventStore(EntityManagerFactory entityManagerFactory,
+                          JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${bookstore.eventsourcing.enabled:false}") boolean enabled,
+                          @Value("${bookstore.eventsourcing.directory:${java.io.tmpdir}/bookstore-events}") String directory,
+                          @Value("${bookstore.eventsourcing.snapshot-every-events:100000}") long snapshotEveryEvents,
+                          @Value("${bookstore.eventsourcing.retained-snapshots:3}") int retainedSnapshots) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.snapshotEveryEvents = snapshotEveryEvents;
+        this.retainedSnapshots = Math.max(1, retainedSnapshots);
+
+        this.appended = meterRegistry.counter("book_events_appended");
+        this.compensations = meterRegistry.counter("book_events_compensations");
+        this.compensationFailures = meterRegistry.counter("book_events_compensation_failures");
+        this.commits = Timer.builder("book_events_commit")
+            .description("Time to append and fsync one transaction's book events")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.recoveries = Timer.builder("book_events_recovery")
+            .description("Time to rebuild the book table from the latest snapshot and the log tail")
+            .register(meterRegistry);
+        Gauge.builder("book_events_since_snapshot", this, store -> store.log != null ? store.log.durableSequence() - store.snapshotSequence : 0)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Runs before the web server starts: recovers the catalog, seeds an empty book table with
+     * it and logs any rows the log has not seen yet (a persistent database predating the log).
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            BookSnapshot.deleteTemporaryFiles(directory);
+            BookEventLog opened = BookEventLog.open(logFile());
+            BookCatalogState state = BookCatalogState.recover(directory, logFile(), Long.MAX_VALUE, Long.MAX_VALUE);
+            opened.resume(state.position());
+            log = opened;
+            snapshotSequence = state.snapshot() != null ? state.snapshot().position.sequence : 0;
+
+            Integer rows = jdbcTemplate.queryForObject(COUNT_SQL, Integer.class);
+            if (rows == null || rows == 0) {
+                seed(state);
+            }
+            scannedUpToId = state.maxBookId();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not recover the book event log in " + directory, e);
+        }
+        recoveries.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+        EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry().getService(EventListenerRegistry.class);
+        BookEventCapture capture = new BookEventCapture(this);
+        listeners.appendListeners(EventType.POST_INSERT, capture);
+        listeners.appendListeners(EventType.POST_UPDATE, capture);
+        listeners.appendListeners(EventType.POST_DELETE, capture);
+        captureUnloggedBooks();
+    }
+
+    private Path logFile() {
+        return directory.resolve("books.events");
+    }
+
+    /** Inserts the recovered books with their ids and versions and moves the id sequence past them. */
+    private void seed(BookCatalogState state) {
+        List<BookEvent> books = new ArrayList<>(state.values());
+        books.sort(Comparator.comparingLong(BookEvent::getBookId));
+        for (int from = 0; from < books.size(); from += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (BookEvent book : books.subList(from, Math.min(from + BATCH_SIZE, books.size()))) {
+                batch.add(new Object[] { book.getBookId(), book.getTitle(), book.getAuthor(), book.getPrice(),
+                    book.getIsbn(), Isbn.canonicalize(book.getIsbn()), book.getVersion() });
+            }
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, batch));
+        }
+        if (!books.isEmpty()) {
+            jdbcTemplate.execute(RESTART_IDENTITY_SQL + (books.get(books.size() - 1).getBookId() + 1));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    void append(List<BookEvent> events) throws IOException {
+        long started = System.nanoTime();
+        log.append(events);
+        commits.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        appended.increment(events.size());
+    }
+
+    void created(long bookId) {
+        if (bookId > scannedUpToId) {
+            createdSinceScan.add(bookId);
+        }
+    }
+
+    /** Appends the events undoing a transaction whose commit failed after its events were logged. */
+    void compensate(List<BookEvent> undo) {
+        if (undo.isEmpty()) {
+            return;
+        }
+        try {
+            log.append(undo);
+            compensations.increment(undo.size());
+        } catch (IOException e) {
+            // The log now holds writes the table does not; counted so it can be alerted on
+            compensationFailures.increment(undo.size());
+        }
+    }
+
+    /**
+     * Logs book rows written behind Hibernate's back. Imports only insert, so these are the
+     * rows with ids above the last scan that Hibernate did not already report as created.
+     */
+    @EventListener(BookCatalogReloadedEvent.class)
+    public synchronized void captureUnloggedBooks() {
+        if (log == null) {
+            return;
+        }
+        long[] maxId = { scannedUpToId };
+        List<BookEvent> batch = new ArrayList<>(BATCH_SIZE);
+        jdbcTemplate.query(SELECT_AFTER_SQL, (RowCallbackHandler) rs -> {
+            long id = rs.getLong(1);
+            maxId[0] = Math.max(maxId[0], id);
+            if (createdSinceScan.contains(id)) {
+                return;
+            }
+            batch.add(BookEvent.pending(BookEvent.Type.CREATED, id, rs.getLong(6),
+                rs.getString(2), rs.getString(3), rs.getObject(4, Double.class), rs.getString(5)));
+            if (batch.size() == BATCH_SIZE) {
+                appendScanned(batch);
+            }
+        }, scannedUpToId);
+        appendScanned(batch);
+        scannedUpToId = maxId[0];
+        createdSinceScan.removeIf(id -> id <= maxId[0]);
+    }
+
+    private void appendScanned(List<BookEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            append(batch);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not log " + batch.size() + " imported books", e);
+        }
+        batch.clear();
+    }
+
+    @Scheduled(fixedDelayString = "${bookstore.eventsourcing.snapshot-check-ms:10000}",
+               initialDelayString = "${bookstore.eventsourcing.snapshot-check-ms:10000}")
+    public void snapshotIfDue() {
+        BookEventLog current = log;
+        if (current != null && current.durableSequence() - snapshotSequence >= snapshotEveryEvents) {
+            snapshot();
+        }
+    }
+
+    /** Writes a snapshot of every event on disk so far and prunes the oldest ones. */
+    public synchronized void snapshot() {
+        BookEventLog current = log;
+        if (current == null) {
+            return;
+        }
+        try {
+            BookCatalogState state = BookCatalogState.recover(directory, current.getFile(), current.durablePosition(), Long.MAX_VALUE);
+            if (state.position().sequence <= snapshotSequence) {
+                return;
+            }
+            BookSnapshot.write(directory, state.position(), state.values());
+            snapshotSequence = state.position().sequence;
+
+            List<Path> snapshots = BookSnapshot.list(directory);
+            for (Path old : snapshots.subList(Math.min(retainedSnapshots, snapshots.size()), snapshots.size())) {
+                Files.deleteIfExists(old);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not snapshot the book event log", e);
+        }
+    }
+
+    /** The catalog as it was at the given time, rebuilt from the nearest earlier snapshot. */
+    public Map<Long, BookEvent> catalogAt(long timestampMillis) {
+        BookEventLog current = requireLog();
+        try {
+            return BookCatalogState.recover(directory, current.getFile(), current.durablePosition(), timestampMillis).books();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not rebuild the catalog as of " + timestampMillis, e);
+        }
+    }
+
+    /**
+     * Hands every committed event after {@code afterSequence} to the consumer in order, e.g. to
+     * build a new read model. Starts from the newest snapshot at or before that sequence when
+     * one exists. Returns the last sequence delivered.
+     */
+    public long replay(long afterSequence, Consumer<BookEvent> consumer) {
+        BookEventLog current = requireLog();
+        try {
+            BookEventLog.Position from = BookEventLog.Position.START;
+            for (Path file : BookSnapshot.list(directory)) {
+                BookSnapshot snapshot = BookSnapshot.open(file);
+                if (snapshot.position.sequence <= afterSequence) {
+                    from = snapshot.position;
+                    break;
+                }
+            }
+            return BookEventLog.replay(current.getFile(), from, current.durablePosition(), Long.MAX_VALUE, event -> {
+                if (event.getSequence() > afterSequence) {
+                    consumer.accept(event);
+                }
+            }).sequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not replay the book event log", e);
+        }
+    }
+
+    private BookEventLog requireLog() {
+        BookEventLog current = log;
+        if (current == null) {
+            throw new IllegalStateException("Event sourcing is disabled; set bookstore.eventsourcing.enabled=true");
+        }
+        return current;
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (log != null) {
+            log.close();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.bookstore.api.BookstoreAPI.EventSourcing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Catalog state as of one log position, so recovery only replays the events after it.
+ * Layout, all big-endian:
+ * <pre>
+ *   header   magic:int format:int count:int reserved:int sequence:long logOffset:long timestamp:long
+ *   books    count x (id:long version:long price:double title author isbn)
+ *   trailer  crc32c of the books section:int
+ * </pre>
+ * Files are named after their sequence and written to a temporary file that is forced and
+ * renamed into place, so a crash leaves either the old set of snapshots or the new one.
+ */
+final class BookSnapshot {
+
+    static final int MAGIC = 0x424B4553; // "BKES"
+    static final int FORMAT = 1;
+
+    private static final String PREFIX = "books-";
+    private static final String SUFFIX = ".snapshot";
+    private static final int NULL_LENGTH = 0xFFFF;
+
+    final Path file;
+    final BookEventLog.Position position;
+    final int count;
+
+    private BookSnapshot(Path file, BookEventLog.Position position, int count) {
+        this.file = file;
+        this.position = position;
+        this.count = count;
+    }
+
+    static BookSnapshot write(Path directory, BookEventLog.Position position, Collection<BookEvent> books) throws IOException {
+        Files.createDirectories(directory);
+        Path target = directory.resolve(String.format("%s%020d%s", PREFIX, position.sequence, SUFFIX));
+        Path temporary = Files.createTempFile(directory, PREFIX, ".tmp");
+        try {
+            CRC32C crc = new CRC32C();
+            try (OutputStream file = Files.newOutputStream(temporary);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT);
+                out.writeInt(books.size());
+                out.writeInt(0);
+                out.writeLong(position.sequence);
+                out.writeLong(position.offset);
+                out.writeLong(position.timestamp);
+                out.flush();
+
+                DataOutputStream body = new DataOutputStream(new CheckedOutputStream(out, crc));
+                for (BookEvent book : books) {
+                    body.writeLong(book.getBookId());
+                    body.writeLong(book.getVersion());
+                    body.writeDouble(book.getPrice() != null ? book.getPrice() : Double.NaN);
+                    writeString(body, book.getTitle());
+                    writeString(body, book.getAuthor());
+                    writeString(body, book.getIsbn());
+                }
+                body.flush();
+                out.writeInt((int) crc.getValue());
+            }
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        return new BookSnapshot(target, position, books.size());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NULL_LENGTH) {
+            bytes = Arrays.copyOf(bytes, NULL_LENGTH - 1);
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    /** Reads just the header. */
+    static BookSnapshot open(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            return readHeader(file, in);
+        }
+    }
+
+    private static BookSnapshot readHeader(Path file, DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT) {
+            throw new IOException(file + " is not a book snapshot");
+        }
+        int count = in.readInt();
+        in.readInt();
+        long sequence = in.readLong();
+        long offset = in.readLong();
+        long timestamp = in.readLong();
+        return new BookSnapshot(file, new BookEventLog.Position(offset, sequence, timestamp), count);
+    }
+
+    /** Hands every book to the state, then checks the trailer; a mismatch means the file is damaged. */
+    void load(BookCatalogState state) throws IOException {
+        try (InputStream file = Files.newInputStream(this.file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file, 1 << 16))) {
+            readHeader(this.file, in);
+            CRC32C crc = new CRC32C();
+            DataInputStream body = new DataInputStream(new CheckedInputStream(in, crc));
+            for (int i = 0; i < count; i++) {
+                long id = body.readLong();
+                long version = body.readLong();
+                double price = body.readDouble();
+                String title = readString(body);
+                String author = readString(body);
+                String isbn = readString(body);
+                state.put(new BookEvent(position.sequence, position.timestamp, BookEvent.Type.CREATED,
+                    id, version, title, author, Double.isNaN(price) ? null : price, isbn));
+            }
+            if (in.readInt() != (int) crc.getValue()) {
+                throw new IOException(this.file + " failed its checksum");
+            }
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readUnsignedShort();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Snapshot files in the directory, newest first. */
+    static List<Path> list(Path directory) throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return snapshots;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(SUFFIX)) {
+                    snapshots.add(file);
+                }
+            }
+        }
+        // Zero-padded sequences sort by name
+        snapshots.sort(Comparator.comparing((Path file) -> file.getFileName().toString()).reversed());
+        return snapshots;
+    }
+
+    /** Removes leftovers of a snapshot write interrupted by a crash; only safe before snapshotting starts. */
+    static void deleteTemporaryFiles(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*.tmp")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
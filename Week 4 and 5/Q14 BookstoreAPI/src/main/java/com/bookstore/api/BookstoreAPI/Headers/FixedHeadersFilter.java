@@ -0,0 +1,52 @@
+package com.bookstore.api.BookstoreAPI.Headers;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Adds the fixed {@code X-Custom-Header} and {@code X-Powered-By} headers to every response
+ * under /books and /customers, so handlers no longer build an {@code HttpHeaders} for them.
+ * Actuator and console responses never carried them and still do not. They are set before the
+ * chain runs, so error responses and filter rejections carry them as well.
+ * <p>
+ * A plain {@link Filter} rather than a {@code OncePerRequestFilter}: setting a header twice
+ * is harmless, and the once-per-request bookkeeping would cost more than the headers.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class FixedHeadersFilter implements Filter {
+
+    public static final String CUSTOM_HEADER = "X-Custom-Header";
+    public static final String CUSTOM_HEADER_VALUE = "CustomValue";
+    public static final String POWERED_BY = "X-Powered-By";
+    public static final String POWERED_BY_VALUE = "Spring Boot";
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        if (request instanceof HttpServletRequest httpRequest && response instanceof HttpServletResponse httpResponse
+                && isApiPath(httpRequest)) {
+            httpResponse.setHeader(CUSTOM_HEADER, CUSTOM_HEADER_VALUE);
+            httpResponse.setHeader(POWERED_BY, POWERED_BY_VALUE);
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static boolean isApiPath(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return isUnder(path, "/books") || isUnder(path, "/customers");
+    }
+
+    private static boolean isUnder(String path, String prefix) {
+        return path.equals(prefix) || path.startsWith(prefix + "/");
+    }
+}
@@ -0,0 +1,65 @@
+package com.bookstore.api.BookstoreAPI.HotKeys;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch over long keys. Estimates never undercount; they overcount by at most
+ * about {@code 2 * total / width} with probability {@code 1 - 2^-depth}. Increments are
+ * lock-free; {@link #halve()} may race with them and lose a few counts, which is fine for a
+ * popularity estimate.
+ */
+class CountMinSketch {
+
+    private final int depth;
+    private final int mask;
+    private final long[] seeds;
+    private final AtomicLongArray cells;
+
+    CountMinSketch(int width, int depth) {
+        if (Integer.bitCount(width) != 1 || depth < 1) {
+            throw new IllegalArgumentException("width must be a power of two and depth positive");
+        }
+        this.depth = depth;
+        this.mask = width - 1;
+        this.seeds = new long[depth];
+        for (int row = 0; row < depth; row++) {
+            seeds[row] = 0x9E3779B97F4A7C15L * (row + 1);
+        }
+        this.cells = new AtomicLongArray(width * depth);
+    }
+
+    /** Adds {@code count} to the key and returns its new estimate. */
+    long add(long key, long count) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, cells.addAndGet(index(row, key), count));
+        }
+        return estimate;
+    }
+
+    long estimate(long key) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, cells.get(index(row, key)));
+        }
+        return estimate;
+    }
+
+    /** Halves every counter, so each past window weighs half as much as the one after it. */
+    void halve() {
+        for (int i = 0; i < cells.length(); i++) {
+            cells.updateAndGet(i, count -> count >> 1);
+        }
+    }
+
+    private int index(int row, long key) {
+        return row * (mask + 1) + (int) (mix(key ^ seeds[row]) & mask);
+    }
+
+    // SplitMix64 finalizer: consecutive ids land in unrelated columns
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
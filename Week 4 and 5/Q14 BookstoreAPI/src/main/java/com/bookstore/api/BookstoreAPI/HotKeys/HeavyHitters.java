@@ -0,0 +1,96 @@
+package com.bookstore.api.BookstoreAPI.HotKeys;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Top-K keys by decayed frequency. Every key is counted in a {@link CountMinSketch}; only
+ * keys whose estimate beats the weakest of the current K candidates take the lock, so the
+ * common case (a cold key, or a key that is already a candidate) is a few atomic increments
+ * and a set lookup.
+ */
+class HeavyHitters {
+
+    private final CountMinSketch sketch;
+    private final int capacity;
+    private final Set<Long> candidates = ConcurrentHashMap.newKeySet();
+    private volatile long admissionThreshold;
+
+    HeavyHitters(int capacity, int width, int depth) {
+        this.capacity = capacity;
+        this.sketch = new CountMinSketch(width, depth);
+    }
+
+    void record(long key) {
+        record(key, 1);
+    }
+
+    void record(long key, long count) {
+        long estimate = sketch.add(key, count);
+        if (estimate <= admissionThreshold || candidates.contains(key)) {
+            return;
+        }
+        synchronized (this) {
+            admit(key, estimate);
+        }
+    }
+
+    /** Candidates by estimate, highest first. */
+    List<HotKey> top(int limit) {
+        List<HotKey> hot = new ArrayList<>(candidates.size());
+        for (Long key : candidates) {
+            long estimate = sketch.estimate(key);
+            if (estimate > 0) {
+                hot.add(new HotKey(key, estimate));
+            }
+        }
+        hot.sort((a, b) -> Long.compare(b.getEstimate(), a.getEstimate()));
+        return hot.size() > limit ? hot.subList(0, limit) : hot;
+    }
+
+    /** Ends the current window: all counts halve and keys that decayed to zero drop out. */
+    synchronized void decay() {
+        sketch.halve();
+        candidates.removeIf(key -> sketch.estimate(key) == 0);
+        admissionThreshold = candidates.size() < capacity ? 0 : weakestEstimate();
+    }
+
+    private void admit(long key, long estimate) {
+        if (candidates.contains(key)) {
+            return;
+        }
+        if (candidates.size() < capacity) {
+            candidates.add(key);
+            if (candidates.size() == capacity) {
+                admissionThreshold = weakestEstimate();
+            }
+            return;
+        }
+        Long weakest = null;
+        long weakestEstimate = Long.MAX_VALUE;
+        for (Long candidate : candidates) {
+            long candidateEstimate = sketch.estimate(candidate);
+            if (candidateEstimate < weakestEstimate) {
+                weakest = candidate;
+                weakestEstimate = candidateEstimate;
+            }
+        }
+        if (estimate > weakestEstimate) {
+            candidates.remove(weakest);
+            candidates.add(key);
+            weakestEstimate = weakestEstimate();
+        }
+        // Candidates only grow between decays, so this stays a valid lower bound
+        admissionThreshold = weakestEstimate;
+    }
+
+    private long weakestEstimate() {
+        long weakest = Long.MAX_VALUE;
+        for (Long candidate : candidates) {
+            weakest = Math.min(weakest, sketch.estimate(candidate));
+        }
+        return candidates.isEmpty() ? 0 : weakest;
+    }
+}
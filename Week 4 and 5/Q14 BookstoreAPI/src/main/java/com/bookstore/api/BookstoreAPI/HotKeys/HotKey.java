@@ -0,0 +1,21 @@
+package com.bookstore.api.BookstoreAPI.HotKeys;
+
+public final class HotKey {
+
+    private final long id;
+    private final long estimate;
+
+    HotKey(long id, long estimate) {
+        this.id = id;
+        this.estimate = estimate;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /** Decayed request count; an upper bound, see {@link CountMinSketch}. */
+    public long getEstimate() {
+        return estimate;
+    }
+}
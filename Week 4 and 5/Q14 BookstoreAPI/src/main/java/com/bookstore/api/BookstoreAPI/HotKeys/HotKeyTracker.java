@@ -0,0 +1,118 @@
+package com.bookstore.api.BookstoreAPI.HotKeys;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks the most requested book and customer ids. Counts decay by half at the end of each
+ * window, so the ranking follows current traffic.
+ * <p>
+ * If {@code bookstore.hotkeys.file} is set, the top ids are written to it at each window end
+ * and on shutdown, and the next startup seeds the trackers from it so the ranking survives
+ * a restart.
+ */
+@Service
+public class HotKeyTracker {
+
+    static final String BOOKS = "books";
+    static final String CUSTOMERS = "customers";
+
+    private final boolean enabled;
+    private final int saved;
+    private final Path file;
+    private final Map<String, HeavyHitters> trackers;
+
+    public HotKeyTracker(@Value("${bookstore.hotkeys.enabled:true}") boolean enabled,
+                         @Value("${bookstore.hotkeys.top-k:100}") int topK,
+                         @Value("${bookstore.hotkeys.saved:100}") int saved,
+                         @Value("${bookstore.hotkeys.sketch-width:4096}") int sketchWidth,
+                         @Value("${bookstore.hotkeys.sketch-depth:4}") int sketchDepth,
+                         @Value("${bookstore.hotkeys.file:}") String file) {
+        this.enabled = enabled;
+        this.saved = Math.min(saved, topK);
+        this.file = file.isBlank() ? null : Path.of(file);
+        this.trackers = Map.of(
+            BOOKS, new HeavyHitters(topK, sketchWidth, sketchDepth),
+            CUSTOMERS, new HeavyHitters(topK, sketchWidth, sketchDepth));
+    }
+
+    public void recordBook(long id) {
+        if (enabled) {
+            trackers.get(BOOKS).record(id);
+        }
+    }
+
+    public void recordCustomer(long id) {
+        if (enabled) {
+            trackers.get(CUSTOMERS).record(id);
+        }
+    }
+
+    public List<HotKey> top(String type, int limit) {
+        HeavyHitters tracker = trackers.get(type);
+        return tracker != null ? tracker.top(limit) : null;
+    }
+
+    @Scheduled(fixedDelayString = "${bookstore.hotkeys.window-ms:60000}",
+               initialDelayString = "${bookstore.hotkeys.window-ms:60000}")
+    public void endWindow() {
+        if (!enabled) {
+            return;
+        }
+        save();
+        trackers.values().forEach(HeavyHitters::decay);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled || file == null || !Files.isReadable(file)) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] fields = line.split(" ");
+                HeavyHitters tracker = fields.length == 3 ? trackers.get(fields[0]) : null;
+                if (tracker != null) {
+                    tracker.record(Long.parseLong(fields[1]), Long.parseLong(fields[2]));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // An unreadable file only costs a cold ranking
+        }
+    }
+
+    @PreDestroy
+    public void save() {
+        if (!enabled || file == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), "hotkeys", ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, HeavyHitters> tracker : trackers.entrySet()) {
+                    for (HotKey hotKey : tracker.getValue().top(saved)) {
+                        writer.write(tracker.getKey() + " " + hotKey.getId() + " " + hotKey.getEstimate());
+                        writer.newLine();
+                    }
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Only the next startup's ranking depends on this file
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.bookstore.api.BookstoreAPI.HotKeys;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Most requested book and customer ids at /actuator/hotkeys, or one type at
+ * /actuator/hotkeys/books and /actuator/hotkeys/customers.
+ */
+@Component
+@Endpoint(id = "hotkeys")
+public class HotKeysEndpoint {
+
+    private final HotKeyTracker hotKeyTracker;
+    private final int limit;
+
+    public HotKeysEndpoint(HotKeyTracker hotKeyTracker, @Value("${bookstore.hotkeys.top-k:100}") int limit) {
+        this.hotKeyTracker = hotKeyTracker;
+        this.limit = limit;
+    }
+
+    @ReadOperation
+    public Map<String, Object> hotKeys() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put(HotKeyTracker.BOOKS, hotKeyTracker.top(HotKeyTracker.BOOKS, limit));
+        result.put(HotKeyTracker.CUSTOMERS, hotKeyTracker.top(HotKeyTracker.CUSTOMERS, limit));
+        return result;
+    }
+
+    @ReadOperation
+    public List<HotKey> hotKeys(@Selector String type) {
+        return hotKeyTracker.top(type, limit);
+    }
+}
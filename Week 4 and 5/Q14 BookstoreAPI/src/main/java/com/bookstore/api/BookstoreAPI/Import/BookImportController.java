@@ -0,0 +1,63 @@
+package com.bookstore.api.BookstoreAPI.Import;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+@RestController
+@RequestMapping("/books/import")
+public class BookImportController {
+
+    private final BookImportService bookImportService;
+
+    public BookImportController(BookImportService bookImportService) {
+        this.bookImportService = bookImportService;
+    }
+
+    @PostMapping(produces = { "application/json", "application/xml" })
+    public ResponseEntity<BookImportJob> importBooks(@RequestParam(required = false) String format, HttpServletRequest request) throws IOException {
+        BookImportFormat importFormat = format != null
+            ? BookImportFormat.fromName(format)
+            : formatFromContentType(request.getContentType());
+
+        // The body is spooled to disk first so the import can memory-map it
+        Path file = Files.createTempFile("book-import-", "." + importFormat.name().toLowerCase());
+        try (InputStream body = request.getInputStream()) {
+            Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        BookImportJob job;
+        try {
+            job = bookImportService.start(file, importFormat);
+        } catch (RuntimeException | IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        return ResponseEntity.accepted().location(URI.create("/books/import/" + job.getId())).body(job);
+    }
+
+    @GetMapping(value = "/{jobId}", produces = { "application/json", "application/xml" })
+    public ResponseEntity<BookImportJob> getImportJob(@PathVariable String jobId) {
+        BookImportJob job = bookImportService.getJob(jobId);
+
+        return ResponseEntity.ok(job);
+    }
+
+    private static BookImportFormat formatFromContentType(String contentType) {
+        if (contentType != null && contentType.toLowerCase().contains("json")) {
+            return BookImportFormat.NDJSON;
+        }
+        return BookImportFormat.CSV;
+    }
+}
@@ -0,0 +1,23 @@
+package com.bookstore.api.BookstoreAPI.Import;
+
+import com.bookstore.api.BookstoreAPI.ErrorHandling.ValidationException;
+
+public enum BookImportFormat {
+    CSV,
+    NDJSON;
+
+    public static BookImportFormat fromName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return CSV;
+        }
+        switch (name.trim().toLowerCase()) {
+            case "csv":
+                return CSV;
+            case "ndjson":
+            case "jsonl":
+                return NDJSON;
+            default:
+                throw new ValidationException("Unsupported import format " + name);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.bookstore.api.BookstoreAPI.Import;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a single bulk import. Counters are updated by the import workers and read
+ * by the status endpoint, so everything here is safe to access concurrently.
+ */
+public class BookImportJob {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private final String id;
+    private final BookImportFormat format;
+    private final long totalBytes;
+    private final int maxReportedErrors;
+    private final Instant startedAt = Instant.now();
+
+    private final AtomicLong bytesProcessed = new AtomicLong();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+    private final AtomicInteger reportedErrors = new AtomicInteger();
+    private final Queue<RowError> errors = new ConcurrentLinkedQueue<>();
+
+    private volatile Status status = Status.RUNNING;
+    private volatile String failureMessage;
+    private volatile Instant finishedAt;
+
+    public BookImportJob(String id, BookImportFormat format, long totalBytes, int maxReportedErrors) {
+        this.id = id;
+        this.format = format;
+        this.totalBytes = totalBytes;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    void addBytesProcessed(long bytes) {
+        bytesProcessed.addAndGet(bytes);
+    }
+
+    void addRowsRead(long rows) {
+        rowsRead.addAndGet(rows);
+    }
+
+    void addRowsImported(long rows) {
+        rowsImported.addAndGet(rows);
+    }
+
+    void reject(long offset, String message) {
+        rowsRejected.incrementAndGet();
+        // Only the first errors are kept so a completely broken file cannot exhaust the heap
+        if (reportedErrors.getAndIncrement() < maxReportedErrors) {
+            errors.add(new RowError(offset, message));
+        }
+    }
+
+    void complete() {
+        if (status == Status.RUNNING) {
+            finishedAt = Instant.now();
+            status = Status.COMPLETED;
+        }
+    }
+
+    void fail(String message) {
+        failureMessage = message;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public BookImportFormat getFormat() {
+        return format;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getFailureMessage() {
+        return failureMessage;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public long getBytesProcessed() {
+        return bytesProcessed.get();
+    }
+
+    public double getPercentComplete() {
+        return totalBytes == 0 ? 100.0 : Math.min(100.0, bytesProcessed.get() * 100.0 / totalBytes);
+    }
+
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+
+    public long getRowsImported() {
+        return rowsImported.get();
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected.get();
+    }
+
+    public long getRowsPerSecond() {
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+        return rowsRead.get() * 1000 / millis;
+    }
+
+    public List<RowError> getErrors() {
+        return new ArrayList<>(errors);
+    }
+
+    public static class RowError {
+        private final long offset;
+        private final String message;
+
+        public RowError(long offset, String message) {
+            this.offset = offset;
+            this.message = message;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
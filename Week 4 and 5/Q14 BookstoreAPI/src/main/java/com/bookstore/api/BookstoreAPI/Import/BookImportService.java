@@ -0,0 +1,403 @@
+package com.bookstore.api.BookstoreAPI.Import;
+
+import com.bookstore.api.BookstoreAPI.Audit.AuditJournal;
+import com.bookstore.api.BookstoreAPI.Audit.AuditRecord;
+import com.bookstore.api.BookstoreAPI.Audit.AuditRecord.Action;
+import com.bookstore.api.BookstoreAPI.Audit.AuditRecord.EntityType;
+import com.bookstore.api.BookstoreAPI.Book.Book;
+import com.bookstore.api.BookstoreAPI.Book.BookCatalogReloadedEvent;
+import com.bookstore.api.BookstoreAPI.ErrorHandling.ResourceNotFoundException;
+import com.bookstore.api.BookstoreAPI.ErrorHandling.ValidationException;
+import com.bookstore.api.BookstoreAPI.Isbn.Isbn;
+import com.bookstore.api.BookstoreAPI.Isbn.IsbnIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Bulk loads books from CSV or NDJSON files. The file is cut into newline-aligned chunks,
+ * each chunk is memory-mapped and parsed on a dedicated fork/join pool, and valid rows are
+ * written with batched JDBC inserts. Invalid rows are recorded on the job and skipped. The
+ * inserts bypass Hibernate, so each batch is recorded in the audit journal before it commits.
+ */
+@Service
+public class BookImportService {
+
+    static final String INSERT_SQL = "INSERT INTO book (title, author, price, isbn, canonical_isbn, version) VALUES (?, ?, ?, ?, ?, 0)";
+    static final String ISBN_EXISTS_SQL = "SELECT COUNT(*) FROM book WHERE canonical_isbn = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IsbnIndex isbnIndex;
+    private final AuditJournal auditJournal;
+    private final ForkJoinPool importPool;
+    private final int batchSize;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+    private final Duration jobRetention;
+    private final Map<String, BookImportJob> jobs = new ConcurrentHashMap<>();
+
+    public BookImportService(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             EntityManagerFactory entityManagerFactory,
+                             ApplicationEventPublisher eventPublisher,
+                             IsbnIndex isbnIndex,
+                             AuditJournal auditJournal,
+                             @Value("${bookstore.import.parallelism:0}") int parallelism,
+                             @Value("${bookstore.import.batch-size:1000}") int batchSize,
+                             @Value("${bookstore.import.chunk-size:4194304}") int chunkSize,
+                             @Value("${bookstore.import.max-reported-errors:1000}") int maxReportedErrors,
+                             @Value("${bookstore.import.job-retention-ms:3600000}") long jobRetentionMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+        this.isbnIndex = isbnIndex;
+        this.auditJournal = auditJournal;
+        this.importPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.batchSize = batchSize;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.jobRetention = Duration.ofMillis(jobRetentionMillis);
+    }
+
+    /**
+     * Starts importing {@code file} in the background and returns immediately. The file is
+     * deleted once the import has finished.
+     */
+    public BookImportJob start(Path file, BookImportFormat format) throws IOException {
+        long size = Files.size(file);
+        BookRecordParser parser;
+        long dataStart = 0;
+        if (format == BookImportFormat.CSV) {
+            byte[] header = readFirstLine(file);
+            dataStart = header.length;
+            parser = BookRecordParser.csv(new String(header, StandardCharsets.UTF_8).trim());
+        } else {
+            parser = BookRecordParser.ndjson(objectMapper.reader());
+        }
+
+        BookImportJob job = new BookImportJob(UUID.randomUUID().toString(), format, size, maxReportedErrors);
+        job.addBytesProcessed(dataStart);
+        evictFinishedJobs();
+        jobs.put(job.getId(), job);
+
+        long firstByte = dataStart;
+        importPool.execute(() -> run(job, file, parser, firstByte));
+        return job;
+    }
+
+    public BookImportJob getJob(String id) {
+        evictFinishedJobs();
+        BookImportJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Import job not found with id " + id);
+        }
+        return job;
+    }
+
+    /** Forgets jobs that finished more than {@code job-retention-ms} ago; running jobs are kept. */
+    private void evictFinishedJobs() {
+        Instant cutoff = Instant.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importPool.shutdownNow();
+    }
+
+    private void run(BookImportJob job, Path file, BookRecordParser parser, long dataStart) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<long[]> chunks = split(channel, dataStart);
+            new ChunkTask(job, channel, parser, chunks, 0, chunks.size()).invoke();
+            job.complete();
+        } catch (Exception e) {
+            job.fail(NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        } finally {
+            evictCaches();
+            eventPublisher.publishEvent(new BookCatalogReloadedEvent());
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // The temp file is left for the OS to clean up
+            }
+        }
+    }
+
+    /**
+     * Rows are inserted behind Hibernate's back, so cached book entities and finder
+     * results can no longer be trusted once an import has touched the table.
+     */
+    private void evictCaches() {
+        entityManagerFactory.getCache().evict(Book.class);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+
+    /**
+     * Cuts the file into ranges of roughly {@code chunkSize} bytes, each ending just after a
+     * newline so that no record straddles two chunks.
+     */
+    private List<long[]> split(FileChannel channel, long dataStart) throws IOException {
+        long size = channel.size();
+        List<long[]> chunks = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        long start = dataStart;
+        while (start < size) {
+            long end = Math.min(start + chunkSize, size);
+            while (end < size) {
+                probe.clear();
+                int read = channel.read(probe, end);
+                if (read <= 0) {
+                    end = size;
+                    break;
+                }
+                int newline = -1;
+                for (int i = 0; i < read; i++) {
+                    if (probe.get(i) == '\n') {
+                        newline = i;
+                        break;
+                    }
+                }
+                if (newline >= 0) {
+                    end += newline + 1;
+                    break;
+                }
+                end += read;
+            }
+            chunks.add(new long[] { start, Math.min(end, size) });
+            start = end;
+        }
+        return chunks;
+    }
+
+    private void importChunk(BookImportJob job, FileChannel channel, BookRecordParser parser, long start, long end) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        int limit = buffer.limit();
+        byte[] line = new byte[512];
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        long[] offsets = new long[batchSize];
+        long rows = 0;
+        int lineStart = 0;
+        int flushedUpTo = 0;
+
+        for (int i = 0; i <= limit; i++) {
+            if (i < limit && buffer.get(i) != '\n') {
+                continue;
+            }
+            int length = i - lineStart;
+            if (length > 0 && buffer.get(lineStart + length - 1) == '\r') {
+                length--;
+            }
+            if (length > 0) {
+                if (line.length < length) {
+                    line = new byte[Math.max(length, line.length * 2)];
+                }
+                buffer.get(lineStart, line, 0, length);
+                rows++;
+                long offset = start + lineStart;
+                try {
+                    Book book = parser.parse(line, length);
+                    validate(book);
+                    String canonicalIsbn = Isbn.canonicalize(book.getIsbn());
+                    rejectKnownIsbn(canonicalIsbn);
+                    offsets[batch.size()] = offset;
+                    batch.add(new Object[] { book.getTitle(), book.getAuthor(), book.getPrice(), book.getIsbn(), canonicalIsbn });
+                } catch (ValidationException e) {
+                    job.reject(offset, e.getMessage());
+                }
+                if (batch.size() == batchSize) {
+                    flush(job, batch, offsets);
+                    job.addRowsRead(rows);
+                    job.addBytesProcessed(i - flushedUpTo);
+                    rows = 0;
+                    flushedUpTo = i;
+                }
+            }
+            lineStart = i + 1;
+        }
+        flush(job, batch, offsets);
+        job.addRowsRead(rows);
+        job.addBytesProcessed(limit - flushedUpTo);
+    }
+
+    private void validate(Book book) {
+        Set<ConstraintViolation<Book>> violations = validator.validate(book);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<Book> violation = violations.iterator().next();
+            throw new ValidationException(violation.getPropertyPath() + " " + violation.getMessage());
+        }
+        if (book.getPrice() <= 0) {
+            throw new ValidationException("Price must be greater than zero");
+        }
+    }
+
+    /**
+     * Most imported ISBNs are new, and the Bloom filter proves that without a query. Only
+     * possible duplicates are checked against the table; duplicates within the same file are
+     * caught by the unique index when the batch is written.
+     */
+    private void rejectKnownIsbn(String canonicalIsbn) {
+        if (isbnIndex.mightExist(canonicalIsbn)) {
+            Integer matches = jdbcTemplate.queryForObject(ISBN_EXISTS_SQL, Integer.class, canonicalIsbn);
+            if (matches != null && matches > 0) {
+                throw new ValidationException("Book already exists with ISBN " + canonicalIsbn);
+            }
+        }
+    }
+
+    private void flush(BookImportJob job, List<Object[]> batch, long[] offsets) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            insert(batch);
+            job.addRowsImported(batch.size());
+            for (Object[] row : batch) {
+                isbnIndex.add((String) row[4]);
+            }
+        } catch (DataAccessException batchError) {
+            // The batch was rolled back; retry row by row so one bad row only rejects itself
+            for (int i = 0; i < batch.size(); i++) {
+                try {
+                    insert(Collections.singletonList(batch.get(i)));
+                    job.addRowsImported(1);
+                    isbnIndex.add((String) batch.get(i)[4]);
+                } catch (DataAccessException rowError) {
+                    job.reject(offsets[i], NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                }
+            }
+        }
+        batch.clear();
+    }
+
+    /** Inserts the rows in one transaction, reading back their ids for the audit journal when it is on. */
+    private void insert(List<Object[]> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!auditJournal.isEnabled()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+                return;
+            }
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, new String[] { "id" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        new ArgumentPreparedStatementSetter(rows.get(i)).setValues(statement);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                }, keys);
+            List<Map<String, Object>> ids = keys.getKeyList();
+            List<AuditRecord> records = new ArrayList<>(rows.size());
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < rows.size(); i++) {
+                Object[] row = rows.get(i);
+                long id = ((Number) ids.get(i).values().iterator().next()).longValue();
+                records.add(new AuditRecord(0, now, EntityType.BOOK, id, Action.CREATED,
+                    (String) row[0], (String) row[1], row[2].toString(), (String) row[3]));
+            }
+            auditJournal.appendInTransaction(records);
+        });
+    }
+
+    private static byte[] readFirstLine(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            int read = channel.read(buffer, 0);
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    byte[] header = new byte[i + 1];
+                    buffer.get(0, header);
+                    return header;
+                }
+            }
+            throw new ValidationException("CSV import must start with a header line");
+        }
+    }
+
+    private class ChunkTask extends RecursiveAction {
+        private final BookImportJob job;
+        private final FileChannel channel;
+        private final BookRecordParser parser;
+        private final List<long[]> chunks;
+        private final int from;
+        private final int to;
+
+        ChunkTask(BookImportJob job, FileChannel channel, BookRecordParser parser, List<long[]> chunks, int from, int to) {
+            this.job = job;
+            this.channel = channel;
+            this.parser = parser;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ChunkTask(job, channel, parser, chunks, from, middle),
+                          new ChunkTask(job, channel, parser, chunks, middle, to));
+                return;
+            }
+            if (to == from) {
+                return;
+            }
+            long[] chunk = chunks.get(from);
+            try {
+                importChunk(job, channel, parser, chunk[0], chunk[1]);
+            } catch (IOException e) {
+                job.fail(e.getMessage());
+            }
+        }
+    }
+}
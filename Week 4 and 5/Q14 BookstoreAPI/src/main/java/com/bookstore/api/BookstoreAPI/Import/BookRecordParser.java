@@ -0,0 +1,140 @@
+package com.bookstore.api.BookstoreAPI.Import;
+
+import com.bookstore.api.BookstoreAPI.Book.Book;
+import com.bookstore.api.BookstoreAPI.Book.BookDTO;
+import com.bookstore.api.BookstoreAPI.ErrorHandling.ValidationException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns one line of an import file into a {@link Book}. Instances are immutable once
+ * the CSV header has been read, so a single parser is shared by all import workers.
+ */
+public class BookRecordParser {
+
+    private static final String[] COLUMNS = { "title", "author", "price", "isbn" };
+
+    private final BookImportFormat format;
+    private final ObjectReader bookReader;
+    private final int[] columnIndexes;
+
+    private BookRecordParser(BookImportFormat format, ObjectReader bookReader, int[] columnIndexes) {
+        this.format = format;
+        this.bookReader = bookReader;
+        this.columnIndexes = columnIndexes;
+    }
+
+    public static BookRecordParser ndjson(ObjectReader bookReader) {
+        return new BookRecordParser(BookImportFormat.NDJSON, bookReader.forType(BookDTO.class), null);
+    }
+
+    public static BookRecordParser csv(String headerLine) {
+        List<String> header = splitCsv(headerLine);
+        int[] indexes = new int[COLUMNS.length];
+        for (int i = 0; i < COLUMNS.length; i++) {
+            indexes[i] = -1;
+            for (int j = 0; j < header.size(); j++) {
+                if (header.get(j).trim().equalsIgnoreCase(COLUMNS[i])) {
+                    indexes[i] = j;
+                    break;
+                }
+            }
+            if (indexes[i] < 0) {
+                throw new ValidationException("CSV header is missing column " + COLUMNS[i]);
+            }
+        }
+        return new BookRecordParser(BookImportFormat.CSV, null, indexes);
+    }
+
+    public BookImportFormat getFormat() {
+        return format;
+    }
+
+    public Book parse(byte[] line, int length) {
+        if (format == BookImportFormat.NDJSON) {
+            return parseJson(line, length);
+        }
+        return parseCsv(new String(line, 0, length, StandardCharsets.UTF_8));
+    }
+
+    private Book parseJson(byte[] line, int length) {
+        BookDTO dto;
+        try {
+            dto = bookReader.readValue(line, 0, length);
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("Malformed JSON record: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            // Reading from a byte array does no I/O
+            throw new UncheckedIOException(e);
+        }
+        return new Book(dto.getTitle(), dto.getAuthor(), dto.getPrice(), dto.getIsbn());
+    }
+
+    private Book parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        return new Book(
+            field(fields, columnIndexes[0]),
+            field(fields, columnIndexes[1]),
+            parsePrice(field(fields, columnIndexes[2])),
+            field(fields, columnIndexes[3])
+        );
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index) : null;
+    }
+
+    private static Double parsePrice(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Price is not a number: " + value);
+        }
+    }
+
+    /**
+     * Splits an RFC 4180 style line. Quoted fields may contain commas and doubled quotes;
+     * line breaks inside quotes are not supported because the importer splits on newlines.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(COLUMNS.length);
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new ValidationException("Unterminated quoted field");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,53 @@
+package com.bookstore.api.BookstoreAPI.Isbn;
+
+/**
+ * ISBN normalization. ISBN-10 and ISBN-13 spellings of the same book share one canonical
+ * key: the ISBN-13 digits without separators.
+ */
+public final class Isbn {
+
+    private Isbn() {
+    }
+
+    /**
+     * Strips hyphens and spaces and converts ISBN-10 to ISBN-13 ("0-306-40615-2" and
+     * "978-0-306-40615-7" both become "9780306406157"). Check digits are not validated, so
+     * anything that is not ten or thirteen digits is returned cleaned but otherwise unchanged.
+     */
+    public static String canonicalize(String isbn) {
+        if (isbn == null) {
+            return null;
+        }
+        StringBuilder cleaned = new StringBuilder(13);
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c == '-' || Character.isWhitespace(c)) {
+                continue;
+            }
+            cleaned.append(Character.toUpperCase(c));
+        }
+        if (cleaned.length() == 10 && allDigits(cleaned, 9)) {
+            return toIsbn13(cleaned.substring(0, 9));
+        }
+        return cleaned.toString();
+    }
+
+    private static String toIsbn13(String isbn10WithoutCheckDigit) {
+        String body = "978" + isbn10WithoutCheckDigit;
+        int sum = 0;
+        for (int i = 0; i < body.length(); i++) {
+            int digit = body.charAt(i) - '0';
+            sum += (i % 2 == 0) ? digit : digit * 3;
+        }
+        return body + (10 - sum % 10) % 10;
+    }
+
+    private static boolean allDigits(CharSequence value, int length) {
+        for (int i = 0; i < length; i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
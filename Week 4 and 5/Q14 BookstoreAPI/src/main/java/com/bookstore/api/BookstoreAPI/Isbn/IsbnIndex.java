@@ -0,0 +1,80 @@
+package com.bookstore.api.BookstoreAPI.Isbn;
+
+import com.bookstore.api.BookstoreAPI.Book.BookCatalogReloadedEvent;
+import com.bookstore.api.BookstoreAPI.Book.BookChangedEvent;
+import com.bookstore.api.BookstoreAPI.Book.BookTableScanner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Bloom filter of every canonical ISBN in the catalog. A negative answer means the ISBN is
+ * certainly new, so book creation and bulk imports only probe the database on a possible
+ * hit. The unique index on {@code canonical_isbn} remains the final guard against races.
+ */
+@Service
+public class IsbnIndex {
+
+    private final BookTableScanner bookTableScanner;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter rebuilding;
+    private volatile boolean ready;
+
+    public IsbnIndex(BookTableScanner bookTableScanner,
+                     @Value("${bookstore.isbn.bloom.expected-insertions:10000000}") long expectedInsertions,
+                     @Value("${bookstore.isbn.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.bookTableScanner = bookTableScanner;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    /** {@code false} only if no book with this canonical ISBN exists. */
+    public boolean mightExist(String canonicalIsbn) {
+        // Until the first scan has finished, every ISBN has to be checked against the database
+        return !ready || filter.mightContain(canonicalIsbn);
+    }
+
+    public void add(String canonicalIsbn) {
+        if (canonicalIsbn == null) {
+            return;
+        }
+        // Read the rebuild target first: if it is still null, the write committed before the
+        // rebuild scan started and the scan will pick it up
+        BloomFilter next = rebuilding;
+        filter.put(canonicalIsbn);
+        if (next != null) {
+            next.put(canonicalIsbn);
+        }
+    }
+
+    @EventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getCurrent() != null) {
+            add(Isbn.canonicalize(event.getCurrent().getIsbn()));
+        }
+    }
+
+    /** Rebuilds from the book table, which also clears bits left behind by deleted books. */
+    @EventListener({ ApplicationReadyEvent.class, BookCatalogReloadedEvent.class })
+    public synchronized void rebuild() {
+        BloomFilter next = new BloomFilter(expectedInsertions, falsePositiveRate);
+        rebuilding = next;
+        try {
+            bookTableScanner.forEachBook(book -> {
+                String canonicalIsbn = Isbn.canonicalize(book.getIsbn());
+                if (canonicalIsbn != null) {
+                    next.put(canonicalIsbn);
+                }
+            });
+            filter = next;
+            ready = true;
+        } finally {
+            rebuilding = null;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.bookstore.api.BookstoreAPI.Metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code request_allocated_bytes} summaries, tagged with the handler method (e.g.
+ * {@code CustomerController.getCustomerById}), HTTP method and URI pattern, so allocation
+ * can be graphed next to the {@code @Timed} latency of the same handler. Fed by
+ * {@link AllocationMetricsFilter} for requests served on the container thread and by
+ * {@code RequestExecutors} for handlers run on its executors.
+ */
+@Component
+public class AllocationMetrics {
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final ConcurrentHashMap<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public AllocationMetrics(MeterRegistry meterRegistry,
+                             @Value("${bookstore.allocation-metrics.enabled:true}") boolean enabled) {
+        this.meterRegistry = meterRegistry;
+        this.threads = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean
+            && threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled()
+            ? threadMXBean : null;
+        this.enabled = enabled && threads != null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Bytes allocated by the calling thread so far; only meaningful when enabled. */
+    public long currentThreadAllocatedBytes() {
+        return threads.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * The summary for the handler method that matched {@code request}, or {@code null} if
+     * disabled or no handler method matched. Resolve it while the request is still in use;
+     * once an async request completes the container may recycle it.
+     */
+    public DistributionSummary summaryFor(HttpServletRequest request) {
+        if (!enabled || !(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler)) {
+            return null;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String name = handler.getBeanType().getSimpleName() + "." + handler.getMethod().getName();
+        String method = request.getMethod();
+        return summaries.computeIfAbsent(name + ' ' + method + ' ' + uri, key -> DistributionSummary.builder("request_allocated_bytes")
+            .description("Bytes allocated while serving the request")
+            .baseUnit("bytes")
+            .tag("handler", name)
+            .tag("method", method)
+            .tag("uri", uri)
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry));
+    }
+}
@@ -0,0 +1,53 @@
+package com.bookstore.api.BookstoreAPI.Metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Records the bytes each request allocates on its thread in {@code request_allocated_bytes}
+ * (see {@link AllocationMetrics}).
+ * <p>
+ * Requests that go async are skipped here: their handler runs on a {@code RequestExecutors}
+ * thread, which records its own allocation. Requests no handler method served are skipped too.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class AllocationMetricsFilter extends OncePerRequestFilter {
+
+    private final AllocationMetrics allocationMetrics;
+
+    public AllocationMetricsFilter(AllocationMetrics allocationMetrics) {
+        this.allocationMetrics = allocationMetrics;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !allocationMetrics.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long before = allocationMetrics.currentThreadAllocatedBytes();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long allocated = allocationMetrics.currentThreadAllocatedBytes() - before;
+            if (!request.isAsyncStarted()) {
+                DistributionSummary summary = allocationMetrics.summaryFor(request);
+                if (summary != null) {
+                    summary.record(allocated);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.bookstore.api.BookstoreAPI.Patch;
+
+import com.bookstore.api.BookstoreAPI.ErrorHandling.PatchConflictException;
+import com.bookstore.api.BookstoreAPI.ErrorHandling.ValidationException;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.http.MediaType;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies JSON Merge Patch (RFC 7396) and JSON Patch (RFC 6902) documents to Jackson trees.
+ * Malformed patches are validation errors (400); patches that do not fit the current
+ * document, such as a failed {@code test} or a path that does not exist, are conflicts (409).
+ */
+public final class JsonPatches {
+
+    public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    public static final String JSON_PATCH_JSON_VALUE = "application/json-patch+json";
+
+    private static final MediaType JSON_PATCH_JSON = MediaType.parseMediaType(JSON_PATCH_JSON_VALUE);
+
+    // 10 and 10.0 are the same price; JsonNode.equals alone would treat them as different
+    private static final Comparator<JsonNode> NUMBERS_BY_VALUE = (a, b) -> {
+        if (a.isNumber() && b.isNumber()) {
+            return a.decimalValue().compareTo(b.decimalValue());
+        }
+        return a.equals(b) ? 0 : 1;
+    };
+
+    private JsonPatches() {
+    }
+
+    /** Applies {@code patch} to a copy of {@code target}, picking the format from the content type. */
+    public static JsonNode apply(String contentType, JsonNode target, JsonNode patch) {
+        if (contentType != null && MediaType.parseMediaType(contentType).isCompatibleWith(JSON_PATCH_JSON)) {
+            return jsonPatch(target, patch);
+        }
+        return mergePatch(target, patch);
+    }
+
+    /** Top-level properties of two objects whose values differ, including added and removed ones. */
+    public static Set<String> changedFields(JsonNode before, JsonNode after) {
+        Set<String> names = new LinkedHashSet<>();
+        before.fieldNames().forEachRemaining(names::add);
+        after.fieldNames().forEachRemaining(names::add);
+        names.removeIf(name -> valueOf(before, name).equals(NUMBERS_BY_VALUE, valueOf(after, name)));
+        return names;
+    }
+
+    static JsonNode mergePatch(JsonNode target, JsonNode patch) {
+        if (!patch.isObject()) {
+            return patch.deepCopy();
+        }
+        ObjectNode result = target != null && target.isObject()
+            ? ((ObjectNode) target).deepCopy()
+            : JsonNodeFactory.instance.objectNode();
+        Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getValue().isNull()) {
+                result.remove(field.getKey());
+            } else {
+                result.set(field.getKey(), mergePatch(result.get(field.getKey()), field.getValue()));
+            }
+        }
+        return result;
+    }
+
+    static JsonNode jsonPatch(JsonNode target, JsonNode operations) {
+        if (!operations.isArray()) {
+            throw new ValidationException("A JSON Patch document must be an array of operations");
+        }
+        JsonNode result = target.deepCopy();
+        for (JsonNode operation : operations) {
+            String op = member(operation, "op").asText();
+            String path = member(operation, "path").asText();
+            switch (op) {
+                case "add" -> result = add(result, path, member(operation, "value"));
+                case "remove" -> result = remove(result, path);
+                case "replace" -> {
+                    // The root always exists, and replacing it swaps the whole document (RFC 6902, 4.3)
+                    if (path.isEmpty()) {
+                        result = member(operation, "value").deepCopy();
+                    } else {
+                        get(result, path);
+                        result = add(remove(result, path), path, member(operation, "value"));
+                    }
+                }
+                case "move" -> {
+                    String from = member(operation, "from").asText();
+                    JsonNode value = get(result, from);
+                    result = add(remove(result, from), path, value);
+                }
+                case "copy" -> result = add(result, path, get(result, member(operation, "from").asText()).deepCopy());
+                case "test" -> {
+                    if (!get(result, path).equals(NUMBERS_BY_VALUE, member(operation, "value"))) {
+                        throw new PatchConflictException("Test failed for " + path);
+                    }
+                }
+                default -> throw new ValidationException("Unsupported JSON Patch operation " + op);
+            }
+        }
+        return result;
+    }
+
+    private static JsonNode add(JsonNode root, String path, JsonNode value) {
+        if (path.isEmpty()) {
+            return value.deepCopy();
+        }
+        JsonPointer pointer = pointer(path);
+        JsonNode parent = root.at(pointer.head());
+        String key = pointer.last().getMatchingProperty();
+        if (parent instanceof ObjectNode object) {
+            object.set(key, value.deepCopy());
+        } else if (parent instanceof ArrayNode array) {
+            int index = key.equals("-") ? array.size() : index(key, array.size() + 1, path);
+            array.insert(index, value.deepCopy());
+        } else {
+            throw new PatchConflictException("Path " + path + " does not exist");
+        }
+        return root;
+    }
+
+    private static JsonNode remove(JsonNode root, String path) {
+        if (path.isEmpty()) {
+            throw new ValidationException("The whole document cannot be removed");
+        }
+        JsonPointer pointer = pointer(path);
+        JsonNode parent = root.at(pointer.head());
+        String key = pointer.last().getMatchingProperty();
+        if (parent instanceof ObjectNode object && object.has(key)) {
+            object.remove(key);
+        } else if (parent instanceof ArrayNode array) {
+            array.remove(index(key, array.size(), path));
+        } else {
+            throw new PatchConflictException("Path " + path + " does not exist");
+        }
+        return root;
+    }
+
+    private static JsonNode get(JsonNode root, String path) {
+        JsonNode node = root.at(pointer(path));
+        if (node.isMissingNode()) {
+            throw new PatchConflictException("Path " + path + " does not exist");
+        }
+        return node;
+    }
+
+    private static JsonPointer pointer(String path) {
+        try {
+            return JsonPointer.compile(path);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid JSON pointer " + path);
+        }
+    }
+
+    private static int index(String key, int bound, String path) {
+        try {
+            int index = Integer.parseInt(key);
+            if (index >= 0 && index < bound) {
+                return index;
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        throw new PatchConflictException("Path " + path + " does not exist");
+    }
+
+    private static JsonNode member(JsonNode operation, String name) {
+        JsonNode value = operation.get(name);
+        if (value == null) {
+            throw new ValidationException("JSON Patch operation is missing \"" + name + "\"");
+        }
+        return value;
+    }
+
+    private static JsonNode valueOf(JsonNode object, String name) {
+        JsonNode value = object.get(name);
+        return value != null ? value : NullNode.getInstance();
+    }
+}
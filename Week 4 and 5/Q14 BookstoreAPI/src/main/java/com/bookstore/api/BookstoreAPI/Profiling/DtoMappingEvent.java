@@ -0,0 +1,21 @@
+package com.bookstore.api.BookstoreAPI.Profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.bookstore.DtoMapping")
+@Label("DTO Mapping")
+@Description("Time spent mapping entities to DTOs")
+public class DtoMappingEvent extends RequestPhaseEvent {
+
+    private DtoMappingEvent(String endpoint) {
+        super(endpoint);
+    }
+
+    public static DtoMappingEvent start(String endpoint) {
+        DtoMappingEvent event = new DtoMappingEvent(endpoint);
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,120 @@
+package com.bookstore.api.BookstoreAPI.Profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts and stops a JDK Flight Recorder recording at /actuator/jfr so latency outliers can be
+ * analysed offline in JMC. POST starts a recording with the JDK's "default" or "profile"
+ * settings plus the bookstore events; phases faster than {@code thresholdMs} are left out.
+ * DELETE stops it and returns the path of the dumped .jfr file. A forgotten recording stops
+ * itself after {@code bookstore.jfr.max-duration-ms}.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+
+    private static final List<Class<? extends Event>> EVENTS = List.of(RequestEvent.class, RepositoryCallEvent.class,
+        DtoMappingEvent.class, SerializationEvent.class);
+
+    private final Path directory;
+    private final Duration maxDuration;
+    private Recording recording;
+
+    public JfrRecordingEndpoint(@Value("${bookstore.jfr.directory:${java.io.tmpdir}/bookstore-jfr}") String directory,
+                                @Value("${bookstore.jfr.max-duration-ms:600000}") long maxDurationMillis) {
+        this.directory = Path.of(directory);
+        this.maxDuration = Duration.ofMillis(maxDurationMillis);
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("state", recording.getState());
+        status.put("name", recording.getName());
+        status.put("startTime", recording.getStartTime());
+        status.put("size", recording.getSize());
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Nullable String settings, @Nullable Long thresholdMs) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new InvalidEndpointRequestException("A recording is already running", "Recording already running");
+        }
+        closeRecording();
+
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings != null ? settings : "default");
+        } catch (IOException | ParseException e) {
+            throw new InvalidEndpointRequestException("Unknown JFR settings " + settings, "Unknown settings");
+        }
+        Duration threshold = Duration.ofMillis(thresholdMs != null ? thresholdMs : 0);
+
+        Recording started = new Recording(configuration);
+        started.setName("bookstore-" + System.currentTimeMillis());
+        started.setToDisk(true);
+        started.setDuration(maxDuration);
+        for (Class<? extends Event> event : EVENTS) {
+            started.enable(event).withThreshold(threshold);
+        }
+        started.start();
+        recording = started;
+        return status();
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (recording == null) {
+            throw new InvalidEndpointRequestException("No recording to stop", "No recording");
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        Path file = directory.resolve(recording.getName() + ".jfr");
+        try {
+            Files.createDirectories(directory);
+            recording.dump(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write JFR recording to " + file, e);
+        } finally {
+            closeRecording();
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("state", "STOPPED");
+        result.put("file", file.toAbsolutePath().toString());
+        return result;
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.bookstore.api.BookstoreAPI.Profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.bookstore.RepositoryCall")
+@Label("Repository Call")
+@Description("Time spent in the repository call")
+public class RepositoryCallEvent extends RequestPhaseEvent {
+
+    private RepositoryCallEvent(String endpoint) {
+        super(endpoint);
+    }
+
+    public static RepositoryCallEvent start(String endpoint) {
+        RepositoryCallEvent event = new RepositoryCallEvent(endpoint);
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,34 @@
+package com.bookstore.api.BookstoreAPI.Profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The whole request, from the first dispatch until the response is complete. The phase
+ * events of the same request fall inside it, on the handler executor's thread.
+ */
+@Name("com.bookstore.Request")
+@Label("Bookstore Request")
+@Description("A book or customer API request")
+@Category("Bookstore")
+@StackTrace(false)
+public class RequestEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Path")
+    String path;
+
+    @Label("Status")
+    int status;
+
+    @Label("Payload Bytes")
+    @DataAmount
+    long payloadBytes;
+}
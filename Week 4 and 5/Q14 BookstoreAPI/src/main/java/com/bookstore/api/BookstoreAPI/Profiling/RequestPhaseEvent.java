@@ -0,0 +1,41 @@
+package com.bookstore.api.BookstoreAPI.Profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base for the JFR events timing one phase of a book or customer request. Usage is
+ * {@code begin()} where the phase starts and {@link #finish} where it ends; when no recording
+ * has the event enabled both are close to free.
+ */
+@Category({ "Bookstore", "Request Phases" })
+@StackTrace(false)
+public abstract class RequestPhaseEvent extends Event {
+
+    /** {@link #entityId} for phases that are not about a single entity. */
+    public static final long NO_ENTITY = -1;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Entity Id")
+    long entityId;
+
+    @Label("Result Size")
+    int resultSize;
+
+    RequestPhaseEvent(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public void finish(long entityId, int resultSize) {
+        end();
+        if (shouldCommit()) {
+            this.entityId = entityId;
+            this.resultSize = resultSize;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.bookstore.api.BookstoreAPI.Profiling;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Emits a {@link RequestEvent} per book or customer request and completes the request's
+ * {@link SerializationEvent}. Response bytes are counted through a wrapper, which is only
+ * installed while a recording has one of the two events enabled.
+ * <p>
+ * Handlers returning a WebAsyncTask finish on an async dispatch this filter is not called
+ * for, so for those both events are completed when the async request completes.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class RequestProfilingFilter extends OncePerRequestFilter {
+
+    static final String SERIALIZATION_EVENT = RequestProfilingFilter.class.getName() + ".serialization";
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !(isUnder(path, "/books") || isUnder(path, "/customers"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestEvent requestEvent = new RequestEvent();
+        SerializationEvent serializationEvent = new SerializationEvent();
+        if (!requestEvent.isEnabled() && !serializationEvent.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        CountingResponse countingResponse = new CountingResponse(response);
+        request.setAttribute(SERIALIZATION_EVENT, serializationEvent);
+        requestEvent.begin();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, countingResponse);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new FinishOnComplete(request, countingResponse, requestEvent, serializationEvent));
+            } else {
+                finish(request, countingResponse, requestEvent, serializationEvent);
+            }
+        }
+    }
+
+    private static void finish(HttpServletRequest request, CountingResponse response,
+                               RequestEvent requestEvent, SerializationEvent serializationEvent) {
+        if (serializationEvent.begun) {
+            serializationEvent.end();
+            if (serializationEvent.shouldCommit()) {
+                serializationEvent.contentType = response.getContentType();
+                serializationEvent.payloadBytes = response.bytes;
+                serializationEvent.commit();
+            }
+        }
+        requestEvent.end();
+        if (requestEvent.shouldCommit()) {
+            requestEvent.method = request.getMethod();
+            requestEvent.path = request.getRequestURI();
+            requestEvent.status = response.getStatus();
+            requestEvent.payloadBytes = response.bytes;
+            requestEvent.commit();
+        }
+    }
+
+    private static boolean isUnder(String path, String prefix) {
+        return path.equals(prefix) || path.startsWith(prefix + "/");
+    }
+
+    private static final class FinishOnComplete implements AsyncListener {
+        private final HttpServletRequest request;
+        private final CountingResponse response;
+        private final RequestEvent requestEvent;
+        private final SerializationEvent serializationEvent;
+
+        FinishOnComplete(HttpServletRequest request, CountingResponse response,
+                         RequestEvent requestEvent, SerializationEvent serializationEvent) {
+            this.request = request;
+            this.response = response;
+            this.requestEvent = requestEvent;
+            this.serializationEvent = serializationEvent;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            finish(request, response, requestEvent, serializationEvent);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // onComplete follows a timeout
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // onComplete follows an error as well
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    /** Counts bytes written through {@link #getOutputStream()}; message converters write there. */
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        private long bytes;
+        private ServletOutputStream outputStream;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        bytes++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                        bytes += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        delegate.setWriteListener(writeListener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.bookstore.api.BookstoreAPI.Profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Time from the controller handing its body to the message converter until the response
+ * is written, including the HATEOAS links the DTO serializers add. Begun by
+ * {@link SerializationTimingAdvice}, committed by {@link RequestProfilingFilter}.
+ */
+@Name("com.bookstore.Serialization")
+@Label("Response Serialization")
+@Description("Time spent serializing the response body")
+@Category({ "Bookstore", "Request Phases" })
+@StackTrace(false)
+public class SerializationEvent extends Event {
+
+    @Label("Content Type")
+    String contentType;
+
+    @Label("Payload Bytes")
+    @DataAmount
+    long payloadBytes;
+
+    transient boolean begun;
+}
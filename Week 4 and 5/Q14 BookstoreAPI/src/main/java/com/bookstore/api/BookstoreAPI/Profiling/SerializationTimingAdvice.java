@@ -0,0 +1,37 @@
+package com.bookstore.api.BookstoreAPI.Profiling;
+
+import com.bookstore.api.BookstoreAPI.Book.BookController;
+import com.bookstore.api.BookstoreAPI.Customer.CustomerController;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Begins the {@link SerializationEvent} right before the message converter writes the body;
+ * {@link RequestProfilingFilter} ends it once the response has been written.
+ */
+@ControllerAdvice(assignableTypes = { BookController.class, CustomerController.class })
+public class SerializationTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(RequestProfilingFilter.SERIALIZATION_EVENT) instanceof SerializationEvent event) {
+            event.begin();
+            event.begun = true;
+        }
+        return body;
+    }
+}
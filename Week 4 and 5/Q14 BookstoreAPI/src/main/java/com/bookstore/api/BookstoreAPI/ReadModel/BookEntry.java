@@ -0,0 +1,43 @@
+package com.bookstore.api.BookstoreAPI.ReadModel;
+
+import com.bookstore.api.BookstoreAPI.Book.BookDTO;
+
+/** A book in the read model with the entity version its ETag is derived from. */
+public final class BookEntry {
+
+    private final BookDTO book;
+    private final long version;
+    private final long deletedAtNanos;
+
+    BookEntry(BookDTO book, long version) {
+        this(book, version, 0);
+    }
+
+    private BookEntry(BookDTO book, long version, long deletedAtNanos) {
+        this.book = book;
+        this.version = version;
+        this.deletedAtNanos = deletedAtNanos;
+    }
+
+    /** The entry left in a deleted book's slot, stamped with {@link System#nanoTime()} at deletion. */
+    static BookEntry tombstone(long deletedAtNanos) {
+        return new BookEntry(null, 0, deletedAtNanos);
+    }
+
+    /** Shared by every reader of this version; treat as read-only. */
+    public BookDTO getBook() {
+        return book;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    boolean isTombstone() {
+        return book == null;
+    }
+
+    long getDeletedAtNanos() {
+        return deletedAtNanos;
+    }
+}
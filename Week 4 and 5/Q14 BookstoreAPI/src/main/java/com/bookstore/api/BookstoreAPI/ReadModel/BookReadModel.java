@@ -0,0 +1,221 @@
+package com.bookstore.api.BookstoreAPI.ReadModel;
+
+import com.bookstore.api.BookstoreAPI.Book.BookCatalogReloadedEvent;
+import com.bookstore.api.BookstoreAPI.Book.BookChangedEvent;
+import com.bookstore.api.BookstoreAPI.Book.BookDTO;
+import com.bookstore.api.BookstoreAPI.Book.BookTableScanner;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query side for books: an immutable {@link BookView} of {@link BookDTO}s that book reads are
+ * served from without touching JPA. It is loaded from one scan of the book table at startup
+ * and after bulk imports, and kept current from the {@link BookChangedEvent}s the write path
+ * publishes after commit. Each applied change advances the view's {@link ConsistencyToken}.
+ * <p>
+ * Changes are applied under one monitor and published by swapping a volatile reference, so
+ * readers never lock. An update carrying an older version than the view already holds, or
+ * any change to a book the view has seen deleted, was published late by a concurrent writer
+ * and is skipped. A straggler is published right after its commit, so a deleted book's
+ * tombstone is reclaimed once it is older than {@code tombstone-retention-ms}.
+ */
+@Service
+public class BookReadModel {
+
+    private final BookTableScanner bookTableScanner;
+    private final boolean enabled;
+    private final long maxWaitNanos;
+    private final long tombstoneRetentionNanos;
+    private final long epoch = System.currentTimeMillis();
+    private final Object monitor = new Object();
+
+    private volatile BookView view;
+    private volatile boolean loaded;
+
+    // Guarded by monitor
+    private long sequence;
+    private List<BookChangedEvent> changesDuringLoad;
+    private final Deque<Long> tombstonesByAge = new ArrayDeque<>();
+
+    private final Counter hits;
+    private final Counter fallbacks;
+    private final Counter waits;
+
+    public BookReadModel(BookTableScanner bookTableScanner,
+                         MeterRegistry meterRegistry,
+                         @Value("${bookstore.readmodel.enabled:true}") boolean enabled,
+                         @Value("${bookstore.readmodel.max-wait-ms:100}") long maxWaitMillis,
+                         @Value("${bookstore.readmodel.tombstone-retention-ms:60000}") long tombstoneRetentionMillis) {
+        this.bookTableScanner = bookTableScanner;
+        this.enabled = enabled;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.tombstoneRetentionNanos = TimeUnit.MILLISECONDS.toNanos(tombstoneRetentionMillis);
+        this.view = BookView.empty(new ConsistencyToken(epoch, 0));
+        this.hits = meterRegistry.counter("book_read_model_reads", "result", "hit");
+        this.fallbacks = meterRegistry.counter("book_read_model_reads", "result", "fallback");
+        this.waits = meterRegistry.counter("book_read_model_reads", "result", "waited");
+        Gauge.builder("book_read_model_books", this, model -> model.view.size()).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The view to answer a read from, or {@code null} if the caller has to read the write
+     * model: before the first load, or when the view has not reached the client's token
+     * within {@code max-wait-ms}.
+     */
+    public BookView viewFor(ConsistencyToken required) {
+        BookView current = view;
+        if (!enabled || !loaded) {
+            fallbacks.increment();
+            return null;
+        }
+        if (required == null || reaches(current, required)) {
+            hits.increment();
+            return current;
+        }
+        long deadline = System.nanoTime() + maxWaitNanos;
+        synchronized (monitor) {
+            while (!reaches(view, required)) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    fallbacks.increment();
+                    return null;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(monitor, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    fallbacks.increment();
+                    return null;
+                }
+            }
+            waits.increment();
+            return view;
+        }
+    }
+
+    private boolean reaches(BookView current, ConsistencyToken required) {
+        return required.getEpoch() != epoch || current.getToken().getSequence() >= required.getSequence();
+    }
+
+    /** Token covering every change applied so far, for write responses. */
+    public ConsistencyToken currentToken() {
+        return view.getToken();
+    }
+
+    @EventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (monitor) {
+            sequence++;
+            long now = System.nanoTime();
+            reclaimTombstones(now);
+            if (event.getCurrent() == null && !view.isDeleted(event.getPrevious().getId())) {
+                tombstonesByAge.addLast(event.getPrevious().getId());
+            }
+            view = apply(view, event, new ConsistencyToken(epoch, sequence), now);
+            if (changesDuringLoad != null) {
+                changesDuringLoad.add(event);
+            }
+            monitor.notifyAll();
+        }
+    }
+
+    /**
+     * Loads a fresh view from the book table without blocking readers or writers, then swaps
+     * it in. Changes that arrive while scanning are applied again on the new view; applying
+     * a change twice leaves the same state, so it does not matter whether the scan saw them.
+     */
+    @EventListener({ ApplicationReadyEvent.class, BookCatalogReloadedEvent.class })
+    public synchronized void load() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (monitor) {
+            changesDuringLoad = new ArrayList<>();
+        }
+
+        BookView.Builder builder = new BookView.Builder();
+        boolean scanned = false;
+        try {
+            bookTableScanner.forEachVersionedBook((book, version) -> builder.put(book.getId(), new BookEntry(book, version)));
+            scanned = true;
+        } finally {
+            synchronized (monitor) {
+                // A failed scan keeps serving the old view rather than a partial one
+                if (scanned) {
+                    ConsistencyToken token = new ConsistencyToken(epoch, sequence);
+                    // Live tombstones outlive the load: a late update must not bring back a book deleted before it
+                    long now = System.nanoTime();
+                    view.forEachDeleted((tombstone, id) -> {
+                        if (!expired(tombstone, now)) {
+                            builder.putDeleted(id, tombstone);
+                        }
+                    });
+                    BookView loadedView = builder.build(token);
+                    for (BookChangedEvent event : changesDuringLoad) {
+                        loadedView = apply(loadedView, event, token, now);
+                    }
+                    view = loadedView;
+                    loaded = true;
+                    monitor.notifyAll();
+                }
+                changesDuringLoad = null;
+            }
+        }
+    }
+
+    /**
+     * Clears the tombstones past their retention, oldest first. Ids whose slot no longer holds
+     * a tombstone were dropped by a load and only leave the queue.
+     */
+    private void reclaimTombstones(long now) {
+        while (!tombstonesByAge.isEmpty()) {
+            long id = tombstonesByAge.peekFirst();
+            BookEntry entry = view.slot(id);
+            if (entry != null && entry.isTombstone()) {
+                if (!expired(entry, now)) {
+                    return;
+                }
+                view = view.reclaim(id);
+            }
+            tombstonesByAge.removeFirst();
+        }
+    }
+
+    private boolean expired(BookEntry tombstone, long now) {
+        return now - tombstone.getDeletedAtNanos() >= tombstoneRetentionNanos;
+    }
+
+    private static BookView apply(BookView target, BookChangedEvent event, ConsistencyToken token, long now) {
+        BookDTO current = event.getCurrent();
+        if (current == null) {
+            return target.without(event.getPrevious().getId(), now, token);
+        }
+        if (target.isDeleted(current.getId())) {
+            return target.at(token);
+        }
+        BookEntry existing = target.find(current.getId());
+        long version = event.getVersion() != null ? event.getVersion() : 0;
+        if (existing != null && event.getVersion() != null && existing.getVersion() > version) {
+            return target.at(token);
+        }
+        return target.with(current.getId(), new BookEntry(current, version), token);
+    }
+}
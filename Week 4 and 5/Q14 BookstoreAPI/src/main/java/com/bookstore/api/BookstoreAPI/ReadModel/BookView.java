@@ -0,0 +1,191 @@
+package com.bookstore.api.BookstoreAPI.ReadModel;
+
+import com.bookstore.api.BookstoreAPI.Book.BookDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Immutable id-indexed snapshot of the catalog. Book ids are dense identity values, so
+ * entries live in fixed pages of 1024 slots addressed by the id's high bits; a write copies
+ * the page array and the one page it touches, and every other page is shared with the
+ * previous view. Readers hold a view for a whole request and never see a half-applied change.
+ * <p>
+ * A deleted book leaves a tombstone in its slot. Ids are never reused, so a change for a
+ * tombstoned id was published late by a writer that lost to the delete. Tombstones only need
+ * to outlive such stragglers; {@link BookReadModel} reclaims them after a retention window.
+ */
+public final class BookView {
+
+    static final int PAGE_BITS = 10;
+    static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int MAX_PAGES = Integer.MAX_VALUE - 8;
+    private static final BookEntry[][] NO_PAGES = new BookEntry[0][];
+
+    private final BookEntry[][] pages;
+    private final int size;
+    private final ConsistencyToken token;
+
+    private BookView(BookEntry[][] pages, int size, ConsistencyToken token) {
+        this.pages = pages;
+        this.size = size;
+        this.token = token;
+    }
+
+    static BookView empty(ConsistencyToken token) {
+        return new BookView(NO_PAGES, 0, token);
+    }
+
+    public BookEntry find(long id) {
+        BookEntry entry = slot(id);
+        return entry != null && !entry.isTombstone() ? entry : null;
+    }
+
+    boolean isDeleted(long id) {
+        BookEntry entry = slot(id);
+        return entry != null && entry.isTombstone();
+    }
+
+    /** The book or tombstone in the id's slot, or {@code null} if it is empty. */
+    BookEntry slot(long id) {
+        if (id < 0 || (id >>> PAGE_BITS) >= pages.length) {
+            return null;
+        }
+        BookEntry[] page = pages[(int) (id >>> PAGE_BITS)];
+        return page != null ? page[(int) (id & PAGE_MASK)] : null;
+    }
+
+    /** Every book, ascending by id. */
+    public List<BookDTO> books() {
+        List<BookDTO> books = new ArrayList<>(size);
+        for (BookEntry[] page : pages) {
+            if (page == null) {
+                continue;
+            }
+            for (BookEntry entry : page) {
+                if (entry != null && !entry.isTombstone()) {
+                    books.add(entry.getBook());
+                }
+            }
+        }
+        return books;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public ConsistencyToken getToken() {
+        return token;
+    }
+
+    /** A view with the book added or replaced. */
+    BookView with(long id, BookEntry entry, ConsistencyToken token) {
+        BookEntry previous = slot(id);
+        return new BookView(replace(id, entry), previous == null || previous.isTombstone() ? size + 1 : size, token);
+    }
+
+    /**
+     * A view with the book replaced by a tombstone; the same pages if it already was one. The
+     * tombstone is written even if the book was never seen, in case its creation arrives late.
+     */
+    BookView without(long id, long deletedAtNanos, ConsistencyToken token) {
+        if (isDeleted(id)) {
+            return new BookView(pages, size, token);
+        }
+        return new BookView(replace(id, BookEntry.tombstone(deletedAtNanos)), find(id) != null ? size - 1 : size, token);
+    }
+
+    /** A view with the id's tombstone cleared; the same view if the slot holds none. */
+    BookView reclaim(long id) {
+        if (!isDeleted(id)) {
+            return this;
+        }
+        return new BookView(replace(id, null), size, token);
+    }
+
+    private BookEntry[][] replace(long id, BookEntry entry) {
+        int pageIndex = pageIndex(id);
+        BookEntry[][] newPages = pages.length > pageIndex ? pages.clone() : grow(pages, pageIndex);
+        BookEntry[] page = newPages[pageIndex];
+        newPages[pageIndex] = page != null ? page.clone() : new BookEntry[PAGE_SIZE];
+        newPages[pageIndex][(int) (id & PAGE_MASK)] = entry;
+        return newPages;
+    }
+
+    /** Passes every tombstone and its id to {@code consumer}, for carrying them across a load. */
+    void forEachDeleted(ObjLongConsumer<BookEntry> consumer) {
+        for (int pageIndex = 0; pageIndex < pages.length; pageIndex++) {
+            BookEntry[] page = pages[pageIndex];
+            if (page == null) {
+                continue;
+            }
+            for (int slot = 0; slot < page.length; slot++) {
+                if (page[slot] != null && page[slot].isTombstone()) {
+                    consumer.accept(page[slot], ((long) pageIndex << PAGE_BITS) | slot);
+                }
+            }
+        }
+    }
+
+    BookView at(ConsistencyToken token) {
+        return new BookView(pages, size, token);
+    }
+
+    private static int pageIndex(long id) {
+        if (id < 0 || (id >>> PAGE_BITS) >= MAX_PAGES) {
+            throw new IllegalArgumentException("Book id out of range for the read model: " + id);
+        }
+        return (int) (id >>> PAGE_BITS);
+    }
+
+    private static BookEntry[][] grow(BookEntry[][] pages, int pageIndex) {
+        int length = (int) Math.min(MAX_PAGES, Math.max(pageIndex + 1L, pages.length * 2L));
+        BookEntry[][] grown = new BookEntry[length][];
+        System.arraycopy(pages, 0, grown, 0, pages.length);
+        return grown;
+    }
+
+    /** Fills pages in place for a full load; the view is built once at the end. */
+    static final class Builder {
+        private BookEntry[][] pages = NO_PAGES;
+        private int size;
+
+        void put(long id, BookEntry entry) {
+            int pageIndex = pageIndex(id);
+            if (pageIndex >= pages.length) {
+                pages = grow(pages, pageIndex);
+            }
+            if (pages[pageIndex] == null) {
+                pages[pageIndex] = new BookEntry[PAGE_SIZE];
+            }
+            int slot = (int) (id & PAGE_MASK);
+            if (pages[pageIndex][slot] == null) {
+                size++;
+            }
+            pages[pageIndex][slot] = entry;
+        }
+
+        /** Puts a tombstone in a slot the scan left empty. */
+        void putDeleted(long id, BookEntry tombstone) {
+            int pageIndex = pageIndex(id);
+            if (pageIndex >= pages.length) {
+                pages = grow(pages, pageIndex);
+            }
+            if (pages[pageIndex] == null) {
+                pages[pageIndex] = new BookEntry[PAGE_SIZE];
+            }
+            int slot = (int) (id & PAGE_MASK);
+            if (pages[pageIndex][slot] == null) {
+                pages[pageIndex][slot] = tombstone;
+            }
+        }
+
+        BookView build(ConsistencyToken token) {
+            return new BookView(pages, size, token);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.bookstore.api.BookstoreAPI.ReadModel;
+
+import com.bookstore.api.BookstoreAPI.ErrorHandling.ValidationException;
+
+/**
+ * Position of the book read model, sent as {@code X-Consistency-Token: <epoch>-<sequence>}.
+ * Write responses carry the token that includes the write; a client that sends it back on a
+ * read is served from the read model only once the model has caught up to it.
+ * <p>
+ * The epoch is the read model's start time. Sequences restart with every epoch, so a token
+ * from an earlier epoch is satisfied by any fully loaded model: that load read the database
+ * after the write was acknowledged.
+ */
+public final class ConsistencyToken {
+
+    public static final String HEADER = "X-Consistency-Token";
+
+    private final long epoch;
+    private final long sequence;
+
+    ConsistencyToken(long epoch, long sequence) {
+        this.epoch = epoch;
+        this.sequence = sequence;
+    }
+
+    /** Parses a header value; {@code null} when the header is absent. */
+    public static ConsistencyToken parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String token = value.trim();
+        int separator = token.indexOf('-');
+        try {
+            if (separator > 0) {
+                return new ConsistencyToken(Long.parseLong(token, 0, separator, 10),
+                    Long.parseLong(token, separator + 1, token.length(), 10));
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new ValidationException("Malformed " + HEADER + ": " + value);
+    }
+
+    long getEpoch() {
+        return epoch;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public String toString() {
+        return epoch + "-" + sequence;
+    }
+}
@@ -0,0 +1,39 @@
+package com.bookstore.api.BookstoreAPI.Resilience;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the book store as {@code DEGRADED} at /actuator/health while the read circuit
+ * breaker is open or probing. Reads are still answered from the cache then, so the status
+ * maps to 200 (see {@code management.endpoint.health.status.*}).
+ */
+@Component
+public class BookStoreHealthIndicator implements HealthIndicator {
+
+    public static final Status DEGRADED = new Status("DEGRADED", "Book reads are served from cache while the store recovers");
+
+    private final ResilientBookReader bookReader;
+
+    public BookStoreHealthIndicator(ResilientBookReader bookReader) {
+        this.bookReader = bookReader;
+    }
+
+    @Override
+    public Health health() {
+        if (!bookReader.isEnabled()) {
+            return Health.unknown().withDetail("reason", "bookstore.resilience.enabled is false").build();
+        }
+        CircuitBreaker circuitBreaker = bookReader.getCircuitBreaker();
+        CircuitBreaker.State state = circuitBreaker.getState();
+        Health.Builder builder = state == CircuitBreaker.State.CLOSED ? Health.up() : Health.status(DEGRADED);
+        return builder
+            .withDetail("circuit", state)
+            .withDetail("failureRate", circuitBreaker.getFailureRate())
+            .withDetail("slowCallRate", circuitBreaker.getSlowCallRate())
+            .withDetail("cachedBooks", bookReader.cachedBooks())
+            .build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.bookstore.api.BookstoreAPI.Resilience;
+
+import com.bookstore.api.BookstoreAPI.Book.BookDTO;
+
+/** A book as last read from the store, with the entity version for its ETag. */
+public final class CachedBook {
+
+    private final BookDTO book;
+    private final Long version;
+
+    CachedBook(BookDTO book, Long version) {
+        this.book = book;
+        this.version = version;
+    }
+
+    public BookDTO getBook() {
+        return book;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,304 @@
+package com.bookstore.api.BookstoreAPI.Resilience;
+
+import com.bookstore.api.BookstoreAPI.Book.Book;
+import com.bookstore.api.BookstoreAPI.Book.BookCatalogReloadedEvent;
+import com.bookstore.api.BookstoreAPI.Book.BookChangedEvent;
+import com.bookstore.api.BookstoreAPI.Book.BookDTO;
+import com.bookstore.api.BookstoreAPI.Book.BookRepository;
+import com.bookstore.api.BookstoreAPI.ErrorHandling.StoreUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stale-while-revalidate reads of single books, guarded by a {@link CircuitBreaker}.
+ * <ul>
+ *   <li>A cached book younger than {@code fresh-ms} is returned as is.</li>
+ *   <li>An older one is returned immediately and refreshed on a loader thread, one refresh
+ *       per id at a time, and only while the breaker lets calls through. While the store is
+ *       unhealthy, readers keep getting the last known value.</li>
+ *   <li>A miss is loaded on a loader thread and waited for at most {@code load-timeout-ms}.
+ *       A timeout counts as a failure for the breaker and answers 503; the load still fills
+ *       the cache when it finishes. With the breaker open a miss is refused at once.</li>
+ * </ul>
+ * Missing books are cached too, so repeated 404s do not reach the store. Writes replace the
+ * entry with a tombstone stamped with the write time, and a load that started before that
+ * stamp cannot overwrite it.
+ */
+@Service
+public class ResilientBookReader {
+
+    private static final int EVICTION_SAMPLE = 8;
+
+    private final BookRepository bookRepository;
+    private final CircuitBreaker circuitBreaker;
+    private final boolean enabled;
+    private final long freshNanos;
+    private final long loadTimeoutMillis;
+    private final int maxEntries;
+    private final ThreadPoolExecutor loader;
+
+    private final ConcurrentHashMap<Long, Entry> cache = new ConcurrentHashMap<>();
+    private final Set<Long> refreshing = ConcurrentHashMap.newKeySet();
+    private final AtomicLong catalogGeneration = new AtomicLong();
+
+    private final Counter freshReads;
+    private final Counter staleReads;
+    private final Counter loadedReads;
+    private final Counter unavailableReads;
+
+    public ResilientBookReader(BookRepository bookRepository, MeterRegistry meterRegistry,
+                               @Value("${bookstore.resilience.enabled:true}") boolean enabled,
+                               @Value("${bookstore.resilience.fresh-ms:30000}") long freshMs,
+                               @Value("${bookstore.resilience.load-timeout-ms:500}") long loadTimeoutMs,
+                               @Value("${bookstore.resilience.max-entries:10000}") int maxEntries,
+                               @Value("${bookstore.resilience.loader-threads:4}") int loaderThreads,
+                               @Value("${bookstore.resilience.loader-queue:256}") int loaderQueue,
+                               @Value("${bookstore.resilience.window:50}") int window,
+                               @Value("${bookstore.resilience.minimum-calls:20}") int minimumCalls,
+                               @Value("${bookstore.resilience.failure-rate:0.5}") double failureRate,
+                               @Value("${bookstore.resilience.slow-call-rate:0.5}") double slowCallRate,
+                               @Value("${bookstore.resilience.slow-call-ms:250}") long slowCallMs,
+                               @Value("${bookstore.resilience.open-ms:10000}") long openMs,
+                               @Value("${bookstore.resilience.half-open-probes:3}") int halfOpenProbes) {
+        this.bookRepository = bookRepository;
+        this.enabled = enabled;
+        this.freshNanos = TimeUnit.MILLISECONDS.toNanos(freshMs);
+        this.loadTimeoutMillis = loadTimeoutMs;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.circuitBreaker = new CircuitBreaker(window, minimumCalls, failureRate, slowCallRate,
+            TimeUnit.MILLISECONDS.toNanos(slowCallMs), TimeUnit.MILLISECONDS.toNanos(openMs), halfOpenProbes);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.loader = new ThreadPoolExecutor(loaderThreads, loaderThreads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, loaderQueue)), runnable -> {
+                Thread thread = new Thread(runnable, "book-reader-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.loader.allowCoreThreadTimeOut(true);
+
+        this.freshReads = readCounter(meterRegistry, "fresh");
+        this.staleReads = readCounter(meterRegistry, "stale");
+        this.loadedReads = readCounter(meterRegistry, "loaded");
+        this.unavailableReads = readCounter(meterRegistry, "unavailable");
+        Gauge.builder("book_store_circuit_state", circuitBreaker, breaker -> breaker.getState().ordinal())
+            .description("Book store circuit breaker: 0 closed, 1 open, 2 half open")
+            .register(meterRegistry);
+        Gauge.builder("book_reader_cache_size", cache, Map::size).register(meterRegistry);
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("book_reads")
+            .description("Single-book reads by how they were answered")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public int cachedBooks() {
+        return cache.size();
+    }
+
+    /**
+     * Returns the book, or {@code null} if it does not exist.
+     *
+     * @throws StoreUnavailableException if the book is not cached and the store cannot be
+     *         asked (breaker open, loaders saturated) or does not answer in time
+     */
+    public CachedBook find(long id) {
+        Entry entry = cache.get(id);
+        if (entry != null && !entry.tombstone) {
+            if (System.nanoTime() - entry.loadedAt < freshNanos) {
+                freshReads.increment();
+            } else {
+                staleReads.increment();
+                refreshInBackground(id);
+            }
+            return entry.book;
+        }
+
+        if (!circuitBreaker.tryAcquire()) {
+            throw unavailable("Book store circuit is open");
+        }
+        Load load = new Load(id);
+        try {
+            loader.execute(load);
+        } catch (RejectedExecutionException e) {
+            load.abandon();
+            throw unavailable("Book store loaders are saturated");
+        }
+        try {
+            CachedBook book = load.result.get(loadTimeoutMillis, TimeUnit.MILLISECONDS);
+            loadedReads.increment();
+            return book;
+        } catch (TimeoutException e) {
+            load.abandon();
+            throw unavailable("Book store did not answer within " + loadTimeoutMillis + " ms");
+        } catch (ExecutionException e) {
+            throw unavailable("Book store read failed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw unavailable("Interrupted while reading from the book store");
+        }
+    }
+
+    private void refreshInBackground(long id) {
+        if (!refreshing.add(id)) {
+            return;
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            refreshing.remove(id);
+            return;
+        }
+        Load load = new Load(id);
+        try {
+            loader.execute(() -> {
+                try {
+                    load.run();
+                } finally {
+                    refreshing.remove(id);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(id);
+            load.abandon();
+        }
+    }
+
+    private StoreUnavailableException unavailable(String message) {
+        unavailableReads.increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(circuitBreaker.remainingOpenNanos() + 999_999_999L));
+        return new StoreUnavailableException(message, retryAfterSeconds);
+    }
+
+    @EventListener
+    public void onBookChanged(BookChangedEvent event) {
+        Long id = event.getCurrent() != null ? event.getCurrent().getId() : event.getPrevious().getId();
+        cache.put(id, Entry.tombstone(System.nanoTime()));
+    }
+
+    @EventListener(BookCatalogReloadedEvent.class)
+    public void onCatalogReloaded() {
+        catalogGeneration.incrementAndGet();
+        cache.clear();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+
+    private CachedBook fetch(long id, long startedAt, long generation) {
+        Optional<Book> found = bookRepository.findById(id);
+        CachedBook book = found.map(b -> new CachedBook(
+            new BookDTO(b.getId(), b.getTitle(), b.getAuthor(), b.getPrice(), b.getIsbn()), b.getVersion())).orElse(null);
+
+        if (catalogGeneration.get() == generation) {
+            Entry loaded = new Entry(book, startedAt, false);
+            cache.merge(id, loaded, (existing, candidate) -> existing.loadedAt > candidate.loadedAt ? existing : candidate);
+            if (cache.size() > maxEntries) {
+                evictOne();
+            }
+        }
+        return book;
+    }
+
+    /** Drops the oldest of a few entries: approximate, but never a scan of the whole cache. */
+    private void evictOne() {
+        Iterator<Map.Entry<Long, Entry>> entries = cache.entrySet().iterator();
+        Long oldestId = null;
+        long oldestLoadedAt = Long.MAX_VALUE;
+        for (int i = 0; i < EVICTION_SAMPLE && entries.hasNext(); i++) {
+            Map.Entry<Long, Entry> candidate = entries.next();
+            if (candidate.getValue().loadedAt < oldestLoadedAt) {
+                oldestLoadedAt = candidate.getValue().loadedAt;
+                oldestId = candidate.getKey();
+            }
+        }
+        if (oldestId != null) {
+            cache.remove(oldestId);
+        }
+    }
+
+    /** One read from the store. Its outcome is reported to the breaker exactly once. */
+    private final class Load implements Runnable {
+
+        private final long id;
+        private final long generation = catalogGeneration.get();
+        private final CompletableFuture<CachedBook> result = new CompletableFuture<>();
+        private final AtomicBoolean reported = new AtomicBoolean();
+
+        Load(long id) {
+            this.id = id;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            try {
+                CachedBook book = fetch(id, start, generation);
+                if (reported.compareAndSet(false, true)) {
+                    circuitBreaker.onSuccess(System.nanoTime() - start);
+                }
+                result.complete(book);
+            } catch (RuntimeException e) {
+                if (reported.compareAndSet(false, true)) {
+                    circuitBreaker.onFailure();
+                }
+                result.completeExceptionally(e);
+            }
+        }
+
+        /** The caller stopped waiting or the load never ran; either way the store did not answer in time. */
+        void abandon() {
+            if (reported.compareAndSet(false, true)) {
+                circuitBreaker.onFailure();
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        final CachedBook book;
+        final long loadedAt;
+        final boolean tombstone;
+
+        Entry(CachedBook book, long loadedAt, boolean tombstone) {
+            this.book = book;
+            this.loadedAt = loadedAt;
+            this.tombstone = tombstone;
+        }
+
+        static Entry tombstone(long changedAt) {
+            return new Entry(null, changedAt, true);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.bookstore.api.BookstoreAPI.Search;
+
+import com.bookstore.api.BookstoreAPI.Book.Book;
+import com.bookstore.api.BookstoreAPI.Book.BookDTO;
+import com.bookstore.api.BookstoreAPI.Book.BookRepository;
+import com.bookstore.api.BookstoreAPI.ErrorHandling.ValidationException;
+import com.bookstore.api.BookstoreAPI.ReadModel.BookEntry;
+import com.bookstore.api.BookstoreAPI.ReadModel.BookReadModel;
+import com.bookstore.api.BookstoreAPI.ReadModel.BookView;
+import com.bookstore.api.BookstoreAPI.ReadModel.ConsistencyToken;
+import com.bookstore.api.BookstoreAPI.Serialization.DtoLinks;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/books")
+public class BookSearchController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final BookSearchService bookSearchService;
+    private final BookRepository bookRepository;
+    private final BookReadModel bookReadModel;
+
+    public BookSearchController(BookSearchService bookSearchService, BookRepository bookRepository, BookReadModel bookReadModel) {
+        this.bookSearchService = bookSearchService;
+        this.bookRepository = bookRepository;
+        this.bookReadModel = bookReadModel;
+    }
+
+    @GetMapping(value = "/search", produces = { "application/json", "application/xml" })
+    public List<BookDTO> searchBooks(@RequestParam String q, @RequestParam(defaultValue = "20") int limit,
+                                     @RequestHeader(value = ConsistencyToken.HEADER, required = false) String consistencyToken,
+                                     HttpServletResponse response) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        List<BookSearchService.SearchHit> hits = bookSearchService.search(q, limit);
+
+        // The index only ranks ids; books come from the read model, and any it lacks from one query
+        BookView view = bookReadModel.isEnabled() ? bookReadModel.viewFor(ConsistencyToken.parse(consistencyToken)) : null;
+        List<Long> ids = new ArrayList<>(hits.size());
+        Map<Long, BookDTO> booksById = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (BookSearchService.SearchHit hit : hits) {
+            ids.add(hit.getBookId());
+            BookEntry entry = view != null ? view.find(hit.getBookId()) : null;
+            if (entry != null) {
+                booksById.put(hit.getBookId(), entry.getBook());
+            } else {
+                missing.add(hit.getBookId());
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Book book : bookRepository.findAllById(missing)) {
+                booksById.put(book.getId(), new BookDTO(
+                    book.getId(),
+                    book.getTitle(),
+                    book.getAuthor(),
+                    book.getPrice(),
+                    book.getIsbn()
+                ));
+            }
+        }
+
+        List<BookDTO> results = new ArrayList<>(hits.size());
+        for (Long id : ids) {
+            BookDTO book = booksById.get(id);
+            if (book != null) {
+                results.add(book);
+            }
+        }
+        if (view != null) {
+            response.setHeader(ConsistencyToken.HEADER, view.getToken().toString());
+        }
+
+        DtoLinks.BOOK_IN_LIST.apply();
+        return results;
+    }
+
+    @GetMapping(value = "/suggest", produces = { "application/json", "application/xml" })
+    public List<BookSearchService.BookSuggestion> suggestBooks(@RequestParam String prefix, @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > bookSearchService.getSuggestTopK()) {
+            throw new ValidationException("Limit must be between 1 and " + bookSearchService.getSuggestTopK());
+        }
+
+        return bookSearchService.suggest(prefix, limit);
+    }
+}
@@ -0,0 +1,209 @@
+package com.bookstore.api.BookstoreAPI.Search;
+
+import com.bookstore.api.BookstoreAPI.Book.BookCatalogReloadedEvent;
+import com.bookstore.api.BookstoreAPI.Book.BookChangedEvent;
+import com.bookstore.api.BookstoreAPI.Book.BookDTO;
+import com.bookstore.api.BookstoreAPI.Book.BookTableScanner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Full-text search and suggest-as-you-type over book titles and authors. Both indexes are
+ * rebuilt from one scan of the database at startup and after bulk imports, and kept current
+ * from {@link BookChangedEvent}s in between.
+ */
+@Service
+public class BookSearchService {
+
+    private final BookTableScanner bookTableScanner;
+    private final int suggestTopK;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private InvertedIndex index = new InvertedIndex();
+    private PrefixIndex prefixIndex;
+    private List<BookChangedEvent> changesDuringRebuild;
+
+    public BookSearchService(BookTableScanner bookTableScanner, @Value("${bookstore.suggest.top-k:10}") int suggestTopK) {
+        this.bookTableScanner = bookTableScanner;
+        this.suggestTopK = suggestTopK;
+        this.prefixIndex = new PrefixIndex(suggestTopK);
+    }
+
+    /** Returns the ids of the best matching books with their BM25 scores, best first. */
+    public List<SearchHit> search(String query, int limit) {
+        List<String> terms = BookTokenizer.tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        List<InvertedIndex.Hit> hits;
+        lock.readLock().lock();
+        try {
+            hits = index.search(terms, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<SearchHit> result = new ArrayList<>(hits.size());
+        for (InvertedIndex.Hit hit : hits) {
+            result.add(new SearchHit(hit.getBookId(), hit.getScore()));
+        }
+        return result;
+    }
+
+    /** Returns the most popular titles and authors starting with the prefix, most books first. */
+    public List<BookSuggestion> suggest(String prefix, int limit) {
+        String key = PrefixIndex.normalizeKey(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        // A trailing space means the last word is complete: "dune " must not suggest "dunes"
+        if (Character.isWhitespace(prefix.charAt(prefix.length() - 1))) {
+            key = key + ' ';
+        }
+        List<PrefixIndex.Suggestion> suggestions;
+        lock.readLock().lock();
+        try {
+            suggestions = prefixIndex.suggest(key, Math.min(limit, suggestTopK));
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<BookSuggestion> result = new ArrayList<>(suggestions.size());
+        for (PrefixIndex.Suggestion suggestion : suggestions) {
+            result.add(new BookSuggestion(suggestion.text, suggestion.type.name(), suggestion.weight));
+        }
+        return result;
+    }
+
+    public int getSuggestTopK() {
+        return suggestTopK;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onBookChanged(BookChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            apply(index, prefixIndex, event);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Builds a fresh index from the book table without blocking searches, then swaps it in.
+     * Changes that arrive while scanning are replayed on the new index; put/remove are
+     * idempotent, so it does not matter whether the scan already saw them.
+     */
+    @EventListener({ ApplicationReadyEvent.class, BookCatalogReloadedEvent.class })
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        InvertedIndex rebuilt = new InvertedIndex();
+        PrefixIndex rebuiltPrefixes = new PrefixIndex(suggestTopK);
+        boolean scanned = false;
+        try {
+            bookTableScanner.forEachBook(book -> {
+                rebuilt.put(book.getId(), terms(book));
+                rebuiltPrefixes.put(book.getId(), book.getTitle(), book.getAuthor());
+            });
+            scanned = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                // A failed scan keeps serving the old index rather than a partial one
+                if (scanned) {
+                    for (BookChangedEvent event : changesDuringRebuild) {
+                        apply(rebuilt, rebuiltPrefixes, event);
+                    }
+                    index = rebuilt;
+                    prefixIndex = rebuiltPrefixes;
+                }
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private static void apply(InvertedIndex target, PrefixIndex prefixes, BookChangedEvent event) {
+        if (event.getPrevious() != null) {
+            target.remove(event.getPrevious().getId());
+            prefixes.remove(event.getPrevious().getId());
+        }
+        BookDTO current = event.getCurrent();
+        if (current != null) {
+            target.put(current.getId(), terms(current));
+            prefixes.put(current.getId(), current.getTitle(), current.getAuthor());
+        }
+    }
+
+    private static List<String> terms(BookDTO book) {
+        List<String> terms = BookTokenizer.tokenize(book.getTitle());
+        terms.addAll(BookTokenizer.tokenize(book.getAuthor()));
+        return terms;
+    }
+
+    public static class BookSuggestion {
+        private final String text;
+        private final String type;
+        private final int bookCount;
+
+        public BookSuggestion(String text, String type, int bookCount) {
+            this.text = text;
+            this.type = type;
+            this.bookCount = bookCount;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public int getBookCount() {
+            return bookCount;
+        }
+    }
+
+    public static class SearchHit {
+        private final long bookId;
+        private final float score;
+
+        public SearchHit(long bookId, float score) {
+            this.bookId = bookId;
+            this.score = score;
+        }
+
+        public long getBookId() {
+            return bookId;
+        }
+
+        public float getScore() {
+            return score;
+        }
+    }
+}
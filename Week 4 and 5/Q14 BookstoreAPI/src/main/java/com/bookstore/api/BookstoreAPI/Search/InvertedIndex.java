@@ -0,0 +1,230 @@
+package com.bookstore.api.BookstoreAPI.Search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * BM25-ranked inverted index keyed by book id. Documents get dense internal numbers so
+ * postings are plain int arrays; an update deletes the old document and appends a new one,
+ * and deleted documents are skipped until the next compaction.
+ * <p>
+ * Not thread-safe: {@link BookSearchService} guards it with a read/write lock.
+ */
+class InvertedIndex {
+
+    static final float K1 = 1.2f;
+    static final float B = 0.75f;
+
+    private static final int MIN_COMPACTION_DELETES = 1024;
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> docByBookId = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private long[] bookIds = new long[1024];
+    private int[] lengths = new int[1024];
+    private int docCount;
+    private int deletedCount;
+    private long liveLength;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    /** Indexes the book, replacing any earlier version with the same id. */
+    void put(long bookId, List<String> terms) {
+        remove(bookId);
+
+        int doc = docCount++;
+        if (doc == bookIds.length) {
+            bookIds = Arrays.copyOf(bookIds, doc * 2);
+            lengths = Arrays.copyOf(lengths, doc * 2);
+        }
+        bookIds[doc] = bookId;
+        lengths[doc] = terms.size();
+        liveLength += terms.size();
+        docByBookId.put(bookId, doc);
+
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        for (String term : terms) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new Postings()).add(doc, entry.getValue());
+        }
+    }
+
+    void remove(long bookId) {
+        Integer doc = docByBookId.remove(bookId);
+        if (doc == null) {
+            return;
+        }
+        deleted.set(doc);
+        deletedCount++;
+        liveLength -= lengths[doc];
+        if (deletedCount >= MIN_COMPACTION_DELETES && deletedCount > size()) {
+            compact();
+        }
+    }
+
+    int size() {
+        return docCount - deletedCount;
+    }
+
+    /**
+     * Returns up to {@code limit} books matching any of the terms, best first. Document
+     * frequencies include deleted documents until the next compaction, which only nudges idf.
+     */
+    List<Hit> search(List<String> terms, int limit) {
+        int liveDocs = size();
+        if (liveDocs == 0 || terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        float averageLength = Math.max(1f, (float) liveLength / liveDocs);
+
+        Scratch work = SCRATCH.get();
+        work.ensureCapacity(docCount);
+        try {
+            for (String term : new LinkedHashSet<>(terms)) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                float idf = (float) Math.log(1 + (liveDocs - list.size + 0.5) / (list.size + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    int doc = list.docs[i];
+                    if (deleted.get(doc)) {
+                        continue;
+                    }
+                    int tf = list.frequencies[i];
+                    float norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+                    work.add(doc, idf * tf * (K1 + 1) / (tf + norm));
+                }
+            }
+
+            PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, (a, b) -> Float.compare(a.score, b.score));
+            for (int i = 0; i < work.touchedCount; i++) {
+                int doc = work.touched[i];
+                float score = work.scores[doc];
+                if (best.size() < limit) {
+                    best.add(new Hit(bookIds[doc], score));
+                } else if (score > best.peek().score) {
+                    best.poll();
+                    best.add(new Hit(bookIds[doc], score));
+                }
+            }
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort((a, b) -> Float.compare(b.score, a.score));
+            return hits;
+        } finally {
+            work.reset();
+        }
+    }
+
+    /** Renumbers live documents densely and drops deleted ones from every posting list. */
+    private void compact() {
+        int[] remap = new int[docCount];
+        long[] newBookIds = new long[Math.max(1024, size() * 2)];
+        int[] newLengths = new int[newBookIds.length];
+        int next = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (deleted.get(doc)) {
+                remap[doc] = -1;
+            } else {
+                remap[doc] = next;
+                newBookIds[next] = bookIds[doc];
+                newLengths[next] = lengths[doc];
+                docByBookId.put(bookIds[doc], next);
+                next++;
+            }
+        }
+        postings.values().removeIf(list -> list.remap(remap) == 0);
+        bookIds = newBookIds;
+        lengths = newLengths;
+        docCount = next;
+        deletedCount = 0;
+        deleted.clear();
+    }
+
+    static class Hit {
+        final long bookId;
+        final float score;
+
+        Hit(long bookId, float score) {
+            this.bookId = bookId;
+            this.score = score;
+        }
+
+        long getBookId() {
+            return bookId;
+        }
+
+        float getScore() {
+            return score;
+        }
+    }
+
+    private static class Postings {
+        int[] docs = new int[4];
+        int[] frequencies = new int[4];
+        int size;
+
+        void add(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        int remap(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = remap[docs[i]];
+                if (doc >= 0) {
+                    docs[kept] = doc;
+                    frequencies[kept] = frequencies[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            return kept;
+        }
+    }
+
+    /** Per-thread score accumulator; only the touched slots are cleared after each query. */
+    private static class Scratch {
+        float[] scores = new float[0];
+        int[] touched = new int[256];
+        int touchedCount;
+
+        void ensureCapacity(int docs) {
+            if (scores.length < docs) {
+                scores = new float[Math.max(docs, scores.length * 2)];
+            }
+        }
+
+        void add(int doc, float score) {
+            if (scores[doc] == 0f) {
+                if (touchedCount == touched.length) {
+                    touched = Arrays.copyOf(touched, touchedCount * 2);
+                }
+                touched[touchedCount++] = doc;
+            }
+            scores[doc] += score;
+        }
+
+        void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                scores[touched[i]] = 0f;
+            }
+            touchedCount = 0;
+        }
+    }
+}
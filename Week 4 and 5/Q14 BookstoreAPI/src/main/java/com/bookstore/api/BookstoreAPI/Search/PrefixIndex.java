@@ -0,0 +1,251 @@
+package com.bookstore.api.BookstoreAPI.Search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Character trie over normalized titles and author names where every node stores the
+ * top-K suggestions of its subtree, so a lookup is a walk down the prefix plus a copy of at
+ * most K entries. Children are kept in sorted parallel arrays rather than maps to keep
+ * nodes small. A title is also reachable from each of its later words ("gat" suggests
+ * "The Great Gatsby").
+ * <p>
+ * When a suggestion's weight changes only the nodes on its key paths are recomputed, each
+ * from its own terminals and its children's top-K lists. Not thread-safe: callers lock.
+ */
+class PrefixIndex {
+
+    enum Type { TITLE, AUTHOR }
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Suggestion[] NO_SUGGESTIONS = new Suggestion[0];
+    private static final int MAX_WORD_STARTS = 8;
+
+    private static final Comparator<Suggestion> BY_WEIGHT = (a, b) -> {
+        int byWeight = Integer.compare(b.weight, a.weight);
+        return byWeight != 0 ? byWeight : a.key.compareTo(b.key);
+    };
+
+    private final int topK;
+    private final Node root = new Node();
+    private final Map<String, Suggestion> suggestions = new HashMap<>();
+    private final Map<Long, Suggestion[]> suggestionsByBook = new HashMap<>();
+
+    PrefixIndex(int topK) {
+        this.topK = topK;
+    }
+
+    /** Adds or replaces the book's title and author suggestions. */
+    void put(long bookId, String title, String author) {
+        Suggestion[] existing = suggestionsByBook.get(bookId);
+        if (existing != null && sameKey(existing[0], title) && sameKey(existing[1], author)) {
+            return;
+        }
+        remove(bookId);
+        Suggestion[] added = { suggestion(Type.TITLE, title), suggestion(Type.AUTHOR, author) };
+        for (Suggestion suggestion : added) {
+            if (suggestion != null) {
+                adjust(suggestion, 1);
+            }
+        }
+        suggestionsByBook.put(bookId, added);
+    }
+
+    void remove(long bookId) {
+        Suggestion[] existing = suggestionsByBook.remove(bookId);
+        if (existing == null) {
+            return;
+        }
+        for (Suggestion suggestion : existing) {
+            if (suggestion != null) {
+                adjust(suggestion, -1);
+            }
+        }
+    }
+
+    List<Suggestion> suggest(String prefix, int limit) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        Suggestion[] top = node.top;
+        return Arrays.asList(Arrays.copyOf(top, Math.min(limit, top.length)));
+    }
+
+    int bookCount() {
+        return suggestionsByBook.size();
+    }
+
+    /** Lower-cased, accent-free words joined by single spaces. */
+    static String normalizeKey(String text) {
+        return String.join(" ", BookTokenizer.words(text));
+    }
+
+    private static boolean sameKey(Suggestion suggestion, String text) {
+        String key = normalizeKey(text);
+        return suggestion == null ? key.isEmpty() : suggestion.key.equals(key);
+    }
+
+    private Suggestion suggestion(Type type, String text) {
+        String key = normalizeKey(text);
+        if (key.isEmpty()) {
+            return null;
+        }
+        return suggestions.computeIfAbsent(type.name() + '\u0000' + key, ignored -> new Suggestion(type, text.trim(), key));
+    }
+
+    private void adjust(Suggestion suggestion, int delta) {
+        suggestion.weight += delta;
+        boolean removed = suggestion.weight <= 0;
+        if (removed) {
+            suggestions.remove(suggestion.type.name() + '\u0000' + suggestion.key);
+        }
+        for (String key : wordStarts(suggestion.key)) {
+            update(key, suggestion, removed);
+        }
+    }
+
+    private void update(String key, Suggestion suggestion, boolean removed) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].childOrCreate(key.charAt(i));
+        }
+
+        Node terminal = path[key.length()];
+        if (removed) {
+            terminal.removeTerminal(suggestion);
+        } else {
+            terminal.addTerminal(suggestion);
+        }
+
+        for (int depth = key.length(); depth >= 0; depth--) {
+            Node node = path[depth];
+            node.recomputeTop(topK);
+            if (depth > 0 && node.isEmpty()) {
+                path[depth - 1].removeChild(key.charAt(depth - 1));
+            }
+        }
+    }
+
+    private static List<String> wordStarts(String key) {
+        List<String> keys = new ArrayList<>();
+        keys.add(key);
+        int index = key.indexOf(' ');
+        while (index >= 0 && keys.size() < MAX_WORD_STARTS) {
+            keys.add(key.substring(index + 1));
+            index = key.indexOf(' ', index + 1);
+        }
+        return keys;
+    }
+
+    static final class Suggestion {
+        final Type type;
+        final String text;
+        final String key;
+        int weight;
+
+        Suggestion(Type type, String text, String key) {
+            this.type = type;
+            this.text = text;
+            this.key = key;
+        }
+    }
+
+    private static final class Node {
+        char[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+        Suggestion[] terminals = NO_SUGGESTIONS;
+        volatile Suggestion[] top = NO_SUGGESTIONS;
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            Node created = new Node();
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newKeys[insertAt] = c;
+            newChildren[insertAt] = created;
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            keys = newKeys;
+            children = newChildren;
+            return created;
+        }
+
+        void removeChild(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index < 0) {
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        void addTerminal(Suggestion suggestion) {
+            for (Suggestion terminal : terminals) {
+                if (terminal == suggestion) {
+                    return;
+                }
+            }
+            terminals = Arrays.copyOf(terminals, terminals.length + 1);
+            terminals[terminals.length - 1] = suggestion;
+        }
+
+        void removeTerminal(Suggestion suggestion) {
+            for (int i = 0; i < terminals.length; i++) {
+                if (terminals[i] == suggestion) {
+                    Suggestion[] remaining = new Suggestion[terminals.length - 1];
+                    System.arraycopy(terminals, 0, remaining, 0, i);
+                    System.arraycopy(terminals, i + 1, remaining, i, terminals.length - i - 1);
+                    terminals = remaining;
+                    return;
+                }
+            }
+        }
+
+        boolean isEmpty() {
+            return keys.length == 0 && terminals.length == 0;
+        }
+
+        /** The subtree's top-K is the best K of this node's terminals and each child's top-K. */
+        void recomputeTop(int topK) {
+            // A title can reach a node through two of its word starts, so dedupe by identity
+            Set<Suggestion> unique = Collections.newSetFromMap(new IdentityHashMap<>());
+            Collections.addAll(unique, terminals);
+            for (Node child : children) {
+                Collections.addAll(unique, child.top);
+            }
+            List<Suggestion> candidates = new ArrayList<>(unique);
+            candidates.sort(BY_WEIGHT);
+            top = candidates.subList(0, Math.min(topK, candidates.size())).toArray(NO_SUGGESTIONS);
+        }
+    }
+}
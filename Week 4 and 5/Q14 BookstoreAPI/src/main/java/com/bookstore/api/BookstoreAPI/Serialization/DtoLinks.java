@@ -0,0 +1,138 @@
+package com.bookstore.api.BookstoreAPI.Serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+
+/**
+ * HATEOAS links for book and customer DTOs, written while the DTO is serialized instead of
+ * wrapping it in an {@code EntityModel}. A handler calls {@link #apply()} with the link set
+ * it wants; {@link DtoLinksWriter} then adds the links to the response's top-level DTOs (the
+ * body, or the elements of a body that is a list). The output matches what {@code EntityModel}
+ * rendered: HAL {@code _links} for a JSON body, and a {@code links} list of rel/href pairs for
+ * XML and for the elements of a list, which Spring HATEOAS never rendered as HAL.
+ * <p>
+ * The base URL is resolved like {@code WebMvcLinkBuilder.linkTo} does, once per request.
+ */
+public enum DtoLinks {
+
+    BOOK("/books/", "all-books", "/books"),
+    BOOK_IN_LIST("/books/", null, null),
+    CUSTOMER("/customers/", "all-customers", "/customers"),
+    CUSTOMER_IN_LIST("/customers/", null, null);
+
+    private static final String ATTRIBUTE = DtoLinks.class.getName();
+    private static final String BASE_URL_ATTRIBUTE = ATTRIBUTE + ".baseUrl";
+    private static final SerializableString HAL_LINKS = new SerializedString("_links");
+    private static final SerializableString LINKS = new SerializedString("links");
+    private static final SerializableString SELF = new SerializedString("self");
+    private static final SerializableString REL = new SerializedString("rel");
+    private static final SerializableString HREF = new SerializedString("href");
+
+    private final String itemPath;
+    private final SerializableString collectionRel;
+    private final String collectionPath;
+
+    DtoLinks(String itemPath, String collectionRel, String collectionPath) {
+        this.itemPath = itemPath;
+        this.collectionRel = collectionRel != null ? new SerializedString(collectionRel) : null;
+        this.collectionPath = collectionPath;
+    }
+
+    /** Requests these links for the DTOs in the current response. */
+    public void apply() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(ATTRIBUTE, this, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * Called by the DTO serializers from inside the DTO's object, after its fields. Does
+     * nothing outside a request, when no handler asked for links, or for nested DTOs.
+     */
+    static void writeIfRequested(JsonGenerator gen, Long id) throws IOException {
+        if (id == null) {
+            return;
+        }
+        JsonStreamContext parent = gen.getOutputContext().getParent();
+        boolean body = parent != null && parent.inRoot();
+        if (!body && !isBodyList(parent)) {
+            return;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof DtoLinks links) {
+            links.write(gen, id, baseUrl(attributes), body && !(gen instanceof ToXmlGenerator));
+        }
+    }
+
+    private void write(JsonGenerator gen, long id, String baseUrl, boolean hal) throws IOException {
+        String self = baseUrl + itemPath + id;
+        if (!hal) {
+            gen.writeFieldName(LINKS);
+            gen.writeStartArray();
+            writeLink(gen, SELF, self);
+            if (collectionRel != null) {
+                writeLink(gen, collectionRel, baseUrl + collectionPath);
+            }
+            gen.writeEndArray();
+            return;
+        }
+        gen.writeFieldName(HAL_LINKS);
+        gen.writeStartObject();
+        writeHalLink(gen, SELF, self);
+        if (collectionRel != null) {
+            writeHalLink(gen, collectionRel, baseUrl + collectionPath);
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeHalLink(JsonGenerator gen, SerializableString rel, String href) throws IOException {
+        gen.writeFieldName(rel);
+        gen.writeStartObject();
+        gen.writeFieldName(HREF);
+        gen.writeString(href);
+        gen.writeEndObject();
+    }
+
+    private static void writeLink(JsonGenerator gen, SerializableString rel, String href) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(REL);
+        gen.writeString(rel);
+        gen.writeFieldName(HREF);
+        gen.writeString(href);
+        gen.writeEndObject();
+    }
+
+    /**
+     * The context is the body's own list. XmlMapper wraps a root-level list in an object for its
+     * {@code <List>} element; unlike the object of a DTO, that wrapper has no current value.
+     */
+    private static boolean isBodyList(JsonStreamContext context) {
+        if (context == null || !context.inArray()) {
+            return false;
+        }
+        JsonStreamContext parent = context.getParent();
+        if (parent != null && parent.inObject() && parent.getCurrentValue() == null) {
+            parent = parent.getParent();
+        }
+        return parent != null && parent.inRoot();
+    }
+
+    private static String baseUrl(RequestAttributes attributes) {
+        Object cached = attributes.getAttribute(BASE_URL_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cached instanceof String baseUrl) {
+            return baseUrl;
+        }
+        String baseUrl = ServletUriComponentsBuilder.fromCurrentServletMapping().toUriString();
+        attributes.setAttribute(BASE_URL_ATTRIBUTE, baseUrl, RequestAttributes.SCOPE_REQUEST);
+        return baseUrl;
+    }
+}
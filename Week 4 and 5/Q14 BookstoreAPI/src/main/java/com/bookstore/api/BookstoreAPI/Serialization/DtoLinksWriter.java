@@ -0,0 +1,49 @@
+package com.bookstore.api.BookstoreAPI.Serialization;
+
+import com.bookstore.api.BookstoreAPI.Book.BookDTO;
+import com.bookstore.api.BookstoreAPI.Customer.CustomerDTO;
+import com.bookstore.api.BookstoreAPI.Duplicates.DuplicateBookDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.ser.VirtualBeanPropertyWriter;
+import com.fasterxml.jackson.databind.util.Annotations;
+
+/**
+ * Appended to the DTOs with {@code @JsonAppend} so the bean serializer writes {@link DtoLinks}
+ * after the DTO's own properties.
+ */
+public class DtoLinksWriter extends VirtualBeanPropertyWriter {
+
+    public DtoLinksWriter() {
+    }
+
+    private DtoLinksWriter(BeanPropertyDefinition propertyDefinition, Annotations annotations, JavaType type) {
+        super(propertyDefinition, annotations, type);
+    }
+
+    @Override
+    protected Object value(Object bean, JsonGenerator gen, SerializerProvider provider) {
+        return null;
+    }
+
+    @Override
+    public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider provider) throws Exception {
+        if (bean instanceof BookDTO book) {
+            DtoLinks.writeIfRequested(gen, book.getId());
+        } else if (bean instanceof CustomerDTO customer) {
+            DtoLinks.writeIfRequested(gen, customer.getId());
+        } else if (bean instanceof DuplicateBookDTO duplicate && duplicate.getBook() != null) {
+            DtoLinks.writeIfRequested(gen, duplicate.getBook().getId());
+        }
+    }
+
+    @Override
+    public VirtualBeanPropertyWriter withConfig(MapperConfig<?> config, AnnotatedClass declaringClass,
+                                                BeanPropertyDefinition propertyDefinition, JavaType type) {
+        return new DtoLinksWriter(propertyDefinition, declaringClass.getAnnotations(), type);
+    }
+}
@@ -0,0 +1,29 @@
+package com.bookstore.api.BookstoreAPI.SlowQuery;
+
+import java.util.Arrays;
+
+/** Parameter values bound on one prepared statement, indexed by JDBC position (1-based). */
+final class Binds {
+
+    static final Object UNSET = new Object();
+
+    private Object[] values = new Object[0];
+
+    void set(int index, Object value) {
+        if (index >= values.length) {
+            int oldLength = values.length;
+            values = Arrays.copyOf(values, Math.max(index + 1, oldLength * 2));
+            Arrays.fill(values, oldLength, values.length, UNSET);
+        }
+        values[index] = value;
+    }
+
+    void clear() {
+        Arrays.fill(values, UNSET);
+    }
+
+    /** A copy, since the statement may be re-bound before its results are closed. */
+    Object[] snapshot() {
+        return values.length == 0 ? null : values.clone();
+    }
+}
@@ -0,0 +1,201 @@
+package com.bookstore.api.BookstoreAPI.SlowQuery;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * JDK dynamic proxies over DataSource, Connection, Statement and ResultSet that time each
+ * statement and hand it to {@link SlowQueryLog}. An update is reported when its execute call
+ * returns; a query when its result set (or, failing that, its statement) is closed, so the
+ * row count and the time spent in {@code next()} are known.
+ */
+final class JdbcProxies {
+
+    private JdbcProxies() {
+    }
+
+    static DataSource dataSource(DataSource target, SlowQueryLog log) {
+        return proxy(DataSource.class, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Connection connection ? connection(connection, log) : result;
+        });
+    }
+
+    static Connection connection(Connection target, SlowQueryLog log) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            return switch (method.getName()) {
+                case "createStatement" -> proxy(Statement.class, new StatementHandler((Statement) result, null, log));
+                case "prepareStatement" -> proxy(PreparedStatement.class, new StatementHandler((Statement) result, (String) args[0], log));
+                case "prepareCall" -> proxy(CallableStatement.class, new StatementHandler((Statement) result, (String) args[0], log));
+                default -> result;
+            };
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(JdbcProxies.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+        private final SlowQueryLog log;
+        private final Binds binds = new Binds();
+        private Execution open;
+
+        StatementHandler(Statement target, String preparedSql, SlowQueryLog log) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.log = log;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            switch (name) {
+                case "getResultSet" -> {
+                    ResultSet resultSet = (ResultSet) JdbcProxies.invoke(target, method, args);
+                    return resultSet != null && open != null ? resultSet(resultSet, open) : resultSet;
+                }
+                case "clearParameters" -> binds.clear();
+                case "close" -> finishOpen();
+                default -> {
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                        binds.set(index, name.equals("setNull") ? null : args[1]);
+                    }
+                }
+            }
+            return JdbcProxies.invoke(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            finishOpen();
+            String sql = preparedSql != null ? preparedSql
+                    : args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            // A batch holds many bind sets, of which only the last is still on the statement
+            Object[] boundValues = method.getName().endsWith("Batch") ? null : binds.snapshot();
+            Execution execution = new Execution(log, sql, boundValues, SlowQueryLog.currentCaller());
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = JdbcProxies.invoke(target, method, args);
+            } catch (Throwable e) {
+                execution.executeNanos = System.nanoTime() - start;
+                execution.finish(-1);
+                throw e;
+            }
+            execution.executeNanos = System.nanoTime() - start;
+
+            switch (method.getName()) {
+                case "executeQuery" -> {
+                    open = execution;
+                    return resultSet((ResultSet) result, execution);
+                }
+                case "execute" -> {
+                    if ((Boolean) result) {
+                        open = execution;
+                    } else {
+                        execution.finish(target.getUpdateCount());
+                    }
+                }
+                case "executeBatch" -> {
+                    long rows = 0;
+                    for (int count : (int[]) result) {
+                        rows += Math.max(count, 0);
+                    }
+                    execution.finish(rows);
+                }
+                case "executeLargeBatch" -> {
+                    long rows = 0;
+                    for (long count : (long[]) result) {
+                        rows += Math.max(count, 0);
+                    }
+                    execution.finish(rows);
+                }
+                default -> execution.finish(((Number) result).longValue());
+            }
+            return result;
+        }
+
+        private void finishOpen() {
+            if (open != null) {
+                open.finish(open.rows);
+                open = null;
+            }
+        }
+    }
+
+    private static ResultSet resultSet(ResultSet target, Execution execution) {
+        return proxy(ResultSet.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "next" -> {
+                    long start = System.nanoTime();
+                    boolean hasRow = (Boolean) invoke(target, method, args);
+                    execution.fetchNanos += System.nanoTime() - start;
+                    if (hasRow) {
+                        execution.rows++;
+                    }
+                    return hasRow;
+                }
+                case "close" -> {
+                    Object result = invoke(target, method, args);
+                    execution.finish(execution.rows);
+                    return result;
+                }
+                default -> {
+                    return invoke(target, method, args);
+                }
+            }
+        });
+    }
+
+    /** One execute call and, for queries, the reads from its result set. Confined to one thread like the statement. */
+    private static final class Execution {
+
+        private final SlowQueryLog log;
+        private final String sql;
+        private final Object[] binds;
+        private final Object caller;
+        long executeNanos;
+        long fetchNanos;
+        long rows;
+        private boolean finished;
+
+        Execution(SlowQueryLog log, String sql, Object[] binds, Object caller) {
+            this.log = log;
+            this.sql = sql;
+            this.binds = binds;
+            this.caller = caller;
+        }
+
+        void finish(long rowCount) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            log.record(sql, binds, rowCount, executeNanos, fetchNanos, caller);
+        }
+    }
+}
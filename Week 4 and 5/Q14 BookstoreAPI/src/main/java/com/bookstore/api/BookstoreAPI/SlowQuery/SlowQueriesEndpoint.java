@@ -0,0 +1,45 @@
+package com.bookstore.api.BookstoreAPI.SlowQuery;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The slowest statements since startup at /actuator/slowqueries, and the recent ones over
+ * the threshold at /actuator/slowqueries/recent. DELETE clears both.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueriesEndpoint {
+
+    private final SlowQueryLog slowQueryLog;
+
+    public SlowQueriesEndpoint(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @ReadOperation
+    public Map<String, Object> slowQueries() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("thresholdMs", slowQueryLog.thresholdMs());
+        result.put("slowCount", slowQueryLog.slowCount());
+        result.put("slowest", slowQueryLog.slowest());
+        return result;
+    }
+
+    @ReadOperation
+    public List<SlowStatement> slowQueries(@Selector String view) {
+        return "recent".equals(view) ? slowQueryLog.recent() : slowQueryLog.slowest();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        slowQueryLog.reset();
+    }
+}
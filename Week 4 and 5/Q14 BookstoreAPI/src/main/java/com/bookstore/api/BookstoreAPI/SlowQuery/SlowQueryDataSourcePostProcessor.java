@@ -0,0 +1,32 @@
+package com.bookstore.api.BookstoreAPI.SlowQuery;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps every DataSource bean so its statements are timed. The proxy forwards
+ * {@code unwrap}/{@code isWrapperFor}, so pool metrics still find the Hikari pool behind it.
+ */
+@Component
+@ConditionalOnProperty(name = "bookstore.slow-query.enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryDataSourcePostProcessor implements BeanPostProcessor {
+
+    // Resolved lazily: a BeanPostProcessor's direct dependencies are created before post-processing is set up
+    private final ObjectProvider<SlowQueryLog> slowQueryLog;
+
+    public SlowQueryDataSourcePostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return JdbcProxies.dataSource(dataSource, slowQueryLog.getObject());
+        }
+        return bean;
+    }
+}
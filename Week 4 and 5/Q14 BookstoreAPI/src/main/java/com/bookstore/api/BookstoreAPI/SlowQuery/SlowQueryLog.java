@@ -0,0 +1,240 @@
+package com.bookstore.api.BookstoreAPI.SlowQuery;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.regex.Pattern;
+
+/**
+ * Receives every statement timed by the JDBC proxy. Statements at or above the threshold are
+ * logged at WARN, with redacted binds and the caller, and kept in a bounded log of recent slow
+ * statements for the actuator endpoint; independently, the N slowest statements
+ * seen since startup (or the last reset) are kept in a table. Anything faster than both the
+ * threshold and the table's current minimum is dropped before its SQL or binds are formatted.
+ */
+@Component
+public class SlowQueryLog {
+
+    /** How bind values are shown. */
+    public enum Redaction {
+        /** Every value as bound. */
+        NONE,
+        /** Numbers, booleans and nulls as bound; strings, dates and byte arrays masked. */
+        STRINGS,
+        /** Only the bind positions. */
+        ALL
+    }
+
+    static final String REDACTED = "<redacted>";
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private static final int MAX_BIND_LENGTH = 100;
+    private static final Pattern IN_LIST = Pattern.compile("(?i)(\\bin\\s*)\\(\\?(?:\\s*,\\s*\\?)+\\)");
+    private static final Comparator<SlowStatement> BY_DURATION = Comparator.comparingDouble(SlowStatement::getDurationMs);
+
+    private final long thresholdNanos;
+    private final int topSize;
+    private final int logSize;
+    private final Redaction redaction;
+
+    private final PriorityQueue<SlowStatement> slowest;
+    private final Deque<SlowStatement> recent = new ArrayDeque<>();
+    private volatile long floorNanos;
+    private long slowCount;
+
+    public SlowQueryLog(@Value("${bookstore.slow-query.threshold-ms:200}") long thresholdMs,
+                        @Value("${bookstore.slow-query.top-size:50}") int topSize,
+                        @Value("${bookstore.slow-query.log-size:200}") int logSize,
+                        @Value("${bookstore.slow-query.redact-binds:STRINGS}") Redaction redaction) {
+        this.thresholdNanos = thresholdMs * 1_000_000L;
+        this.topSize = Math.max(1, topSize);
+        this.logSize = Math.max(1, logSize);
+        this.redaction = redaction;
+        this.slowest = new PriorityQueue<>(this.topSize + 1, BY_DURATION);
+    }
+
+    long thresholdMs() {
+        return thresholdNanos / 1_000_000L;
+    }
+
+    /**
+     * The controller method handling the current request, or the current thread's name when
+     * the statement runs outside a request (scheduled jobs, startup).
+     */
+    static Object currentCaller() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            Object handler = attributes.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (handler != null) {
+                return handler;
+            }
+        }
+        return Thread.currentThread().getName();
+    }
+
+    void record(String sql, Object[] binds, long rows, long executeNanos, long fetchNanos, Object caller) {
+        long nanos = executeNanos + fetchNanos;
+        boolean slow = nanos >= thresholdNanos;
+        if (!slow && nanos <= floorNanos) {
+            return;
+        }
+        SlowStatement statement = new SlowStatement(normalize(sql), formatBinds(binds, redaction), rows,
+                executeNanos, fetchNanos, describe(caller), Instant.now());
+        synchronized (this) {
+            if (slow) {
+                slowCount++;
+                recent.addFirst(statement);
+                if (recent.size() > logSize) {
+                    recent.removeLast();
+                }
+            }
+            slowest.add(statement);
+            if (slowest.size() > topSize) {
+                slowest.poll();
+            }
+            if (slowest.size() == topSize) {
+                floorNanos = (long) (slowest.peek().getDurationMs() * 1e6);
+            }
+        }
+        if (slow) {
+            log.warn("Slow statement: {} ms ({} ms fetching {} rows) from {}: {} binds {}",
+                String.format(Locale.ROOT, "%.1f", statement.getDurationMs()), String.format(Locale.ROOT, "%.1f", statement.getFetchMs()),
+                statement.getRows(), statement.getEndpoint(), statement.getSql(), statement.getBinds());
+        }
+    }
+
+    /** Slowest first. */
+    public synchronized List<SlowStatement> slowest() {
+        List<SlowStatement> result = new ArrayList<>(slowest);
+        result.sort(BY_DURATION.reversed());
+        return result;
+    }
+
+    /** Statements over the threshold, newest first. */
+    public synchronized List<SlowStatement> recent() {
+        return new ArrayList<>(recent);
+    }
+
+    public synchronized long slowCount() {
+        return slowCount;
+    }
+
+    public synchronized void reset() {
+        slowest.clear();
+        recent.clear();
+        slowCount = 0;
+        floorNanos = 0;
+    }
+
+    /**
+     * Collapses whitespace, replaces string and numeric literals with {@code ?} and folds
+     * {@code IN (?, ?, ?)} to {@code IN (?...)} so statements differing only in their
+     * values read the same. Digits inside identifiers (Hibernate's {@code b1_0}) are kept.
+     */
+    static String normalize(String sql) {
+        if (sql == null) {
+            return null;
+        }
+        StringBuilder out = new StringBuilder(sql.length());
+        int i = 0;
+        int length = sql.length();
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (!out.isEmpty() && i < length) {
+                    out.append(' ');
+                }
+            } else if (c == '\'') {
+                i++;
+                while (i < length) {
+                    if (sql.charAt(i) == '\'') {
+                        // '' is an escaped quote inside the literal
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        i++;
+                        break;
+                    }
+                    i++;
+                }
+                out.append('?');
+            } else if (Character.isDigit(c) && (out.isEmpty() || !isIdentifierPart(out.charAt(out.length() - 1)))) {
+                while (i < length && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                out.append('?');
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return IN_LIST.matcher(out).replaceAll("$1(?...)");
+    }
+
+    static String formatBinds(Object[] binds, Redaction redaction) {
+        if (binds == null) {
+            return "[]";
+        }
+        StringBuilder out = new StringBuilder("[");
+        for (int index = 1; index < binds.length; index++) {
+            Object value = binds[index];
+            if (value == Binds.UNSET) {
+                continue;
+            }
+            if (out.length() > 1) {
+                out.append(", ");
+            }
+            out.append(index).append('=');
+            appendBind(out, value, redaction);
+        }
+        return out.append(']').toString();
+    }
+
+    private static void appendBind(StringBuilder out, Object value, Redaction redaction) {
+        if (redaction == Redaction.ALL) {
+            out.append(REDACTED);
+        } else if (value == null || value instanceof Number || value instanceof Boolean) {
+            out.append(value);
+        } else if (redaction == Redaction.STRINGS) {
+            out.append(REDACTED);
+        } else if (value instanceof byte[] bytes) {
+            out.append("<").append(bytes.length).append(" bytes>");
+        } else {
+            String text = String.valueOf(value);
+            if (text.length() > MAX_BIND_LENGTH) {
+                text = text.substring(0, MAX_BIND_LENGTH) + "...";
+            }
+            out.append('\'').append(text).append('\'');
+        }
+    }
+
+    private static String describe(Object caller) {
+        if (caller instanceof HandlerMethod handlerMethod) {
+            return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        }
+        return "[" + caller + "]";
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '"';
+    }
+}
@@ -0,0 +1,63 @@
+package com.bookstore.api.BookstoreAPI.SlowQuery;
+
+import java.time.Instant;
+
+/** One timed statement execution as shown by /actuator/slowqueries. */
+public final class SlowStatement {
+
+    private final String sql;
+    private final String binds;
+    private final long rows;
+    private final double durationMs;
+    private final double executeMs;
+    private final double fetchMs;
+    private final String endpoint;
+    private final Instant timestamp;
+
+    SlowStatement(String sql, String binds, long rows, long executeNanos, long fetchNanos, String endpoint, Instant timestamp) {
+        this.sql = sql;
+        this.binds = binds;
+        this.rows = rows;
+        this.durationMs = (executeNanos + fetchNanos) / 1e6;
+        this.executeMs = executeNanos / 1e6;
+        this.fetchMs = fetchNanos / 1e6;
+        this.endpoint = endpoint;
+        this.timestamp = timestamp;
+    }
+
+    /** Whitespace collapsed, literals replaced by {@code ?} and IN lists folded. */
+    public String getSql() {
+        return sql;
+    }
+
+    public String getBinds() {
+        return binds;
+    }
+
+    /** Rows read or updated; -1 if the statement failed. */
+    public long getRows() {
+        return rows;
+    }
+
+    public double getDurationMs() {
+        return durationMs;
+    }
+
+    public double getExecuteMs() {
+        return executeMs;
+    }
+
+    /** Time spent inside {@code ResultSet.next()}, not including the caller's processing of each row. */
+    public double getFetchMs() {
+        return fetchMs;
+    }
+
+    /** Controller method that issued the statement, or the thread name outside a request. */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+}
@@ -0,0 +1,116 @@
+package com.bookstore.api.BookstoreAPI.Snapshot;
+
+import com.bookstore.api.BookstoreAPI.Book.BookDTO;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.bookstore.api.BookstoreAPI.Snapshot.CatalogSnapshotWriter.FORMAT;
+import static com.bookstore.api.BookstoreAPI.Snapshot.CatalogSnapshotWriter.HEADER_SIZE;
+import static com.bookstore.api.BookstoreAPI.Snapshot.CatalogSnapshotWriter.INDEX_ENTRY_SIZE;
+import static com.bookstore.api.BookstoreAPI.Snapshot.CatalogSnapshotWriter.MAGIC;
+import static com.bookstore.api.BookstoreAPI.Snapshot.CatalogSnapshotWriter.NULL_LENGTH;
+
+/**
+ * Read-only view of a snapshot file written by {@link CatalogSnapshotWriter}. The file is
+ * memory-mapped, so the catalog lives in the page cache rather than on the heap; a lookup is
+ * a binary search over the id index using absolute reads, which makes it safe to share
+ * between threads.
+ */
+final class CatalogSnapshot {
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final long generation;
+    private final int indexOffset;
+
+    private CatalogSnapshot(Path path, MappedByteBuffer buffer, int count, long generation, int indexOffset) {
+        this.path = path;
+        this.buffer = buffer;
+        this.count = count;
+        this.generation = generation;
+        this.indexOffset = indexOffset;
+    }
+
+    static CatalogSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a catalog snapshot: " + path);
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+                throw new IOException("Not a catalog snapshot: " + path);
+            }
+            int count = buffer.getInt(8);
+            long indexOffset = buffer.getLong(24);
+            if (indexOffset + (long) count * INDEX_ENTRY_SIZE != size) {
+                throw new IOException("Truncated catalog snapshot: " + path);
+            }
+            return new CatalogSnapshot(path, buffer, count, buffer.getLong(16), (int) indexOffset);
+        }
+    }
+
+    SnapshotBook find(long id) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entry = indexOffset + mid * INDEX_ENTRY_SIZE;
+            long midId = buffer.getLong(entry);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return read(id, buffer.getInt(entry + 8));
+            }
+        }
+        return null;
+    }
+
+    private SnapshotBook read(long id, int offset) {
+        long version = buffer.getLong(offset);
+        double price = buffer.getDouble(offset + 8);
+        int position = offset + 16;
+        String title = readString(position);
+        position += fieldSize(position);
+        String author = readString(position);
+        position += fieldSize(position);
+        String isbn = readString(position);
+        return new SnapshotBook(new BookDTO(id, title, author, Double.isNaN(price) ? null : price, isbn), version);
+    }
+
+    private String readString(int position) {
+        int length = Short.toUnsignedInt(buffer.getShort(position));
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(position + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int fieldSize(int position) {
+        int length = Short.toUnsignedInt(buffer.getShort(position));
+        return length == NULL_LENGTH ? 2 : 2 + length;
+    }
+
+    int size() {
+        return count;
+    }
+
+    long getGeneration() {
+        return generation;
+    }
+
+    Path getPath() {
+        return path;
+    }
+}
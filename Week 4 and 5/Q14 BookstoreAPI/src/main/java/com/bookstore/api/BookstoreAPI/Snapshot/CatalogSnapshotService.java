@@ -0,0 +1,133 @@
+package com.bookstore.api.BookstoreAPI.Snapshot;
+
+import com.bookstore.api.BookstoreAPI.Book.BookCatalogReloadedEvent;
+import com.bookstore.api.BookstoreAPI.Book.BookChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Snapshot mode for point reads. The book table is periodically written to a memory-mapped
+ * {@link CatalogSnapshot} and GET /books/{id} is answered from it without JPA. Books written
+ * since the snapshot was taken are tracked by id and always go to the database, as do ids
+ * the snapshot does not contain, so a snapshot is never staler than the last write.
+ * <p>
+ * A refresh writes a complete new file next to the current one and swaps the reference. Older
+ * files are then deleted; their mappings are released once no reader holds them.
+ */
+@Service
+public class CatalogSnapshotService {
+
+    private static final String SELECT_ORDERED = "SELECT id, title, author, price, isbn, version FROM book ORDER BY id";
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Path directory;
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+    private final ConcurrentHashMap<Long, Long> changedSinceSnapshot = new ConcurrentHashMap<>();
+    private final AtomicLong changeSequence = new AtomicLong();
+    private final Counter hits;
+    private final Counter fallbacks;
+
+    public CatalogSnapshotService(JdbcTemplate jdbcTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${bookstore.snapshot.enabled:false}") boolean enabled,
+                                  @Value("${bookstore.snapshot.directory:${java.io.tmpdir}/bookstore-snapshots}") String directory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.hits = meterRegistry.counter("catalog_snapshot_reads", "result", "hit");
+        this.fallbacks = meterRegistry.counter("catalog_snapshot_reads", "result", "fallback");
+        Gauge.builder("catalog_snapshot_books", current, ref -> ref.get() != null ? ref.get().size() : 0)
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** The book as of the current snapshot, or {@code null} if the caller has to ask the database. */
+    public SnapshotBook find(long id) {
+        CatalogSnapshot snapshot = current.get();
+        if (snapshot == null || changedSinceSnapshot.containsKey(id)) {
+            fallbacks.increment();
+            return null;
+        }
+        SnapshotBook book = snapshot.find(id);
+        (book != null ? hits : fallbacks).increment();
+        return book;
+    }
+
+    @EventListener
+    public void onBookChanged(BookChangedEvent event) {
+        Long id = event.getCurrent() != null ? event.getCurrent().getId() : event.getPrevious().getId();
+        changedSinceSnapshot.put(id, changeSequence.incrementAndGet());
+    }
+
+    @EventListener({ ApplicationReadyEvent.class, BookCatalogReloadedEvent.class })
+    @Scheduled(fixedDelayString = "${bookstore.snapshot.refresh-interval-ms:3600000}",
+               initialDelayString = "${bookstore.snapshot.refresh-interval-ms:3600000}")
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+        // Every change with a sequence up to here committed before the scan started
+        long scanStartSequence = changeSequence.get();
+        long generation = System.currentTimeMillis();
+        Path target = directory.resolve("catalog-" + generation + ".snapshot");
+
+        CatalogSnapshot next;
+        try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(directory)) {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT_ORDERED, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(FETCH_SIZE);
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    writer.add(rs.getLong(1), rs.getLong(6), rs.getString(2), rs.getString(3), rs.getObject(4, Double.class), rs.getString(5));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.publish(target, generation);
+            next = CatalogSnapshot.open(target);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write catalog snapshot " + target, e);
+        }
+
+        current.set(next);
+        changedSinceSnapshot.values().removeIf(sequence -> sequence <= scanStartSequence);
+        deleteOlderSnapshots(target);
+    }
+
+    private void deleteOlderSnapshots(Path keep) {
+        try (DirectoryStream<Path> snapshots = Files.newDirectoryStream(directory, "catalog-*.snapshot")) {
+            for (Path snapshot : snapshots) {
+                if (!snapshot.equals(keep)) {
+                    Files.deleteIfExists(snapshot);
+                }
+            }
+        } catch (IOException e) {
+            // Some platforms refuse to delete a file that is still mapped; the next refresh retries
+        }
+    }
+}
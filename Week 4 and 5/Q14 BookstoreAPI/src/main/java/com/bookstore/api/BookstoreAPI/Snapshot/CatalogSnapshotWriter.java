@@ -0,0 +1,126 @@
+package com.bookstore.api.BookstoreAPI.Snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a catalog snapshot file. Layout, all big-endian:
+ * <pre>
+ *   header   magic:int format:int count:int reserved:int generation:long indexOffset:long
+ *   records  version:long price:double title author isbn   (strings: length:u16 + UTF-8,
+ *                                                           length 0xFFFF meaning null)
+ *   index    count x (id:long recordOffset:int), ascending by id
+ * </pre>
+ * Records and index entries are streamed to two temporary files as books arrive, so writing
+ * needs no heap proportional to the catalog. {@link #publish} appends the index, fills in
+ * the header, forces the file to disk and renames it into place atomically.
+ */
+final class CatalogSnapshotWriter implements Closeable {
+
+    static final int MAGIC = 0x424B534E; // "BKSN"
+    static final int FORMAT = 1;
+    static final int HEADER_SIZE = 32;
+    static final int INDEX_ENTRY_SIZE = 12;
+    static final int NULL_LENGTH = 0xFFFF;
+
+    private final Path recordsFile;
+    private final Path indexFile;
+    private final DataOutputStream records;
+    private final DataOutputStream index;
+    private long recordsSize = HEADER_SIZE;
+    private int count;
+    private long lastId = Long.MIN_VALUE;
+    private boolean published;
+
+    CatalogSnapshotWriter(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.recordsFile = Files.createTempFile(directory, "catalog-", ".records");
+        this.indexFile = Files.createTempFile(directory, "catalog-", ".index");
+        this.records = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(recordsFile), 1 << 16));
+        this.index = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile), 1 << 16));
+        records.write(new byte[HEADER_SIZE]);
+    }
+
+    /** Appends a book; ids must arrive in ascending order. */
+    void add(long id, long version, String title, String author, Double price, String isbn) throws IOException {
+        if (id <= lastId) {
+            throw new IllegalArgumentException("Books must be added in ascending id order, got " + id + " after " + lastId);
+        }
+        if (recordsSize > Integer.MAX_VALUE) {
+            throw new IOException("Catalog snapshot exceeds 2 GB");
+        }
+        lastId = id;
+        index.writeLong(id);
+        index.writeInt((int) recordsSize);
+
+        records.writeLong(version);
+        records.writeDouble(price != null ? price : Double.NaN);
+        recordsSize += 16;
+        recordsSize += writeString(title);
+        recordsSize += writeString(author);
+        recordsSize += writeString(isbn);
+        count++;
+    }
+
+    private int writeString(String value) throws IOException {
+        if (value == null) {
+            records.writeShort(NULL_LENGTH);
+            return 2;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NULL_LENGTH) {
+            throw new IOException("Field too long for a catalog snapshot: " + bytes.length + " bytes");
+        }
+        records.writeShort(bytes.length);
+        records.write(bytes);
+        return 2 + bytes.length;
+    }
+
+    void publish(Path target, long generation) throws IOException {
+        records.close();
+        index.close();
+        long indexOffset = recordsSize;
+        if (indexOffset + (long) count * INDEX_ENTRY_SIZE > Integer.MAX_VALUE) {
+            throw new IOException("Catalog snapshot exceeds 2 GB");
+        }
+        try (FileChannel out = FileChannel.open(recordsFile, StandardOpenOption.WRITE);
+             FileChannel in = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            long size = in.size();
+            for (long copied = 0; copied < size; ) {
+                copied += in.transferTo(copied, size - copied, out.position(indexOffset + copied));
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putInt(FORMAT)
+                .putInt(count)
+                .putInt(0)
+                .putLong(generation)
+                .putLong(indexOffset)
+                .flip();
+            out.write(header, 0);
+            out.force(true);
+        }
+        Files.move(recordsFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        published = true;
+        Files.deleteIfExists(indexFile);
+    }
+
+    @Override
+    public void close() throws IOException {
+        records.close();
+        index.close();
+        Files.deleteIfExists(indexFile);
+        if (!published) {
+            Files.deleteIfExists(recordsFile);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.bookstore.api.BookstoreAPI.Snapshot;
+
+import com.bookstore.api.BookstoreAPI.Book.BookDTO;
+
+/** A book read from a catalog snapshot, with the entity version it had when the snapshot was taken. */
+public final class SnapshotBook {
+
+    private final BookDTO book;
+    private final long version;
+
+    SnapshotBook(BookDTO book, long version) {
+        this.book = book;
+        this.version = version;
+    }
+
+    public BookDTO getBook() {
+        return book;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,163 @@
+package com.bookstore.api.BookstoreAPI.Throttling;
+
+import com.bookstore.api.BookstoreAPI.ErrorHandling.ErrorBodies;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sheds load in front of the book and customer endpoints before it reaches the connection
+ * pool. Reads and writes get separate adaptive limits so a burst of slow writes cannot starve
+ * lookups. Requests over the limit are answered immediately with 503 and Retry-After.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final byte[] rejectionBody;
+    private final boolean enabled;
+    private final long retryAfterSeconds;
+    private final ConcurrencyLimiter readLimiter;
+    private final ConcurrencyLimiter writeLimiter;
+    private final Counter readRejections;
+    private final Counter writeRejections;
+
+    public AdmissionControlFilter(ErrorBodies errorBodies,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${bookstore.admission.enabled:true}") boolean enabled,
+                                  @Value("${bookstore.admission.retry-after-seconds:1}") long retryAfterSeconds,
+                                  @Value("${bookstore.admission.window-ms:100}") long windowMillis,
+                                  @Value("${bookstore.admission.min-limit:4}") int minLimit,
+                                  @Value("${bookstore.admission.read.initial-limit:64}") int readInitialLimit,
+                                  @Value("${bookstore.admission.read.max-limit:512}") int readMaxLimit,
+                                  @Value("${bookstore.admission.write.initial-limit:16}") int writeInitialLimit,
+                                  @Value("${bookstore.admission.write.max-limit:128}") int writeMaxLimit) {
+        this.rejectionBody = errorBodies.fixed("Service unavailable", "The server is at capacity, please retry later");
+        this.enabled = enabled;
+        this.retryAfterSeconds = retryAfterSeconds;
+        long windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.readLimiter = new ConcurrencyLimiter(new GradientLimit(readInitialLimit, minLimit, readMaxLimit, windowNanos));
+        this.writeLimiter = new ConcurrencyLimiter(new GradientLimit(writeInitialLimit, minLimit, writeMaxLimit, windowNanos));
+        this.readRejections = registerMeters(meterRegistry, "read", readLimiter);
+        this.writeRejections = registerMeters(meterRegistry, "write", writeLimiter);
+    }
+
+    private static Counter registerMeters(MeterRegistry meterRegistry, String type, ConcurrencyLimiter limiter) {
+        Gauge.builder("admission_limit", limiter, ConcurrencyLimiter::getLimit)
+            .tag("type", type)
+            .description("Current adaptive concurrency limit")
+            .register(meterRegistry);
+        Gauge.builder("admission_in_flight", limiter, ConcurrencyLimiter::getInFlight)
+            .tag("type", type)
+            .description("Requests admitted and not yet finished")
+            .register(meterRegistry);
+        return Counter.builder("admission_rejected")
+            .tag("type", type)
+            .description("Requests rejected with 503 by admission control")
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !(isUnder(path, "/books") || isUnder(path, "/customers"));
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // The permit taken on the original dispatch is released when the async request completes
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean read = isRead(request.getMethod());
+        ConcurrencyLimiter limiter = read ? readLimiter : writeLimiter;
+        if (!limiter.tryAcquire()) {
+            (read ? readRejections : writeRejections).increment();
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(limiter, start));
+            } else {
+                limiter.release(start, failed || response.getStatus() >= 500);
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(rejectionBody.length);
+        response.getOutputStream().write(rejectionBody);
+    }
+
+    private static boolean isRead(String method) {
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+
+    private static boolean isUnder(String path, String prefix) {
+        return path.equals(prefix) || path.startsWith(prefix + "/");
+    }
+
+    private static final class ReleaseOnComplete implements AsyncListener {
+        private final ConcurrencyLimiter limiter;
+        private final long start;
+
+        ReleaseOnComplete(ConcurrencyLimiter limiter, long start) {
+            this.limiter = limiter;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            HttpServletResponse response = (HttpServletResponse) event.getSuppliedResponse();
+            limiter.release(start, response.getStatus() >= 500);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // onComplete follows a timeout; the late status will be 5xx and count as dropped
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // onComplete follows an error as well
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
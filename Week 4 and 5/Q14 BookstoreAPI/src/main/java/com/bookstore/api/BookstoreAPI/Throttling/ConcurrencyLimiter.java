@@ -0,0 +1,43 @@
+package com.bookstore.api.BookstoreAPI.Throttling;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admits a request only while fewer than the adaptive limit are in flight. Admission is a CAS
+ * on the in-flight counter, so a rejection costs no locking and no queueing.
+ */
+class ConcurrencyLimiter {
+
+    private final GradientLimit limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    ConcurrencyLimiter(GradientLimit limit) {
+        this.limit = limit;
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void release(long startNanos, boolean dropped) {
+        int concurrency = inFlight.getAndDecrement();
+        long now = System.nanoTime();
+        limit.onSample(now, now - startNanos, concurrency, dropped);
+    }
+
+    int getLimit() {
+        return limit.getLimit();
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,96 @@
+package com.bookstore.api.BookstoreAPI.Throttling;
+
+/**
+ * Concurrency limit derived from observed latency, in the style of the gradient limiters used
+ * by Netflix's concurrency-limits. Samples are averaged over short windows; each window's
+ * average ("short RTT") is compared with a slowly moving long-term average:
+ * <pre>
+ *   gradient = clamp(TOLERANCE * longRtt / shortRtt, 0.5, 1.0)
+ *   newLimit = limit * gradient + sqrt(limit)
+ * </pre>
+ * While latency stays within the tolerance the limit grows by its square root per window;
+ * when queueing pushes latency up the gradient shrinks it. A window that saw failures backs
+ * off multiplicatively, AIMD style. A window where the limit was not even half used leaves it
+ * alone, since it says nothing about capacity.
+ */
+class GradientLimit {
+
+    static final double TOLERANCE = 1.5;
+    static final double SMOOTHING = 0.2;
+    static final double LONG_RTT_ALPHA = 0.05;
+    static final double BACKOFF_RATIO = 0.9;
+    static final int MIN_WINDOW_SAMPLES = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+
+    private double limit;
+    private double longRtt;
+    private volatile int currentLimit;
+
+    private long windowStart;
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private boolean windowDropped;
+
+    GradientLimit(int initialLimit, int minLimit, int maxLimit, long windowNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowNanos = windowNanos;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.currentLimit = (int) limit;
+    }
+
+    int getLimit() {
+        return currentLimit;
+    }
+
+    /**
+     * Records one completed request. {@code inFlight} is the concurrency it ran at and
+     * {@code dropped} marks a failure that should be read as overload.
+     */
+    synchronized void onSample(long nowNanos, long rttNanos, int inFlight, boolean dropped) {
+        if (windowSamples == 0) {
+            windowStart = nowNanos;
+        }
+        windowRttSum += rttNanos;
+        windowSamples++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlight);
+        windowDropped |= dropped;
+
+        if (windowSamples < MIN_WINDOW_SAMPLES || nowNanos - windowStart < windowNanos) {
+            return;
+        }
+        update((double) windowRttSum / windowSamples, windowMaxInFlight, windowDropped);
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+        windowDropped = false;
+    }
+
+    private void update(double shortRtt, int maxInFlight, boolean dropped) {
+        if (dropped) {
+            setLimit(limit * BACKOFF_RATIO);
+            return;
+        }
+        shortRtt = Math.max(1, shortRtt);
+        longRtt = longRtt == 0 ? shortRtt : longRtt * (1 - LONG_RTT_ALPHA) + shortRtt * LONG_RTT_ALPHA;
+        // After a long overload the baseline is inflated; let it recover quickly once latency drops
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        if (maxInFlight < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        setLimit(limit * (1 - SMOOTHING) + newLimit * SMOOTHING);
+    }
+
+    private void setLimit(double newLimit) {
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        currentLimit = (int) limit;
+    }
+}
@@ -0,0 +1,26 @@
+package com.bookstore.api.BookstoreAPI.Throttling;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private final RateLimitInterceptor rateLimitInterceptor;
+    private final boolean enabled;
+
+    public RateLimitConfig(RateLimitInterceptor rateLimitInterceptor,
+                           @Value("${bookstore.ratelimit.enabled:true}") boolean enabled) {
+        this.rateLimitInterceptor = rateLimitInterceptor;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (enabled) {
+            registry.addInterceptor(rateLimitInterceptor).addPathPatterns("/books", "/books/**", "/customers", "/customers/**");
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.bookstore.api.BookstoreAPI.Throttling;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Charges each request to the caller's API key, or to its address when it sent none. Runs as
+ * an interceptor rather than a filter so rejections reach GlobalExceptionHandler. Handlers
+ * returning a WebAsyncTask pass through here twice; only the first dispatch is charged.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final RateLimiter rateLimiter;
+    private final String keyHeader;
+    private final String burst;
+
+    public RateLimitInterceptor(RateLimiter rateLimiter,
+                                @Value("${bookstore.ratelimit.key-header:X-API-Key}") String keyHeader) {
+        this.rateLimiter = rateLimiter;
+        this.keyHeader = keyHeader;
+        this.burst = Integer.toString(rateLimiter.getBurst());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The async redispatch only writes the result; the handler may already have committed a write
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        String apiKey = request.getHeader(keyHeader);
+        String key = apiKey != null && !apiKey.isBlank() ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+        long remaining = rateLimiter.acquire(key);
+        response.setHeader(LIMIT_HEADER, burst);
+        response.setHeader(REMAINING_HEADER, Long.toString(remaining));
+        return true;
+    }
+}
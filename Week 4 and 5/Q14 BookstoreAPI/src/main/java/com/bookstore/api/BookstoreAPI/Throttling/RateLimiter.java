@@ -0,0 +1,63 @@
+package com.bookstore.api.BookstoreAPI.Throttling;
+
+import com.bookstore.api.BookstoreAPI.ErrorHandling.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One token bucket per client key. Lookups are lock-free ConcurrentHashMap reads; a bucket is
+ * only created on a client's first request. Full buckets are swept periodically so the map
+ * only holds clients that have recently spent part of their burst.
+ */
+@Component
+public class RateLimiter {
+
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final double requestsPerSecond;
+    private final int burst;
+    private final Counter rejections;
+
+    public RateLimiter(MeterRegistry meterRegistry,
+                       @Value("${bookstore.ratelimit.requests-per-second:100}") double requestsPerSecond,
+                       @Value("${bookstore.ratelimit.burst:200}") int burst) {
+        this.requestsPerSecond = requestsPerSecond;
+        this.burst = burst;
+        this.rejections = meterRegistry.counter("ratelimit_rejected");
+        meterRegistry.gaugeMapSize("ratelimit_buckets", Tags.empty(), buckets);
+    }
+
+    /** Spends one token of {@code key}'s bucket and returns the tokens left. */
+    public long acquire(String key) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, ignored -> new TokenBucket(requestsPerSecond, burst, now));
+        }
+        long remaining = bucket.tryConsume(now);
+        if (remaining == TokenBucket.REJECTED) {
+            rejections.increment();
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(bucket.nanosUntilNextToken(now) + 999_999_999L));
+            throw new RateLimitExceededException("Rate limit exceeded, retry in " + retryAfter + "s", burst, retryAfter);
+        }
+        return remaining;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    // A request racing with the sweep can land in a dropped bucket; at worst that client
+    // gets one extra burst
+    @Scheduled(fixedDelayString = "${bookstore.ratelimit.sweep-interval-ms:60000}")
+    public void sweepFullBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+}
@@ -0,0 +1,209 @@
+package com.bookstore.api.BookstoreAPI.Throttling;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+
+/**
+ * Two bounded FIFO queues served by two groups of threads. Read threads only ever run reads,
+ * so they are a reserve writes cannot take. Write threads run writes, but once every read
+ * thread is busy they take queued reads first: reads overflow onto them ahead of the write
+ * backlog, and at most {@code writeThreads} writes run at a time.
+ * <p>
+ * One lock guards both queues; a task is only held under it for the duration of a deque
+ * operation. A timed-out request is cancelled by interrupting its thread, so the interrupt
+ * status is cleared after every task rather than carried into the next request.
+ */
+final class ReadFirstScheduler {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition readQueued = lock.newCondition();
+    private final Condition workQueued = lock.newCondition();
+    private final ArrayDeque<Runnable> reads = new ArrayDeque<>();
+    private final ArrayDeque<Runnable> writes = new ArrayDeque<>();
+    private final int readCapacity;
+    private final int writeCapacity;
+    private final int readThreads;
+
+    // Guarded by lock
+    private int busyReadThreads;
+    private int runningReads;
+    private int runningWrites;
+    private boolean shutdown;
+
+    ReadFirstScheduler(int readThreads, int readCapacity, int writeThreads, int writeCapacity) {
+        this.readThreads = Math.max(1, readThreads);
+        this.readCapacity = Math.max(1, readCapacity);
+        this.writeCapacity = Math.max(1, writeCapacity);
+        for (int i = 1; i <= this.readThreads; i++) {
+            start("read-handler-" + i, this::runReads);
+        }
+        for (int i = 1; i <= Math.max(1, writeThreads); i++) {
+            start("write-handler-" + i, this::runWritesAndOverflowReads);
+        }
+    }
+
+    private static void start(String name, Runnable loop) {
+        Thread thread = new Thread(loop, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void submitRead(Runnable task) {
+        lock.lock();
+        try {
+            if (shutdown || reads.size() >= readCapacity) {
+                throw new RejectedExecutionException("Read queue is full");
+            }
+            reads.addLast(task);
+            (busyReadThreads < readThreads ? readQueued : workQueued).signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void submitWrite(Runnable task) {
+        lock.lock();
+        try {
+            if (shutdown || writes.size() >= writeCapacity) {
+                throw new RejectedExecutionException("Write queue is full");
+            }
+            writes.addLast(task);
+            workQueued.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void runReads() {
+        while (true) {
+            Runnable task;
+            lock.lock();
+            try {
+                while (reads.isEmpty() && !shutdown) {
+                    readQueued.awaitUninterruptibly();
+                }
+                if (shutdown) {
+                    return;
+                }
+                task = reads.pollFirst();
+                busyReadThreads++;
+                runningReads++;
+                // Reads still queued with every read thread taken are for the write threads
+                if (busyReadThreads == readThreads && !reads.isEmpty()) {
+                    workQueued.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+            run(task);
+            lock.lock();
+            try {
+                busyReadThreads--;
+                runningReads--;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void runWritesAndOverflowReads() {
+        while (true) {
+            Runnable task;
+            boolean read;
+            lock.lock();
+            try {
+                while (!shutdown && !(canOverflowRead() || !writes.isEmpty())) {
+                    workQueued.awaitUninterruptibly();
+                }
+                if (shutdown) {
+                    return;
+                }
+                read = canOverflowRead();
+                task = read ? reads.pollFirst() : writes.pollFirst();
+                if (read) {
+                    runningReads++;
+                } else {
+                    runningWrites++;
+                }
+            } finally {
+                lock.unlock();
+            }
+            run(task);
+            lock.lock();
+            try {
+                if (read) {
+                    runningReads--;
+                } else {
+                    runningWrites--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private boolean canOverflowRead() {
+        return !reads.isEmpty() && busyReadThreads == readThreads;
+    }
+
+    private static void run(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            // Handler failures are reported through the task's future; keep the thread serving
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    int queuedReads() {
+        return locked(reads::size);
+    }
+
+    int queuedWrites() {
+        return locked(writes::size);
+    }
+
+    int runningReads() {
+        return locked(() -> runningReads);
+    }
+
+    int runningWrites() {
+        return locked(() -> runningWrites);
+    }
+
+    private int locked(IntSupplier value) {
+        lock.lock();
+        try {
+            return value.getAsInt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops taking tasks and returns the queued ones, which will not run here; running ones
+     * finish on their own.
+     */
+    List<Runnable> shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            List<Runnable> queued = new ArrayList<>(reads.size() + writes.size());
+            queued.addAll(reads);
+            queued.addAll(writes);
+            reads.clear();
+            writes.clear();
+            readQueued.signalAll();
+            workQueued.signalAll();
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.bookstore.api.BookstoreAPI.Throttling;
+
+import com.bookstore.api.BookstoreAPI.Metrics.AllocationMetrics;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Runs book and customer handlers off the Tomcat worker threads (servlet async through
+ * {@link WebAsyncTask}), with priority for reads. {@code read.threads} threads only run GETs,
+ * so a burst of {@code POST /books} cannot take the threads lookups need. The
+ * {@code write.threads} threads run writes, at most that many at a time, but take queued
+ * reads ahead of the write backlog whenever every read thread is busy (see
+ * {@link ReadFirstScheduler}). Writes queue rather than push read latency up. Container
+ * threads only parse requests and write responses.
+ * <p>
+ * Per class ({@code read}, {@code write}) the queue depth, running handlers and time spent
+ * queued are exported as {@code request_executor_queue_depth}, {@code request_executor_active}
+ * and {@code request_executor_queue_wait}. A full queue answers 503, a request that does not
+ * finish within {@code timeout-ms} as well. With {@code bookstore.executors.enabled=false}
+ * handlers still go through servlet async but run on the calling thread.
+ * <p>
+ * What a handler allocates on its executor thread is recorded in {@code request_allocated_bytes}
+ * (see {@link AllocationMetrics}), as the container thread's allocation is for synchronous requests.
+ */
+@Component
+public class RequestExecutors {
+
+    private final ReadFirstScheduler scheduler;
+    private final Lane reads;
+    private final Lane writes;
+    private final long timeoutMillis;
+    private volatile boolean shutDown;
+
+    public RequestExecutors(MeterRegistry meterRegistry,
+                            AllocationMetrics allocationMetrics,
+                            @Value("${bookstore.executors.enabled:true}") boolean enabled,
+                            @Value("${bookstore.executors.timeout-ms:30000}") long timeoutMillis,
+                            @Value("${bookstore.executors.read.threads:32}") int readThreads,
+                            @Value("${bookstore.executors.read.queue:1000}") int readQueue,
+                            @Value("${bookstore.executors.write.threads:8}") int writeThreads,
+                            @Value("${bookstore.executors.write.queue:10000}") int writeQueue) {
+        this.timeoutMillis = timeoutMillis;
+        this.scheduler = enabled ? new ReadFirstScheduler(readThreads, readQueue, writeThreads, writeQueue) : null;
+        this.reads = new Lane("read", enabled ? scheduler::submitRead : RequestExecutors::runInline, meterRegistry, allocationMetrics);
+        this.writes = new Lane("write", enabled ? scheduler::submitWrite : RequestExecutors::runInline, meterRegistry, allocationMetrics);
+        if (enabled) {
+            registerGauges(meterRegistry, "read", ReadFirstScheduler::queuedReads, ReadFirstScheduler::runningReads);
+            registerGauges(meterRegistry, "write", ReadFirstScheduler::queuedWrites, ReadFirstScheduler::runningWrites);
+        }
+    }
+
+    private void registerGauges(MeterRegistry meterRegistry, String requestClass,
+                                ToDoubleFunction<ReadFirstScheduler> queued, ToDoubleFunction<ReadFirstScheduler> running) {
+        Gauge.builder("request_executor_queue_depth", scheduler, queued)
+            .description("Requests waiting for a handler thread")
+            .tag("class", requestClass)
+            .register(meterRegistry);
+        Gauge.builder("request_executor_active", scheduler, running)
+            .description("Handlers running on a handler thread")
+            .tag("class", requestClass)
+            .register(meterRegistry);
+    }
+
+    /** For GET handlers: runs on a read thread, or an idle write thread when those are all busy. */
+    public <T> WebAsyncTask<T> read(Callable<T> handler) {
+        return new WebAsyncTask<>(timeoutMillis, reads.executor, unlessShutDown(handler));
+    }
+
+    /** For POST, PUT, PATCH and DELETE handlers: queued for a write thread. */
+    public <T> WebAsyncTask<T> write(Callable<T> handler) {
+        return new WebAsyncTask<>(timeoutMillis, writes.executor, unlessShutDown(handler));
+    }
+
+    private <T> Callable<T> unlessShutDown(Callable<T> handler) {
+        return () -> {
+            if (shutDown) {
+                throw new TaskRejectedException("Handler executors are shut down");
+            }
+            return handler.call();
+        };
+    }
+
+    /**
+     * Runs a handler on the calling thread with that thread's transaction resources (the
+     * open-in-view {@code EntityManager}) set aside, as a handler thread would not have them:
+     * the async interceptors bind their own.
+     */
+    private static void runInline(Runnable task) {
+        Map<Object, Object> bound = new HashMap<>(TransactionSynchronizationManager.getResourceMap());
+        bound.keySet().forEach(TransactionSynchronizationManager::unbindResource);
+        try {
+            task.run();
+        } finally {
+            bound.forEach(TransactionSynchronizationManager::bindResource);
+        }
+    }
+
+    /**
+     * Requests still queued are run on the calling thread without their handler, so each
+     * answers 503 at once instead of waiting for the async timeout.
+     */
+    @PreDestroy
+    public void shutdown() {
+        shutDown = true;
+        if (scheduler != null) {
+            scheduler.shutdown().forEach(Runnable::run);
+        }
+    }
+
+    private static final class Lane {
+
+        private final AsyncTaskExecutor executor;
+        private final Timer queueWait;
+        private final AllocationMetrics allocationMetrics;
+
+        Lane(String requestClass, Executor target, MeterRegistry meterRegistry, AllocationMetrics allocationMetrics) {
+            this.allocationMetrics = allocationMetrics;
+            this.queueWait = Timer.builder("request_executor_queue_wait")
+                .description("Time a request waited for a handler thread")
+                .tag("class", requestClass)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+            TaskExecutorAdapter adapter = new TaskExecutorAdapter(target);
+            adapter.setTaskDecorator(this::bindRequest);
+            this.executor = adapter;
+        }
+
+        /**
+         * Exposes the request to {@code RequestContextHolder} on the handler thread. The caller's
+         * attributes are marked completed once the original dispatch returns, so the handler
+         * thread gets its own view of the same request. The allocation summary is looked up
+         * here, before the task runs: the task ends by dispatching the result, after which the
+         * request may already be recycled.
+         */
+        private Runnable bindRequest(Runnable task) {
+            RequestAttributes callerAttributes = RequestContextHolder.getRequestAttributes();
+            HttpServletRequest request = callerAttributes instanceof ServletRequestAttributes servletAttributes
+                ? servletAttributes.getRequest() : null;
+            HttpServletResponse response = callerAttributes instanceof ServletRequestAttributes servletAttributes
+                ? servletAttributes.getResponse() : null;
+            DistributionSummary allocated = request != null ? allocationMetrics.summaryFor(request) : null;
+            long queuedAt = System.nanoTime();
+            return () -> {
+                queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+                if (request != null) {
+                    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+                }
+                long allocatedBefore = allocated != null ? allocationMetrics.currentThreadAllocatedBytes() : 0;
+                try {
+                    task.run();
+                } finally {
+                    if (allocated != null) {
+                        allocated.record(allocationMetrics.currentThreadAllocatedBytes() - allocatedBefore);
+                    }
+                    RequestContextHolder.setRequestAttributes(previous);
+                }
+            };
+        }
+    }
+}
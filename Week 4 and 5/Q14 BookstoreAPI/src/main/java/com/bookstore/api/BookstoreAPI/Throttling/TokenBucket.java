@@ -0,0 +1,47 @@
+package com.bookstore.api.BookstoreAPI.Throttling;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket kept as a single "theoretical arrival time" (the GCRA formulation): the bucket
+ * is full when that time is in the past, and each request pushes it one emission interval
+ * further. Consuming a token is one CAS on one long, with no lock and no allocation.
+ */
+final class TokenBucket {
+
+    static final long REJECTED = -1;
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(double tokensPerSecond, int capacity, long nowNanos) {
+        this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / tokensPerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * capacity;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /** Takes one token and returns how many are left, or {@link #REJECTED} if the bucket is empty. */
+    long tryConsume(long nowNanos) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, nowNanos) + emissionIntervalNanos;
+            long inUse = next - nowNanos;
+            if (inUse > burstToleranceNanos) {
+                return REJECTED;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return (burstToleranceNanos - inUse) / emissionIntervalNanos;
+            }
+        }
+    }
+
+    long nanosUntilNextToken(long nowNanos) {
+        return Math.max(0, theoreticalArrival.get() + emissionIntervalNanos - burstToleranceNanos - nowNanos);
+    }
+
+    /** A full bucket carries no state worth keeping. */
+    boolean isFull(long nowNanos) {
+        return theoreticalArrival.get() <= nowNanos;
+    }
+}
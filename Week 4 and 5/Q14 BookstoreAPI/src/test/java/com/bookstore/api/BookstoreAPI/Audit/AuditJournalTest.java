@@ -0,0 +1,106 @@
+package com.bookstore.api.BookstoreAPI.Audit;
+
+import com.bookstore.api.BookstoreAPI.Audit.AuditRecord.Action;
+import com.bookstore.api.BookstoreAPI.Audit.AuditRecord.EntityType;
+import com.bookstore.api.BookstoreAPI.Book.Book;
+import com.bookstore.api.BookstoreAPI.Book.BookRepository;
+import com.bookstore.api.BookstoreAPI.Customer.Customer;
+import com.bookstore.api.BookstoreAPI.Customer.CustomerRepository;
+import com.bookstore.api.BookstoreAPI.Import.BookImportFormat;
+import com.bookstore.api.BookstoreAPI.Import.BookImportJob;
+import com.bookstore.api.BookstoreAPI.Import.BookImportService;
+import com.bookstore.api.BookstoreAPI.Isbn.Isbn;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "bookstore.audit.enabled=true")
+class AuditJournalTest {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void auditDirectory(DynamicPropertyRegistry registry) {
+        registry.add("bookstore.audit.directory", () -> directory.resolve("audit").toString());
+    }
+
+    @Autowired
+    private AuditJournal journal;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        bookRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void committedWritesAreOnDiskWhenTheyReturn() {
+        Book book = bookRepository.save(new Book("Audited", "Author", 12.5, "0000000110"));
+        book.setPrice(15.0);
+        bookRepository.save(book);
+        bookRepository.deleteById(book.getId());
+
+        List<AuditRecord> history = journal.history(EntityType.BOOK, book.getId());
+        assertEquals(List.of(Action.CREATED, Action.UPDATED, Action.DELETED), history.stream().map(AuditRecord::getAction).toList());
+        assertEquals("15.0", history.get(1).getState().get("price"));
+    }
+
+    @Test
+    void writesThatRollBackAreNotRecorded() {
+        Long[] id = new Long[1];
+        assertThrows(IllegalStateException.class, () -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            id[0] = customerRepository.saveAndFlush(new Customer("Ann", "ann@example.com", "5551234567")).getId();
+            throw new IllegalStateException("abort");
+        }));
+
+        assertEquals(List.of(), journal.history(EntityType.CUSTOMER, id[0]));
+    }
+
+    @Test
+    void importedBooksAreRecorded() throws Exception {
+        Path file = Files.writeString(directory.resolve("books.csv"),
+            "title,author,price,isbn\nImported One,Author,9.5,0000000220\nImported Two,Author,7.0,0000000330\n");
+        BookImportJob job = bookImportService.start(file, BookImportFormat.CSV);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (job.getStatus() == BookImportJob.Status.RUNNING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(BookImportJob.Status.COMPLETED, job.getStatus());
+        assertEquals(2, job.getRowsImported());
+
+        for (String isbn : List.of("0000000220", "0000000330")) {
+            Book book = bookRepository.findByCanonicalIsbn(Isbn.canonicalize(isbn)).orElseThrow();
+            List<AuditRecord> history = journal.history(EntityType.BOOK, book.getId());
+            assertEquals(1, history.size());
+            assertEquals(Action.CREATED, history.get(0).getAction());
+            assertTrue(history.get(0).getState().containsValue(book.getTitle()));
+        }
+    }
+}
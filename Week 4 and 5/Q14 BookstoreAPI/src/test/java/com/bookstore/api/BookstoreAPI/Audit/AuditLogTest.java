@@ -0,0 +1,128 @@
+package com.bookstore.api.BookstoreAPI.Audit;
+
+import com.bookstore.api.BookstoreAPI.Audit.AuditRecord.Action;
+import com.bookstore.api.BookstoreAPI.Audit.AuditRecord.EntityType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditLogTest {
+
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void historyComesFromEverySegmentInOrder() throws IOException {
+        try (AuditLog log = AuditLog.open(directory, 512, DAY)) {
+            for (int round = 0; round < 20; round++) {
+                log.append(List.of(
+                    book(7, Action.UPDATED, "Dune " + round),
+                    book(8, Action.UPDATED, "Emma " + round),
+                    new AuditRecord(0, now(), EntityType.CUSTOMER, 7, Action.UPDATED, "Ann " + round, "ann@example.com", null)));
+            }
+            assertTrue(log.segmentCount() > 3, "segments: " + log.segmentCount());
+
+            List<AuditRecord> history = log.history(EntityType.BOOK, 7);
+            assertEquals(20, history.size());
+            for (int round = 0; round < 20; round++) {
+                assertEquals("Dune " + round, history.get(round).getState().get("title"));
+                assertEquals(EntityType.BOOK, history.get(round).getEntityType());
+            }
+            AuditRecord customer = log.history(EntityType.CUSTOMER, 7).get(19);
+            assertEquals("Ann 19", customer.getState().get("name"));
+            assertNull(customer.getState().get("phoneNumber"));
+            assertEquals(60, log.lastSequence());
+            assertEquals(0, log.history(EntityType.BOOK, 9).size());
+        }
+    }
+
+    @Test
+    void recoversFromATornRecordAndMissingIndexes() throws IOException {
+        try (AuditLog log = AuditLog.open(directory, 512, DAY)) {
+            for (int i = 0; i < 30; i++) {
+                log.append(List.of(book(1, Action.UPDATED, "Title " + i)));
+            }
+        }
+        List<Path> logs = files("audit-*.log");
+        Files.write(logs.get(logs.size() - 1), new byte[] { 0, 0, 0, 40, 1, 2, 3 }, StandardOpenOption.APPEND);
+        for (Path index : files("audit-*.idx")) {
+            Files.delete(index);
+        }
+
+        try (AuditLog log = AuditLog.open(directory, 512, DAY)) {
+            assertEquals(30, log.history(EntityType.BOOK, 1).size());
+            assertEquals(31, log.append(List.of(book(1, Action.DELETED, "Title 29"))));
+            assertEquals(Action.DELETED, log.history(EntityType.BOOK, 1).get(30).getAction());
+        }
+    }
+
+    @Test
+    void compactionMergesSmallSegmentsAndKeepsHistory() throws IOException {
+        try (AuditLog log = AuditLog.open(directory, 1 << 20, 1)) {
+            for (int i = 0; i < 10; i++) {
+                log.append(List.of(book(3, Action.UPDATED, "Title " + i)));
+                sleep();
+            }
+            int before = log.segmentCount();
+            assertEquals(before - 2, log.compact(0));
+            assertEquals(2, log.segmentCount());
+            assertEquals(10, log.history(EntityType.BOOK, 3).size());
+        }
+        try (AuditLog log = AuditLog.open(directory, 1 << 20, DAY)) {
+            List<AuditRecord> history = log.history(EntityType.BOOK, 3);
+            assertEquals(10, history.size());
+            assertEquals(10, history.get(9).getSequence());
+        }
+    }
+
+    @Test
+    void retentionDropsOldSegments() throws IOException {
+        try (AuditLog log = AuditLog.open(directory, 1 << 20, DAY)) {
+            log.append(List.of(new AuditRecord(0, 1_000, EntityType.BOOK, 5, Action.CREATED, "Old")));
+            log.append(List.of(book(5, Action.UPDATED, "New")));
+            assertEquals(1, log.compact(now() - DAY));
+
+            List<AuditRecord> history = log.history(EntityType.BOOK, 5);
+            assertEquals(1, history.size());
+            assertEquals("New", history.get(0).getState().get("title"));
+        }
+    }
+
+    private static AuditRecord book(long id, Action action, String title) {
+        return new AuditRecord(0, now(), EntityType.BOOK, id, action, title, "Author", "9.99", "9780000000000");
+    }
+
+    private static long now() {
+        return System.currentTimeMillis();
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<Path> files(String glob) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, glob)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        return files;
+    }
+}
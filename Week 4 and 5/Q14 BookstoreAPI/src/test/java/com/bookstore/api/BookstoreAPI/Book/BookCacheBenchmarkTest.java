@@ -0,0 +1,109 @@
+package com.bookstore.api.BookstoreAPI.Book;
+
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.jpa.HibernateHints;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares read throughput with the second-level/query caches bypassed ("before") and
+ * in use ("after"). Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class BookCacheBenchmarkTest {
+
+    private static final String RETRIEVE_MODE = "jakarta.persistence.cache.retrieveMode";
+    private static final int BOOKS = 2_000;
+    private static final int AUTHORS = 50;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            books.add(new Book("Title " + i, "Author " + (i % AUTHORS), 10.0 + i, String.format("%09d0", i)));
+        }
+        bookRepository.saveAll(books).forEach(book -> ids.add(book.getId()));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookRepository.deleteAllInBatch();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void pointLookupThroughput() {
+        pointLookups(CacheRetrieveMode.USE);
+        double before = pointLookups(CacheRetrieveMode.BYPASS);
+        double after = pointLookups(CacheRetrieveMode.USE);
+        System.out.printf("findById: %.0f ops/s without cache, %.0f ops/s with cache (x%.1f)%n", before, after, after / before);
+    }
+
+    @Test
+    void finderQueryThroughput() {
+        finderQueries(true);
+        double before = finderQueries(false);
+        double after = finderQueries(true);
+        System.out.printf("findByAuthor: %.0f ops/s without cache, %.0f ops/s with cache (x%.1f)%n", before, after, after / before);
+    }
+
+    private double pointLookups(CacheRetrieveMode mode) {
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            // A fresh EntityManager per round so the persistence context never answers for the cache
+            EntityManager entityManager = entityManagerFactory.createEntityManager();
+            try {
+                entityManager.setProperty(RETRIEVE_MODE, mode);
+                for (Long id : ids) {
+                    entityManager.find(Book.class, id);
+                }
+            } finally {
+                entityManager.close();
+            }
+        }
+        return opsPerSecond((long) ROUNDS * ids.size(), start);
+    }
+
+    private double finderQueries(boolean cacheable) {
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            EntityManager entityManager = entityManagerFactory.createEntityManager();
+            try {
+                entityManager.setProperty(RETRIEVE_MODE, cacheable ? CacheRetrieveMode.USE : CacheRetrieveMode.BYPASS);
+                for (int author = 0; author < AUTHORS; author++) {
+                    entityManager.createQuery("select b from Book b where b.author = :author", Book.class)
+                        .setParameter("author", "Author " + author)
+                        .setHint(HibernateHints.HINT_CACHEABLE, cacheable)
+                        .setHint(HibernateHints.HINT_CACHE_REGION, "books-query")
+                        .getResultList();
+                }
+            } finally {
+                entityManager.close();
+            }
+        }
+        return opsPerSecond((long) ROUNDS * AUTHORS, start);
+    }
+
+    private static double opsPerSecond(long operations, long startNanos) {
+        return operations * 1_000_000_000.0 / (System.nanoTime() - startNanos);
+    }
+}
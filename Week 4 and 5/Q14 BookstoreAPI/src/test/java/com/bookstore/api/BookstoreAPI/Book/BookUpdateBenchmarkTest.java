@@ -0,0 +1,89 @@
+package com.bookstore.api.BookstoreAPI.Book;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the old update path (existsById, then save of a detached copy, which merges by
+ * selecting the row again) with the optimistic path (cached load plus one versioned UPDATE).
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class BookUpdateBenchmarkTest {
+
+    private static final int BOOKS = 500;
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookUpdateService bookUpdateService;
+
+    private final List<Book> books = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        List<Book> seeded = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            seeded.add(new Book("Title " + i, "Author " + i, 10.0 + i, String.format("%09d0", i)));
+        }
+        books.addAll(bookRepository.saveAll(seeded));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void updateThroughput() {
+        existsThenSave(1);
+        versionedUpdate(1);
+        double before = existsThenSave(ROUNDS);
+        double after = versionedUpdate(ROUNDS);
+        System.out.printf("updateBook: %.0f ops/s exists+save, %.0f ops/s versioned update (x%.1f)%n", before, after, after / before);
+    }
+
+    private double existsThenSave(int rounds) {
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (int i = 0; i < books.size(); i++) {
+                Book current = books.get(i);
+                if (!bookRepository.existsById(current.getId())) {
+                    throw new IllegalStateException("Book disappeared: " + current.getId());
+                }
+                Book copy = new Book(current.getTitle(), current.getAuthor(), current.getPrice() + 1, current.getIsbn());
+                copy.setId(current.getId());
+                copy.setVersion(current.getVersion());
+                books.set(i, bookRepository.save(copy));
+            }
+        }
+        return opsPerSecond((long) rounds * books.size(), start);
+    }
+
+    private double versionedUpdate(int rounds) {
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (int i = 0; i < books.size(); i++) {
+                Book current = books.get(i);
+                BookUpdateService.BookUpdate update =
+                    bookUpdateService.update(current.getId(), null, book -> book.setPrice(book.getPrice() + 1));
+                current.setVersion(update.getVersion());
+            }
+        }
+        return opsPerSecond((long) rounds * books.size(), start);
+    }
+
+    private static double opsPerSecond(long operations, long startNanos) {
+        return operations * 1_000_000_000.0 / (System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,86 @@
+package com.bookstore.api.BookstoreAPI.Book;
+
+import com.bookstore.api.BookstoreAPI.ErrorHandling.ConcurrentUpdateException;
+import com.bookstore.api.BookstoreAPI.ErrorHandling.PreconditionFailedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookUpdateServiceTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookUpdateService bookUpdateService;
+
+    @AfterEach
+    void cleanUp() {
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentIncrementsAreNeverLost() throws Exception {
+        Long id = bookRepository.save(new Book("Contended", "Author", 1.0, "0000000001")).getId();
+        int threads = 8;
+        int updatesPerThread = 25;
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger gaveUp = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < updatesPerThread; i++) {
+                    try {
+                        bookUpdateService.update(id, null, book -> book.setPrice(book.getPrice() + 1));
+                        applied.incrementAndGet();
+                    } catch (ConcurrentUpdateException e) {
+                        gaveUp.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        pool.shutdown();
+
+        // Every increment either landed exactly once or was reported to its caller as failed
+        Book book = bookRepository.findById(id).orElseThrow();
+        assertEquals(threads * updatesPerThread, applied.get() + gaveUp.get());
+        assertTrue(applied.get() > 0);
+        assertEquals(1.0 + applied.get(), book.getPrice(), 1e-9);
+        assertEquals(applied.get(), book.getVersion().intValue());
+    }
+
+    @Test
+    void updateAgainstStaleVersionIsRejected() {
+        Long id = bookRepository.save(new Book("Versioned", "Author", 1.0, "0000000002")).getId();
+
+        BookUpdateService.BookUpdate first = bookUpdateService.update(id, 0L, book -> book.setPrice(2.0));
+        assertEquals(1L, first.getVersion());
+        assertEquals(1.0, first.getPrevious().getPrice(), 1e-9);
+
+        assertThrows(PreconditionFailedException.class, () -> bookUpdateService.update(id, 0L, book -> book.setPrice(3.0)));
+        assertEquals(2.0, bookRepository.findById(id).orElseThrow().getPrice(), 1e-9);
+    }
+}
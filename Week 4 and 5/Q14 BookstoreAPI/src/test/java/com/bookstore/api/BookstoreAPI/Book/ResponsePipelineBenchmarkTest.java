@@ -0,0 +1,196 @@
+package com.bookstore.api.BookstoreAPI.Book;
+
+import com.bookstore.api.BookstoreAPI.Throttling.RequestExecutors;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * GET /books/{id} against a copy of the handler as it was before ("before": a new
+ * {@code HttpHeaders}, {@code EntityModel} and two {@code WebMvcLinkBuilder} links per request)
+ * and the current one ("after": the DTO only, headers from the filter, links written by the
+ * serializer). Both answer with the same body. The benchmark reports bytes allocated per request
+ * on the request thread, so the handler executors are disabled and the current handler runs on
+ * that thread too. Books are seeded through the repository, which the read model does not see,
+ * so it is off. The book list is compared with the old {@code List<EntityModel>} handler too. Run
+ * the benchmark with {@code mvn test -Pbenchmark}.
+ */
+@SpringBootTest(properties = { "bookstore.ratelimit.enabled=false", "bookstore.executors.enabled=false", "bookstore.readmodel.enabled=false" })
+@AutoConfigureMockMvc
+@Import(ResponsePipelineBenchmarkTest.LegacyConfig.class)
+class ResponsePipelineBenchmarkTest {
+
+    private static final int REQUESTS = 20_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private long bookId;
+
+    @BeforeEach
+    void seed() {
+        bookId = bookRepository.save(new Book("Dune", "Frank Herbert", 9.99, "9780441013593")).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void responseMatchesTheEntityModelResponse() throws Exception {
+        MvcResult before = perform("/legacy-books/{id}");
+        MvcResult after = perform("/books/{id}");
+
+        assertEquals(objectMapper.readTree(before.getResponse().getContentAsByteArray()),
+            objectMapper.readTree(after.getResponse().getContentAsByteArray()));
+        assertEquals("CustomValue", after.getResponse().getHeader("X-Custom-Header"));
+        assertEquals("Spring Boot", after.getResponse().getHeader("X-Powered-By"));
+        assertEquals(before.getResponse().getHeader(HttpHeaders.ETAG), after.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void listMatchesTheEntityModelListInJsonAndXml() throws Exception {
+        bookRepository.save(new Book("Emma", "Jane Austen", 4.5, "9780141439587"));
+
+        assertEquals(objectMapper.readTree(perform("/legacy-books").getResponse().getContentAsByteArray()),
+            objectMapper.readTree(perform("/books").getResponse().getContentAsByteArray()));
+        assertEquals(perform("/legacy-books", MediaType.APPLICATION_XML).getResponse().getContentAsString(),
+            perform("/books", MediaType.APPLICATION_XML).getResponse().getContentAsString());
+    }
+
+    @Test
+    void fixedHeadersAreOnlyAddedToApiResponses() throws Exception {
+        MvcResult health = mockMvc.perform(get("/actuator/health")).andReturn();
+        assertEquals(HttpStatus.OK.value(), health.getResponse().getStatus());
+        assertNull(health.getResponse().getHeader("X-Custom-Header"));
+        assertNull(health.getResponse().getHeader("X-Powered-By"));
+        assertEquals("CustomValue", perform("/books").getResponse().getHeader("X-Custom-Header"));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void allocationPerRequest() throws Exception {
+        bytesPerRequest("/legacy-books/{id}", REQUESTS / 10);
+        bytesPerRequest("/books/{id}", REQUESTS / 10);
+        long before = bytesPerRequest("/legacy-books/{id}", REQUESTS);
+        long after = bytesPerRequest("/books/{id}", REQUESTS);
+        System.out.printf("GET /books/{id}: %d bytes/request before, %d bytes/request after (%d fewer)%n",
+            before, after, before - after);
+        assertTrue(after < before, "after " + after + " >= before " + before);
+    }
+
+    private long bytesPerRequest(String path, int requests) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long start = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < requests; i++) {
+            perform(path);
+        }
+        return (threads.getCurrentThreadAllocatedBytes() - start) / requests;
+    }
+
+    /** Both handlers answer through servlet async. */
+    private MvcResult perform(String path) throws Exception {
+        return perform(path, MediaType.APPLICATION_JSON);
+    }
+
+    private MvcResult perform(String path, MediaType accept) throws Exception {
+        MvcResult result = mockMvc.perform(get(path, bookId).accept(accept)).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        assertEquals(HttpStatus.OK.value(), result.getResponse().getStatus());
+        return result;
+    }
+
+    @TestConfiguration
+    static class LegacyConfig {
+
+        @RestController
+        static class LegacyBookController {
+
+            private final BookRepository bookRepository;
+            private final RequestExecutors requestExecutors;
+
+            LegacyBookController(BookRepository bookRepository, RequestExecutors requestExecutors) {
+                this.bookRepository = bookRepository;
+                this.requestExecutors = requestExecutors;
+            }
+
+            // Through the same servlet async path as the current handler, so only the response pipeline differs
+            @GetMapping(value = "/legacy-books/{id}", produces = { "application/json", "application/xml" })
+            public WebAsyncTask<ResponseEntity<EntityModel<BookDTO>>> getBookById(@PathVariable Long id) {
+                return requestExecutors.read(() -> legacyResponse(id));
+            }
+
+            @GetMapping(value = "/legacy-books", produces = { "application/json", "application/xml" })
+            public WebAsyncTask<List<EntityModel<BookDTO>>> getAllBooks() {
+                return requestExecutors.read(() -> {
+                    List<EntityModel<BookDTO>> books = new ArrayList<>();
+                    for (Book book : bookRepository.findAll()) {
+                        EntityModel<BookDTO> resource = EntityModel.of(
+                            new BookDTO(book.getId(), book.getTitle(), book.getAuthor(), book.getPrice(), book.getIsbn()));
+                        resource.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(BookController.class).getBookById(book.getId(), null, null)).withSelfRel());
+                        books.add(resource);
+                    }
+                    return books;
+                });
+            }
+
+            private ResponseEntity<EntityModel<BookDTO>> legacyResponse(Long id) {
+                Book book = bookRepository.findById(id).orElseThrow();
+                BookDTO bookDTO = new BookDTO(book.getId(), book.getTitle(), book.getAuthor(), book.getPrice(), book.getIsbn());
+
+                EntityModel<BookDTO> resource = EntityModel.of(bookDTO);
+                Link selfLink = WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(BookController.class).getBookById(id, null, null)).withSelfRel();
+                Link allBooksLink = WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(BookController.class).getAllBooks(null, null)).withRel("all-books");
+                resource.add(selfLink, allBooksLink);
+
+                HttpHeaders responseHeaders = new HttpHeaders();
+                responseHeaders.add("X-Custom-Header", "CustomValue");
+                responseHeaders.add("X-Powered-By", "Spring Boot");
+                if (book.getVersion() != null) {
+                    responseHeaders.setETag("\"" + book.getVersion() + "\"");
+                }
+
+                return new ResponseEntity<>(resource, responseHeaders, HttpStatus.OK);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.bookstore.api.BookstoreAPI.Duplicates;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LshIndexTest {
+
+    private final MinHasher hasher = new MinHasher(32, 42L);
+
+    @Test
+    void spellingVariantsAreFound() {
+        LshIndex index = new LshIndex(hasher, 8, 4);
+        index.put(1L, "The Adventures of Sherlock Holmes", "Arthur Conan Doyle");
+        index.put(2L, "Pride and Prejudice", "Jane Austen");
+
+        int[] signature = index.signature("Adventures of Sherlock Holmes, The", "Arthur Conan-Doyle");
+        List<LshIndex.Match> matches = index.findSimilar(signature, -1, 0.5);
+
+        assertEquals(1, matches.size());
+        assertEquals(1L, matches.get(0).bookId);
+    }
+
+    @Test
+    void bookIsNotItsOwnDuplicateAndRemovalsAreForgotten() {
+        LshIndex index = new LshIndex(hasher, 8, 4);
+        index.put(1L, "Moby Dick", "Herman Melville");
+        index.put(2L, "Moby-Dick", "Herman Melville");
+
+        assertEquals(2L, index.findSimilar(index.signatureOf(1L), 1L, 0.7).get(0).bookId);
+
+        index.remove(2L);
+
+        assertTrue(index.findSimilar(index.signatureOf(1L), 1L, 0.7).isEmpty());
+    }
+}
@@ -0,0 +1,112 @@
+package com.bookstore.api.BookstoreAPI.ErrorHandling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Cost of answering a 404 for a missing book. The handler-level comparison throws from a
+ * call stack about as deep as a servlet request's, once with the stack-capturing exception,
+ * message and per-request serialization used before ("before") and once with the stackless
+ * exception and cached body ("after"). Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "bookstore.ratelimit.enabled=false")
+@AutoConfigureMockMvc
+class NotFoundBenchmarkTest {
+
+    private static final int STACK_DEPTH = 120;
+    private static final int ITERATIONS = 200_000;
+    private static final int REQUESTS = 20_000;
+    private static final long MISSING_ID = 987_654_321L;
+
+    @Autowired
+    private ErrorBodies errorBodies;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void cachedBodyMatchesSerializedErrorResponse() throws Exception {
+        byte[] expected = objectMapper.writeValueAsBytes(new ErrorResponse("Resource not found", "Book not found with id " + MISSING_ID));
+        assertArrayEquals(expected, errorBodies.notFound("Book", MISSING_ID));
+    }
+
+    @Test
+    void cachedKeyBodyMatchesSerializedErrorResponse() throws Exception {
+        for (String isbn : new String[] { "978-0-306-40615-7", "97803064\"06157", "978\u00e9" }) {
+            byte[] expected = objectMapper.writeValueAsBytes(new ErrorResponse("Resource not found", "Book not found with ISBN " + isbn));
+            assertArrayEquals(expected, errorBodies.notFound("Book", "ISBN", isbn));
+        }
+    }
+
+    @Test
+    void notFoundThroughput() throws Exception {
+        notFounds(false, ITERATIONS);
+        notFounds(true, ITERATIONS);
+        double before = notFounds(false, ITERATIONS);
+        double after = notFounds(true, ITERATIONS);
+        System.out.printf("404 handling: %.0f ops/s before, %.0f ops/s after (x%.1f)%n", before, after, after / before);
+    }
+
+    @Test
+    void notFoundRequestThroughput() throws Exception {
+        requests(REQUESTS / 10);
+        System.out.printf("GET /books/{missing}: %.0f requests/s%n", requests(REQUESTS));
+    }
+
+    private double notFounds(boolean stackless, int iterations) throws Exception {
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            try {
+                throwAtDepth(STACK_DEPTH, stackless, MISSING_ID + i);
+            } catch (StacklessResourceNotFoundException ex) {
+                bytes += errorBodies.notFound(ex.getResource(), ex.getId()).length;
+            } catch (ResourceNotFoundException ex) {
+                bytes += objectMapper.writeValueAsBytes(new ErrorResponse("Resource not found", ex.getMessage())).length;
+            }
+        }
+        double opsPerSecond = opsPerSecond(iterations, start);
+        if (bytes == 0) {
+            throw new AssertionError("No error bodies were produced");
+        }
+        return opsPerSecond;
+    }
+
+    private static void throwAtDepth(int depth, boolean stackless, long id) {
+        if (depth > 0) {
+            throwAtDepth(depth - 1, stackless, id);
+            return;
+        }
+        throw stackless
+            ? new StacklessResourceNotFoundException("Book", id)
+            : new ResourceNotFoundException("Book not found with id " + id);
+    }
+
+    private double requests(int count) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            MvcResult result = mockMvc.perform(get("/books/{id}", MISSING_ID + i)).andReturn();
+            mockMvc.perform(asyncDispatch(result)).andExpect(status().isNotFound());
+        }
+        return opsPerSecond(count, start);
+    }
+
+    private static double opsPerSecond(long operations, long startNanos) {
+        return operations * 1_000_000_000.0 / (System.nanoTime() - startNanos);
+    }
+}
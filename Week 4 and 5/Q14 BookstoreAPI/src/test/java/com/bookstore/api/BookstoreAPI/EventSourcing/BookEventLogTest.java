@@ -0,0 +1,109 @@
+package com.bookstore.api.BookstoreAPI.EventSourcing;
+
+import com.bookstore.api.BookstoreAPI.EventSourcing.BookEvent.Type;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BookEventLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysEventsAndCutsOffATornTail() throws IOException {
+        Path file = directory.resolve("books.events");
+        try (BookEventLog log = BookEventLog.open(file)) {
+            log.resume(BookEventLog.Position.START);
+            log.append(List.of(created(1, "Dune"), created(2, "Emma")));
+            log.append(List.of(updated(1, "Dune Messiah", 1), BookEvent.deleted(2)));
+        }
+        Files.write(file, new byte[] { 0, 0, 0, 60, 1, 2, 3 }, StandardOpenOption.APPEND);
+
+        BookCatalogState state = BookCatalogState.recover(directory, file, Long.MAX_VALUE, Long.MAX_VALUE);
+        assertEquals(4, state.position().sequence);
+        assertEquals(1, state.books().size());
+        assertEquals("Dune Messiah", state.books().get(1L).getTitle());
+        assertEquals(1, state.books().get(1L).getVersion());
+        assertNull(state.books().get(2L));
+
+        try (BookEventLog log = BookEventLog.open(file)) {
+            log.resume(state.position());
+            assertEquals(5, log.append(List.of(created(3, "Ulysses"))));
+        }
+        List<BookEvent> events = new ArrayList<>();
+        BookEventLog.replay(file, BookEventLog.Position.START, Long.MAX_VALUE, Long.MAX_VALUE, events::add);
+        assertEquals(5, events.size());
+        assertEquals(Type.DELETED, events.get(3).getType());
+        assertEquals("Ulysses", events.get(4).getTitle());
+    }
+
+    @Test
+    void snapshotPlusTailMatchesAFullReplay() throws IOException {
+        Path file = directory.resolve("books.events");
+        try (BookEventLog log = BookEventLog.open(file)) {
+            log.resume(BookEventLog.Position.START);
+            for (int i = 1; i <= 100; i++) {
+                log.append(List.of(created(i, "Title " + i)));
+            }
+            BookCatalogState atSnapshot = BookCatalogState.recover(directory, file, log.durablePosition(), Long.MAX_VALUE);
+            BookSnapshot.write(directory, atSnapshot.position(), atSnapshot.values());
+
+            for (int i = 1; i <= 100; i += 2) {
+                log.append(List.of(updated(i, "Revised " + i, 1)));
+            }
+            for (int i = 2; i <= 100; i += 10) {
+                log.append(List.of(BookEvent.deleted(i)));
+            }
+        }
+
+        BookCatalogState fromSnapshot = BookCatalogState.recover(directory, file, Long.MAX_VALUE, Long.MAX_VALUE);
+        assertEquals(100, fromSnapshot.snapshot().position.sequence);
+        assertEquals(60, fromSnapshot.replayed());
+
+        Path empty = Files.createDirectory(directory.resolve("no-snapshots"));
+        BookCatalogState fullReplay = BookCatalogState.recover(empty, file, Long.MAX_VALUE, Long.MAX_VALUE);
+        assertNull(fullReplay.snapshot());
+        assertEquals(fullReplay.books().size(), fromSnapshot.books().size());
+        assertEquals(90, fromSnapshot.books().size());
+        for (BookEvent book : fullReplay.values()) {
+            BookEvent other = fromSnapshot.books().get(book.getBookId());
+            assertEquals(book.getTitle(), other.getTitle());
+            assertEquals(book.getVersion(), other.getVersion());
+            assertEquals(book.getPrice(), other.getPrice());
+        }
+    }
+
+    @Test
+    void compensationRestoresThePreviousState() {
+        BookEvent before = created(1, "Dune");
+        BookEvent update = updated(1, "Dune Messiah", 1);
+
+        BookEvent undoUpdate = update.compensation(before);
+        assertEquals(Type.UPDATED, undoUpdate.getType());
+        assertEquals("Dune", undoUpdate.getTitle());
+        assertEquals(0, undoUpdate.getVersion());
+
+        assertEquals(Type.DELETED, before.compensation(null).getType());
+        BookEvent undoDelete = BookEvent.deleted(1).compensation(before);
+        assertEquals(Type.CREATED, undoDelete.getType());
+        assertEquals("Dune", undoDelete.getTitle());
+    }
+
+    private static BookEvent created(long id, String title) {
+        return BookEvent.pending(Type.CREATED, id, 0, title, "Author " + id, 9.99, "978000000000" + (id % 10));
+    }
+
+    private static BookEvent updated(long id, String title, long version) {
+        return BookEvent.pending(Type.UPDATED, id, version, title, "Author " + id, 19.99, "978000000000" + (id % 10));
+    }
+}
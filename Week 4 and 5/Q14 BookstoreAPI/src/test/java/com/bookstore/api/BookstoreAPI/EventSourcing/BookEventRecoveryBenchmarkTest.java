@@ -0,0 +1,101 @@
+package com.bookstore.api.BookstoreAPI.EventSourcing;
+
+import com.bookstore.api.BookstoreAPI.EventSourcing.BookEvent.Type;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Startup recovery time over a log of 10M events for a catalog of 1M books: replaying the
+ * whole log, versus loading a snapshot and replaying the last 10% or 1% of the log. Needs
+ * about 1 GB of disk. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class BookEventRecoveryBenchmarkTest {
+
+    private static final int EVENTS = 10_000_000;
+    private static final int BOOKS = 1_000_000;
+    private static final int DELETES = 100_000;
+    private static final int BATCH = 10_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoveryTime() throws IOException {
+        Path file = directory.resolve("books.events");
+        Path early = Files.createDirectory(directory.resolve("snapshot-at-90pct"));
+        Path late = Files.createDirectory(directory.resolve("snapshot-at-99pct"));
+        Path none = Files.createDirectory(directory.resolve("no-snapshot"));
+
+        long start = System.nanoTime();
+        try (BookEventLog log = BookEventLog.open(file)) {
+            log.resume(BookEventLog.Position.START);
+            SplittableRandom random = new SplittableRandom(42);
+            long[] versions = new long[BOOKS + 1];
+            List<BookEvent> batch = new ArrayList<>(BATCH);
+            for (int i = 0; i < EVENTS; i++) {
+                if (i < BOOKS) {
+                    long id = i + 1;
+                    batch.add(BookEvent.pending(Type.CREATED, id, 0, "Title " + id, "Author " + (id % 50_000), 10.0, String.format("978%010d", id)));
+                } else if (i < EVENTS - DELETES) {
+                    int id = DELETES + 1 + random.nextInt(BOOKS - DELETES);
+                    long version = ++versions[id];
+                    batch.add(BookEvent.pending(Type.UPDATED, id, version, "Title " + id, "Author " + (id % 50_000), 10.0 + version, String.format("978%010d", id)));
+                } else {
+                    batch.add(BookEvent.deleted(i - (EVENTS - DELETES) + 1));
+                }
+                if (batch.size() == BATCH) {
+                    log.append(batch);
+                    batch.clear();
+                }
+                if (i + 1 == EVENTS * 9 / 10) {
+                    snapshot(early, file, log);
+                } else if (i + 1 == EVENTS * 99 / 100) {
+                    snapshot(late, file, log);
+                }
+            }
+            log.append(batch);
+        }
+        System.out.printf("wrote %,d events (%,d MB) in %.1f s%n", EVENTS, Files.size(file) >> 20, seconds(start));
+
+        int books = BOOKS - DELETES;
+        recover("full replay", none, file, books);
+        recover("snapshot + 10% tail", early, file, books);
+        recover("snapshot + 1% tail", late, file, books);
+    }
+
+    private static void snapshot(Path snapshots, Path file, BookEventLog log) throws IOException {
+        long start = System.nanoTime();
+        BookCatalogState state = BookCatalogState.recover(snapshots, file, log.durablePosition(), Long.MAX_VALUE);
+        BookSnapshot.write(snapshots, state.position(), state.values());
+        System.out.printf("snapshot of %,d books at sequence %,d in %.1f s%n", state.books().size(), state.position().sequence, seconds(start));
+    }
+
+    private static void recover(String label, Path snapshots, Path file, int expectedBooks) throws IOException {
+        double best = Double.MAX_VALUE;
+        long replayed = 0;
+        for (int pass = 0; pass < 3; pass++) {
+            long start = System.nanoTime();
+            BookCatalogState state = BookCatalogState.recover(snapshots, file, Long.MAX_VALUE, Long.MAX_VALUE);
+            best = Math.min(best, seconds(start));
+            assertEquals(expectedBooks, state.books().size());
+            assertEquals(EVENTS, state.position().sequence);
+            replayed = state.replayed();
+        }
+        System.out.printf("%s: %.2f s, %,d events replayed%n", label, best, replayed);
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+}
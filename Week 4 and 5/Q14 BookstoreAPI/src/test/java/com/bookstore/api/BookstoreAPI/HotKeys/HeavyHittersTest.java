@@ -0,0 +1,61 @@
+package com.bookstore.api.BookstoreAPI.HotKeys;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeavyHittersTest {
+
+    @Test
+    void findsTheHottestKeysInSkewedTraffic() {
+        HeavyHitters heavyHitters = new HeavyHitters(10, 1024, 4);
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            // Ids 1-5 get half of all requests; the rest is spread over 100k cold ids
+            long id = random.nextBoolean() ? 1 + random.nextInt(5) : 1_000 + random.nextInt(100_000);
+            heavyHitters.record(id);
+        }
+
+        List<HotKey> top = heavyHitters.top(5);
+        Set<Long> ids = top.stream().map(HotKey::getId).collect(Collectors.toSet());
+        assertEquals(Set.of(1L, 2L, 3L, 4L, 5L), ids);
+        for (HotKey hotKey : top) {
+            assertTrue(hotKey.getEstimate() >= 18_000, "estimate " + hotKey.getEstimate());
+        }
+    }
+
+    @Test
+    void newTrafficOvertakesDecayedKeys() {
+        HeavyHitters heavyHitters = new HeavyHitters(2, 1024, 4);
+        for (int i = 0; i < 1_000; i++) {
+            heavyHitters.record(1);
+            heavyHitters.record(2);
+        }
+        for (int window = 0; window < 4; window++) {
+            heavyHitters.decay();
+        }
+        for (int i = 0; i < 200; i++) {
+            heavyHitters.record(3);
+        }
+
+        assertEquals(3L, heavyHitters.top(1).get(0).getId());
+        assertEquals(2, heavyHitters.top(10).size());
+    }
+
+    @Test
+    void keysThatDecayToZeroAreDropped() {
+        HeavyHitters heavyHitters = new HeavyHitters(4, 256, 4);
+        heavyHitters.record(42, 3);
+
+        heavyHitters.decay();
+        assertEquals(1, heavyHitters.top(10).size());
+        heavyHitters.decay();
+        assertTrue(heavyHitters.top(10).isEmpty());
+    }
+}
@@ -0,0 +1,38 @@
+package com.bookstore.api.BookstoreAPI.HotKeys;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HotKeyTrackerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rankingSurvivesARestartWhenAFileIsSet() throws Exception {
+        HotKeyTracker withoutFile = new HotKeyTracker(true, 10, 10, 256, 2, "");
+        withoutFile.recordBook(7);
+        withoutFile.save();
+        withoutFile.warmUp();
+        assertEquals(1, withoutFile.top(HotKeyTracker.BOOKS, 1).get(0).getEstimate());
+
+        Path file = directory.resolve("hotkeys.txt");
+        HotKeyTracker before = new HotKeyTracker(true, 10, 10, 256, 2, file.toString());
+        for (int i = 0; i < 3; i++) {
+            before.recordBook(7);
+        }
+        before.recordCustomer(9);
+        before.save();
+
+        HotKeyTracker after = new HotKeyTracker(true, 10, 10, 256, 2, file.toString());
+        after.warmUp();
+        assertEquals(7, after.top(HotKeyTracker.BOOKS, 1).get(0).getId());
+        assertEquals(3, after.top(HotKeyTracker.BOOKS, 1).get(0).getEstimate());
+        assertEquals(9, after.top(HotKeyTracker.CUSTOMERS, 1).get(0).getId());
+    }
+}
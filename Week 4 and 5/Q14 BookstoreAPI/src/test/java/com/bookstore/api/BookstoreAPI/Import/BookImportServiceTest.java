@@ -0,0 +1,38 @@
+package com.bookstore.api.BookstoreAPI.Import;
+
+import com.bookstore.api.BookstoreAPI.ErrorHandling.ResourceNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "bookstore.import.job-retention-ms=50")
+class BookImportServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Test
+    void finishedJobsAreForgottenAfterTheRetention() throws Exception {
+        BookImportJob job = bookImportService.start(Files.writeString(directory.resolve("empty.csv"), "title,author,price,isbn\n"), BookImportFormat.CSV);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (job.getStatus() == BookImportJob.Status.RUNNING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(BookImportJob.Status.COMPLETED, job.getStatus());
+        assertSame(job, bookImportService.getJob(job.getId()));
+
+        Thread.sleep(100);
+        assertThrows(ResourceNotFoundException.class, () -> bookImportService.getJob(job.getId()));
+    }
+}
@@ -0,0 +1,51 @@
+package com.bookstore.api.BookstoreAPI.Import;
+
+import com.bookstore.api.BookstoreAPI.Book.Book;
+import com.bookstore.api.BookstoreAPI.ErrorHandling.ValidationException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookRecordParserTest {
+
+    @Test
+    void csvColumnsAreMappedFromHeader() {
+        BookRecordParser parser = BookRecordParser.csv("isbn,price,author,title");
+        byte[] line = "1234567890,19.99,\"Doe, Jane\",\"The \"\"Quoted\"\" Title\"".getBytes(StandardCharsets.UTF_8);
+
+        Book book = parser.parse(line, line.length);
+
+        assertEquals("The \"Quoted\" Title", book.getTitle());
+        assertEquals("Doe, Jane", book.getAuthor());
+        assertEquals(19.99, book.getPrice());
+        assertEquals("1234567890", book.getIsbn());
+    }
+
+    @Test
+    void csvHeaderMustContainEveryColumn() {
+        assertThrows(ValidationException.class, () -> BookRecordParser.csv("title,author,isbn"));
+    }
+
+    @Test
+    void nonNumericPriceIsRejected() {
+        BookRecordParser parser = BookRecordParser.csv("title,author,price,isbn");
+        byte[] line = "Title,Author,cheap,1234567890".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(ValidationException.class, () -> parser.parse(line, line.length));
+    }
+
+    @Test
+    void ndjsonRecordIsParsed() {
+        BookRecordParser parser = BookRecordParser.ndjson(new ObjectMapper().reader());
+        byte[] line = "{\"title\":\"Title\",\"author\":\"Author\",\"price\":5.0,\"isbn\":\"1234567890\"}".getBytes(StandardCharsets.UTF_8);
+
+        Book book = parser.parse(line, line.length);
+
+        assertEquals("Title", book.getTitle());
+        assertEquals(5.0, book.getPrice());
+    }
+}
@@ -0,0 +1,42 @@
+package com.bookstore.api.BookstoreAPI.Isbn;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IsbnTest {
+
+    @Test
+    void isbn10AndIsbn13ShareOneCanonicalKey() {
+        assertEquals("9780306406157", Isbn.canonicalize("0-306-40615-2"));
+        assertEquals("9780306406157", Isbn.canonicalize("978-0-306-40615-7"));
+        assertEquals("9780306406157", Isbn.canonicalize("0 306 40615 2"));
+    }
+
+    @Test
+    void isbn10WithXCheckDigitIsConverted() {
+        assertEquals("9780804429573", Isbn.canonicalize("080442957x"));
+    }
+
+    @Test
+    void bloomFilterHasNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("isbn-" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("isbn-" + i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 10_000; i < 20_000; i++) {
+            if (filter.mightContain("isbn-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+        assertFalse(new BloomFilter(100, 0.01).mightContain("anything"));
+    }
+}
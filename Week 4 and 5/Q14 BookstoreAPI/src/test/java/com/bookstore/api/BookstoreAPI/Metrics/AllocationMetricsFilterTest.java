@@ -0,0 +1,121 @@
+package com.bookstore.api.BookstoreAPI.Metrics;
+
+import com.bookstore.api.BookstoreAPI.Throttling.RequestExecutors;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AllocationMetricsFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AllocationMetrics allocationMetrics = new AllocationMetrics(meterRegistry, true);
+    private final AllocationMetricsFilter filter = new AllocationMetricsFilter(allocationMetrics);
+
+    @Test
+    void recordsAllocationPerHandler() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/customers/7");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, handler());
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/customers/{id}");
+            blackhole = new byte[1 << 20];
+        });
+
+        DistributionSummary summary = meterRegistry.find("request_allocated_bytes")
+            .tag("handler", "FakeController.getCustomerById")
+            .tag("method", "GET")
+            .tag("uri", "/customers/{id}")
+            .summary();
+        assertEquals(1, summary.count());
+        assertTrue(summary.totalAmount() >= 1 << 20, "recorded " + summary.totalAmount());
+    }
+
+    @Test
+    void recordsAllocationOfHandlersRunOnRequestExecutors() throws Exception {
+        RequestExecutors executors = new RequestExecutors(meterRegistry, allocationMetrics, true, 30_000, 1, 10, 1, 10);
+        try {
+            MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new AsyncController(executors)).addFilters(filter).build();
+            MvcResult started = mockMvc.perform(get("/books/7")).andExpect(request().asyncStarted()).andReturn();
+            mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+            DistributionSummary summary = awaitSummary("AsyncController.getBookById", "/books/{id}");
+            assertEquals(1, summary.count());
+            assertTrue(summary.totalAmount() >= 1 << 20, "recorded " + summary.totalAmount());
+        } finally {
+            executors.shutdown();
+        }
+    }
+
+    @Test
+    void skipsRequestsWithoutAHandlerMethod() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/missing"), new MockHttpServletResponse(), (req, res) -> { });
+
+        assertNull(meterRegistry.find("request_allocated_bytes").summary());
+    }
+
+    // The handler thread records after handing the result back, so the sample can trail the response
+    private DistributionSummary awaitSummary(String handler, String uri) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        DistributionSummary summary;
+        while ((summary = meterRegistry.find("request_allocated_bytes").tag("handler", handler).tag("uri", uri).summary()) == null
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNotNull(summary, "no allocation recorded for " + handler);
+        return summary;
+    }
+
+    // Called from a FilterChain lambda, which may only throw IOException and ServletException
+    private static HandlerMethod handler() {
+        try {
+            return new HandlerMethod(new FakeController(), FakeController.class.getMethod("getCustomerById"));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static Object blackhole;
+
+    public static class FakeController {
+        public void getCustomerById() {
+        }
+    }
+
+    @RestController
+    static class AsyncController {
+        private final RequestExecutors executors;
+
+        AsyncController(RequestExecutors executors) {
+            this.executors = executors;
+        }
+
+        @GetMapping("/books/{id}")
+        WebAsyncTask<Integer> getBookById(@PathVariable Long id) {
+            return executors.read(() -> {
+                byte[] allocated = new byte[1 << 20];
+                blackhole = allocated;
+                return allocated.length;
+            });
+        }
+    }
+}
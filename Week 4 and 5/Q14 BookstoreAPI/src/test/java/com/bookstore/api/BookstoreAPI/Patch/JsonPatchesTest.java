@@ -0,0 +1,73 @@
+package com.bookstore.api.BookstoreAPI.Patch;
+
+import com.bookstore.api.BookstoreAPI.ErrorHandling.PatchConflictException;
+import com.bookstore.api.BookstoreAPI.ErrorHandling.ValidationException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonPatchesTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String BOOK = "{\"id\":1,\"title\":\"Dune\",\"author\":\"Frank Herbert\",\"price\":10.0,\"isbn\":\"0441013597\"}";
+
+    @Test
+    void mergePatchChangesOnlyTheGivenFields() throws Exception {
+        JsonNode before = MAPPER.readTree(BOOK);
+        JsonNode after = JsonPatches.apply(JsonPatches.MERGE_PATCH_JSON_VALUE, before, MAPPER.readTree("{\"price\":12.5}"));
+
+        assertEquals(12.5, after.get("price").asDouble());
+        assertEquals("Dune", after.get("title").asText());
+        assertEquals(Set.of("price"), JsonPatches.changedFields(before, after));
+    }
+
+    @Test
+    void mergePatchNullRemovesField() throws Exception {
+        JsonNode before = MAPPER.readTree(BOOK);
+        JsonNode after = JsonPatches.apply(JsonPatches.MERGE_PATCH_JSON_VALUE, before, MAPPER.readTree("{\"isbn\":null}"));
+
+        assertEquals(Set.of("isbn"), JsonPatches.changedFields(before, after));
+    }
+
+    @Test
+    void jsonPatchAppliesOperationsInOrder() throws Exception {
+        JsonNode before = MAPPER.readTree(BOOK);
+        JsonNode patch = MAPPER.readTree("[{\"op\":\"test\",\"path\":\"/price\",\"value\":10},"
+            + "{\"op\":\"replace\",\"path\":\"/price\",\"value\":11},"
+            + "{\"op\":\"copy\",\"from\":\"/author\",\"path\":\"/title\"}]");
+        JsonNode after = JsonPatches.apply(JsonPatches.JSON_PATCH_JSON_VALUE, before, patch);
+
+        assertEquals(11, after.get("price").asInt());
+        assertEquals("Frank Herbert", after.get("title").asText());
+        assertEquals(Set.of("title", "price"), JsonPatches.changedFields(before, after));
+    }
+
+    @Test
+    void jsonPatchReplacesTheWholeDocumentAtTheRoot() throws Exception {
+        JsonNode before = MAPPER.readTree(BOOK);
+        JsonNode replacement = MAPPER.readTree("{\"id\":1,\"title\":\"Dune Messiah\",\"author\":\"Frank Herbert\",\"price\":10.0,\"isbn\":\"0593098234\"}");
+        JsonNode after = JsonPatches.apply(JsonPatches.JSON_PATCH_JSON_VALUE, before,
+            MAPPER.createArrayNode().add(MAPPER.createObjectNode().put("op", "replace").put("path", "").set("value", replacement)));
+
+        assertEquals(replacement, after);
+        assertEquals(Set.of("title", "isbn"), JsonPatches.changedFields(before, after));
+        assertEquals("Dune", before.get("title").asText());
+    }
+
+    @Test
+    void failedTestAndMissingPathsAreConflicts() throws Exception {
+        JsonNode before = MAPPER.readTree(BOOK);
+
+        assertThrows(PatchConflictException.class, () -> JsonPatches.apply(JsonPatches.JSON_PATCH_JSON_VALUE, before,
+            MAPPER.readTree("[{\"op\":\"test\",\"path\":\"/price\",\"value\":9}]")));
+        assertThrows(PatchConflictException.class, () -> JsonPatches.apply(JsonPatches.JSON_PATCH_JSON_VALUE, before,
+            MAPPER.readTree("[{\"op\":\"replace\",\"path\":\"/edition\",\"value\":2}]")));
+        assertThrows(ValidationException.class, () -> JsonPatches.apply(JsonPatches.JSON_PATCH_JSON_VALUE, before,
+            MAPPER.readTree("{\"price\":9}")));
+    }
+}
@@ -0,0 +1,72 @@
+package com.bookstore.api.BookstoreAPI.Profiling;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestPhaseEventTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void phasesAreRecordedWithTheirFields() throws Exception {
+        Path file = directory.resolve("phases.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(RepositoryCallEvent.class);
+            recording.enable(DtoMappingEvent.class);
+            recording.start();
+
+            RepositoryCallEvent repositoryCall = RepositoryCallEvent.start("getBookById");
+            repositoryCall.finish(42, 1);
+            DtoMappingEvent dtoMapping = DtoMappingEvent.start("getAllBooks");
+            dtoMapping.finish(RequestPhaseEvent.NO_ENTITY, 250);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertEquals(2, events.size());
+
+        RecordedEvent repositoryCall = find(events, "com.bookstore.RepositoryCall");
+        assertEquals("getBookById", repositoryCall.getString("endpoint"));
+        assertEquals(42, repositoryCall.getLong("entityId"));
+        assertEquals(1, repositoryCall.getInt("resultSize"));
+
+        RecordedEvent dtoMapping = find(events, "com.bookstore.DtoMapping");
+        assertEquals(RequestPhaseEvent.NO_ENTITY, dtoMapping.getLong("entityId"));
+        assertEquals(250, dtoMapping.getInt("resultSize"));
+    }
+
+    @Test
+    void phasesUnderTheThresholdAreDropped() throws Exception {
+        Path file = directory.resolve("threshold.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(DtoMappingEvent.class).withThreshold(Duration.ofSeconds(10));
+            recording.start();
+
+            DtoMappingEvent dtoMapping = DtoMappingEvent.start("getBookById");
+            dtoMapping.finish(7, 1);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        assertTrue(RecordingFile.readAllEvents(file).isEmpty());
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).findFirst()
+            .orElseThrow(() -> new AssertionError("No " + name + " event"));
+    }
+}
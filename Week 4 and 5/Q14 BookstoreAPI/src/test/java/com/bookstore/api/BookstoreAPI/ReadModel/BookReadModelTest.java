@@ -0,0 +1,143 @@
+package com.bookstore.api.BookstoreAPI.ReadModel;
+
+import com.bookstore.api.BookstoreAPI.Book.BookChangedEvent;
+import com.bookstore.api.BookstoreAPI.Book.BookDTO;
+import com.bookstore.api.BookstoreAPI.Book.BookTableScanner;
+import com.bookstore.api.BookstoreAPI.ErrorHandling.ValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ObjLongConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookReadModelTest {
+
+    @Test
+    void writesCopyOnlyTheTouchedPage() {
+        BookView empty = BookView.empty(new ConsistencyToken(1, 0));
+        BookView one = empty.with(5, entry(5, "Dune", 0), new ConsistencyToken(1, 1));
+        BookView two = one.with(3000, entry(3000, "Emma", 0), new ConsistencyToken(1, 2));
+        BookView three = two.with(7, entry(7, "Ulysses", 0), new ConsistencyToken(1, 3));
+        BookView removed = three.without(5, 0, new ConsistencyToken(1, 4));
+
+        assertNull(empty.find(5));
+        assertEquals("Dune", one.find(5).getBook().getTitle());
+        assertNull(one.find(3000));
+        assertEquals(2, two.size());
+        assertNull(two.find(7));
+        assertEquals(List.of(5L, 7L, 3000L), ids(three));
+        assertEquals(List.of(7L, 3000L), ids(removed));
+        assertEquals("Dune", three.find(5).getBook().getTitle());
+        assertSame(three.find(3000), removed.find(3000));
+        assertNull(removed.find(-1));
+        assertEquals(removed.size(), removed.without(5, 0, new ConsistencyToken(1, 5)).size());
+    }
+
+    @Test
+    void readsWaitForTheirOwnWritesAndSkipStaleUpdates() {
+        BookReadModel model = new BookReadModel(scanner(), new SimpleMeterRegistry(), true, 0, 60_000);
+        assertNull(model.viewFor(null), "nothing is served before the first load");
+        model.load();
+        assertEquals(1, model.viewFor(null).size());
+
+        model.onBookChanged(BookChangedEvent.updated(book(1, "Dune"), book(1, "Dune Messiah"), 2L));
+        ConsistencyToken afterWrite = model.currentToken();
+        BookView view = model.viewFor(ConsistencyToken.parse(afterWrite.toString()));
+        assertNotNull(view);
+        assertEquals("Dune Messiah", view.find(1).getBook().getTitle());
+
+        // Published late by a concurrent writer: version 1 must not overwrite version 2
+        model.onBookChanged(BookChangedEvent.updated(book(1, "Dune"), book(1, "Children of Dune"), 1L));
+        assertEquals("Dune Messiah", model.viewFor(null).find(1).getBook().getTitle());
+
+        ConsistencyToken ahead = new ConsistencyToken(afterWrite.getEpoch(), afterWrite.getSequence() + 10);
+        assertNull(model.viewFor(ahead), "a token the model has not reached falls back to the database");
+        assertNotNull(model.viewFor(new ConsistencyToken(afterWrite.getEpoch() - 1, 1_000)), "tokens from an earlier epoch are covered by the load");
+
+        model.onBookChanged(BookChangedEvent.deleted(book(1, "Dune Messiah")));
+        assertEquals(0, model.viewFor(null).size());
+    }
+
+    @Test
+    void lateChangesDoNotResurrectDeletedBooks() {
+        List<BookDTO> table = new ArrayList<>(List.of(book(1, "Dune")));
+        BookReadModel model = new BookReadModel(scanner(table), new SimpleMeterRegistry(), true, 0, 60_000);
+        model.load();
+        table.clear();
+        model.onBookChanged(BookChangedEvent.deleted(book(1, "Dune")));
+
+        // The update committed before the delete, but its event is published after it
+        model.onBookChanged(BookChangedEvent.updated(book(1, "Dune"), book(1, "Dune Messiah"), 1L));
+        model.onBookChanged(BookChangedEvent.deleted(book(2, "Emma")));
+        model.onBookChanged(BookChangedEvent.created(book(2, "Emma"), 0L));
+        assertNull(model.viewFor(null).find(1));
+        assertNull(model.viewFor(null).find(2));
+        assertEquals(0, model.viewFor(null).size());
+        assertEquals(List.of(), ids(model.viewFor(null)));
+
+        model.load();
+        model.onBookChanged(BookChangedEvent.updated(book(1, "Dune"), book(1, "Dune Messiah"), 1L));
+        assertNull(model.viewFor(null).find(1), "tombstones survive a reload");
+        assertEquals(0, model.viewFor(null).size());
+    }
+
+    @Test
+    void tombstonesAreReclaimedAfterTheRetention() {
+        BookReadModel model = new BookReadModel(scanner(new ArrayList<>()), new SimpleMeterRegistry(), true, 0, 0);
+        model.load();
+        model.onBookChanged(BookChangedEvent.deleted(book(1, "Dune")));
+        assertTrue(model.viewFor(null).isDeleted(1));
+
+        model.onBookChanged(BookChangedEvent.created(book(2, "Emma"), 0L));
+        assertFalse(model.viewFor(null).isDeleted(1), "the next change clears the expired tombstone");
+        assertNull(model.viewFor(null).find(1));
+        assertEquals(1, model.viewFor(null).size());
+
+        model.onBookChanged(BookChangedEvent.deleted(book(2, "Emma")));
+        model.load();
+        assertFalse(model.viewFor(null).isDeleted(2), "expired tombstones are not carried across a load");
+        assertEquals(0, model.viewFor(null).size());
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertNull(ConsistencyToken.parse(null));
+        assertEquals("17-42", ConsistencyToken.parse(" 17-42 ").toString());
+        assertThrows(ValidationException.class, () -> ConsistencyToken.parse("42"));
+        assertThrows(ValidationException.class, () -> ConsistencyToken.parse("a-b"));
+    }
+
+    private static BookTableScanner scanner() {
+        return scanner(List.of(book(1, "Dune")));
+    }
+
+    private static BookTableScanner scanner(List<BookDTO> table) {
+        return new BookTableScanner(null) {
+            @Override
+            public void forEachVersionedBook(ObjLongConsumer<BookDTO> consumer) {
+                table.forEach(book -> consumer.accept(book, 0));
+            }
+        };
+    }
+
+    private static List<Long> ids(BookView view) {
+        return view.books().stream().map(BookDTO::getId).toList();
+    }
+
+    private static BookEntry entry(long id, String title, long version) {
+        return new BookEntry(book(id, title), version);
+    }
+
+    private static BookDTO book(long id, String title) {
+        return new BookDTO(id, title, "Author", 9.99, "9780000000000");
+    }
+}
@@ -0,0 +1,91 @@
+package com.bookstore.api.BookstoreAPI.Resilience;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private static final long MILLI = 1_000_000L;
+    private static final long SECOND = 1_000_000_000L;
+
+    private long now;
+
+    private CircuitBreaker breaker() {
+        // Window of 10, decides after 4 calls, 50% thresholds, slow at 100 ms, open for 1 s, 2 probes
+        return new CircuitBreaker(10, 4, 0.5, 0.5, 100 * MILLI, SECOND, 2, () -> now);
+    }
+
+    @Test
+    void opensWhenHalfTheCallsFail() {
+        CircuitBreaker breaker = breaker();
+        call(breaker, false);
+        call(breaker, true);
+        call(breaker, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        call(breaker, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(SECOND, breaker.remainingOpenNanos());
+    }
+
+    @Test
+    void opensWhenHalfTheCallsAreSlow() {
+        CircuitBreaker breaker = breaker();
+        for (int i = 0; i < 4; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onSuccess(i % 2 == 0 ? 5 * MILLI : 150 * MILLI);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void successfulProbesCloseTheBreaker() {
+        CircuitBreaker breaker = openBreaker();
+        now += SECOND;
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        breaker.onSuccess(MILLI);
+        breaker.onSuccess(MILLI);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0.0, breaker.getFailureRate(), 0.0);
+    }
+
+    @Test
+    void aFailedProbeOpensTheBreakerAgain() {
+        CircuitBreaker breaker = openBreaker();
+        now += SECOND;
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(SECOND, breaker.remainingOpenNanos());
+    }
+
+    private CircuitBreaker openBreaker() {
+        CircuitBreaker breaker = breaker();
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+
+    private static void call(CircuitBreaker breaker, boolean fail) {
+        assertTrue(breaker.tryAcquire());
+        if (fail) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess(MILLI);
+        }
+    }
+}
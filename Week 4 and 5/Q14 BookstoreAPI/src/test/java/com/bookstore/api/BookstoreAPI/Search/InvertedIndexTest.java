@@ -0,0 +1,63 @@
+package com.bookstore.api.BookstoreAPI.Search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvertedIndexTest {
+
+    private static List<String> terms(String title, String author) {
+        List<String> terms = BookTokenizer.tokenize(title);
+        terms.addAll(BookTokenizer.tokenize(author));
+        return terms;
+    }
+
+    @Test
+    void singleWordFindsTitle() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1L, terms("The Great Gatsby", "F. Scott Fitzgerald"));
+        index.put(2L, terms("Tender Is the Night", "F. Scott Fitzgerald"));
+
+        List<InvertedIndex.Hit> hits = index.search(BookTokenizer.tokenize("gatsby"), 10);
+
+        assertEquals(1, hits.size());
+        assertEquals(1L, hits.get(0).getBookId());
+    }
+
+    @Test
+    void rarerTermsRankHigher() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1L, terms("War and Peace", "Leo Tolstoy"));
+        index.put(2L, terms("The Art of War", "Sun Tzu"));
+        index.put(3L, terms("War of the Worlds", "H. G. Wells"));
+
+        List<InvertedIndex.Hit> hits = index.search(BookTokenizer.tokenize("war peace"), 10);
+
+        assertEquals(3, hits.size());
+        assertEquals(1L, hits.get(0).getBookId());
+    }
+
+    @Test
+    void updatesAndDeletesReplaceOldTerms() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1L, terms("Dune", "Frank Herbert"));
+        index.put(1L, terms("Dune Messiah", "Frank Herbert"));
+        index.put(2L, terms("Emma", "Jane Austen"));
+        index.remove(2L);
+
+        assertEquals(1, index.size());
+        assertEquals(1, index.search(BookTokenizer.tokenize("dune"), 10).size());
+        assertTrue(index.search(BookTokenizer.tokenize("emma"), 10).isEmpty());
+    }
+
+    @Test
+    void accentsAndCaseAreIgnored() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1L, terms("Germinal", "Émile Zola"));
+
+        assertEquals(1, index.search(BookTokenizer.tokenize("EMILE"), 10).size());
+    }
+}
@@ -0,0 +1,62 @@
+package com.bookstore.api.BookstoreAPI.Search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixIndexTest {
+
+    @Test
+    void suggestionsAreOrderedByBookCount() {
+        PrefixIndex index = new PrefixIndex(10);
+        index.put(1L, "Dune", "Frank Herbert");
+        index.put(2L, "Dune", "Frank Herbert");
+        index.put(3L, "Dubliners", "James Joyce");
+
+        List<PrefixIndex.Suggestion> suggestions = index.suggest("du", 10);
+
+        assertEquals(2, suggestions.size());
+        assertEquals("Dune", suggestions.get(0).text);
+        assertEquals(2, suggestions.get(0).weight);
+        assertEquals("Dubliners", suggestions.get(1).text);
+    }
+
+    @Test
+    void laterWordsOfATitleArePrefixes() {
+        PrefixIndex index = new PrefixIndex(10);
+        index.put(1L, "The Great Gatsby", "F. Scott Fitzgerald");
+
+        assertEquals("The Great Gatsby", index.suggest("gat", 10).get(0).text);
+        assertEquals("F. Scott Fitzgerald", index.suggest("fitz", 10).get(0).text);
+    }
+
+    @Test
+    void topKIsRecomputedWhenBooksAreRemoved() {
+        PrefixIndex index = new PrefixIndex(1);
+        index.put(1L, "Emma", "Jane Austen");
+        index.put(2L, "Emma", "Jane Austen");
+        index.put(3L, "Emerald City", "Someone Else");
+
+        assertEquals("Emma", index.suggest("em", 1).get(0).text);
+
+        index.remove(1L);
+        index.remove(2L);
+
+        assertEquals("Emerald City", index.suggest("em", 1).get(0).text);
+        assertTrue(index.suggest("emm", 1).isEmpty());
+    }
+
+    @Test
+    void updatingATitleMovesTheSuggestion() {
+        PrefixIndex index = new PrefixIndex(10);
+        index.put(1L, "Frankenstein", "Mary Shelley");
+        index.put(1L, "Frankenstein; or, The Modern Prometheus", "Mary Shelley");
+
+        assertEquals(1, index.bookCount());
+        assertEquals("Frankenstein; or, The Modern Prometheus", index.suggest("frank", 10).get(0).text);
+        assertEquals(1, index.suggest("mary", 10).get(0).weight);
+    }
+}
@@ -0,0 +1,107 @@
+package com.bookstore.api.BookstoreAPI.SlowQuery;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(OutputCaptureExtension.class)
+class SlowQueryLogTest {
+
+    @Test
+    void normalizesLiteralsWhitespaceAndInLists() {
+        String sql = "select b1_0.id,  b1_0.title\n from book b1_0 where b1_0.price > 12.50 and b1_0.title = 'O''Brien' and b1_0.id in (?, ?,?)";
+        assertEquals("select b1_0.id, b1_0.title from book b1_0 where b1_0.price > ? and b1_0.title = ? and b1_0.id in (?...)",
+                SlowQueryLog.normalize(sql));
+    }
+
+    @Test
+    void redactsStringBindsByDefault() {
+        Binds binds = new Binds();
+        binds.set(1, 42L);
+        binds.set(2, "alice@example.com");
+        binds.set(4, null);
+        Object[] values = binds.snapshot();
+
+        assertEquals("[1=42, 2=<redacted>, 4=null]", SlowQueryLog.formatBinds(values, SlowQueryLog.Redaction.STRINGS));
+        assertEquals("[1=42, 2='alice@example.com', 4=null]", SlowQueryLog.formatBinds(values, SlowQueryLog.Redaction.NONE));
+        assertEquals("[1=<redacted>, 2=<redacted>, 4=<redacted>]", SlowQueryLog.formatBinds(values, SlowQueryLog.Redaction.ALL));
+    }
+
+    @Test
+    void keepsOnlyTheSlowestStatements() {
+        SlowQueryLog log = new SlowQueryLog(5, 3, 10, SlowQueryLog.Redaction.STRINGS);
+        for (int ms = 1; ms <= 10; ms++) {
+            log.record("select " + ms, null, 1, ms * 1_000_000L, 0, "worker");
+        }
+
+        List<SlowStatement> slowest = log.slowest();
+        assertEquals(3, slowest.size());
+        assertEquals(10.0, slowest.get(0).getDurationMs(), 1e-9);
+        assertEquals(8.0, slowest.get(2).getDurationMs(), 1e-9);
+        // 5 ms through 10 ms reached the threshold
+        assertEquals(6, log.slowCount());
+        assertEquals(6, log.recent().size());
+        assertEquals("[worker]", log.recent().get(0).getEndpoint());
+    }
+
+    @Test
+    void warnsAboutSlowStatementsWithRedactedBinds(CapturedOutput output) {
+        SlowQueryLog log = new SlowQueryLog(5, 3, 10, SlowQueryLog.Redaction.STRINGS);
+        Binds binds = new Binds();
+        binds.set(1, "alice@example.com");
+        log.record("select * from customer where email = ?", binds.snapshot(), 1, 7_000_000L, 0, "worker");
+        log.record("select * from customer where id = ?", null, 1, 1_000_000L, 0, "worker");
+
+        assertTrue(output.getOut().contains("WARN"));
+        assertTrue(output.getOut().contains("Slow statement: 7.0 ms (0.0 ms fetching 1 rows) from [worker]: "
+            + "select * from customer where email = ? binds [1=<redacted>]"));
+        assertFalse(output.getOut().contains("alice@example.com"));
+        assertFalse(output.getOut().contains("where id = ?"));
+    }
+
+    @Test
+    void proxyReportsQueriesWithRowCountsAndUpdatesWithUpdateCounts() throws Exception {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:slowquerytest;DB_CLOSE_DELAY=-1");
+        SlowQueryLog log = new SlowQueryLog(0, 10, 10, SlowQueryLog.Redaction.NONE);
+        DataSource dataSource = JdbcProxies.dataSource(h2, log);
+
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("create table book (id bigint primary key, title varchar(100))");
+                statement.executeUpdate("insert into book values (1, 'Dune'), (2, 'Emma'), (3, 'Ulysses')");
+            }
+            try (PreparedStatement statement = connection.prepareStatement("select title from book where id >= ?")) {
+                statement.setLong(1, 2);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        assertTrue(resultSet.getString(1).length() > 0);
+                    }
+                }
+            }
+        }
+
+        List<SlowStatement> recent = log.recent();
+        assertEquals(3, recent.size());
+        SlowStatement query = recent.get(0);
+        assertEquals("select title from book where id >= ?", query.getSql());
+        assertEquals("[1=2]", query.getBinds());
+        assertEquals(2, query.getRows());
+        assertEquals(3, recent.get(1).getRows());
+        assertEquals("insert into book values (?, ?), (?, ?), (?, ?)", recent.get(1).getSql());
+        assertTrue(dataSource.isWrapperFor(JdbcDataSource.class));
+    }
+}
@@ -0,0 +1,72 @@
+package com.bookstore.api.BookstoreAPI.Snapshot;
+
+import com.bookstore.api.BookstoreAPI.Book.BookDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void publishedBooksAreFoundById() throws IOException {
+        Path target = directory.resolve("catalog-1.snapshot");
+        try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(directory)) {
+            writer.add(2, 0, "Dune", "Frank Herbert", 9.99, "9780441013593");
+            writer.add(5, 3, "Bötjer & Søn", null, null, null);
+            writer.add(9, 1, "Emma", "Jane Austen", 4.5, "9780141439587");
+            writer.publish(target, 1);
+        }
+
+        CatalogSnapshot snapshot = CatalogSnapshot.open(target);
+        assertEquals(3, snapshot.size());
+        assertEquals(1, snapshot.getGeneration());
+
+        SnapshotBook dune = snapshot.find(2);
+        assertEquals("Dune", dune.getBook().getTitle());
+        assertEquals("Frank Herbert", dune.getBook().getAuthor());
+        assertEquals(Double.valueOf(9.99), dune.getBook().getPrice());
+        assertEquals(0, dune.getVersion());
+
+        SnapshotBook unicode = snapshot.find(5);
+        assertEquals("Bötjer & Søn", unicode.getBook().getTitle());
+        assertNull(unicode.getBook().getAuthor());
+        assertNull(unicode.getBook().getPrice());
+        assertEquals(3, unicode.getVersion());
+
+        assertEquals(Long.valueOf(9), snapshot.find(9).getBook().getId());
+        assertNull(snapshot.find(1));
+        assertNull(snapshot.find(6));
+        assertNull(snapshot.find(10));
+    }
+
+    @Test
+    void idsMustBeAscending() throws IOException {
+        try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(directory)) {
+            writer.add(7, 0, "Emma", "Jane Austen", 4.5, null);
+            assertThrows(IllegalArgumentException.class, () -> writer.add(7, 0, "Emma", "Jane Austen", 4.5, null));
+        }
+    }
+
+    @Test
+    void unpublishedWriterLeavesNoFiles() throws IOException {
+        try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(directory)) {
+            writer.add(1, 0, "Emma", "Jane Austen", 4.5, null);
+        }
+        try (var files = Files.list(directory)) {
+            assertFalse(files.findAny().isPresent());
+        }
+        assertTrue(Files.isDirectory(directory));
+    }
+}
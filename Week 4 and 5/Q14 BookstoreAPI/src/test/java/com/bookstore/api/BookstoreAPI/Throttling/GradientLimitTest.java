@@ -0,0 +1,59 @@
+package com.bookstore.api.BookstoreAPI.Throttling;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradientLimitTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private long now;
+
+    @Test
+    void limitGrowsWhileLatencyStaysFlat() {
+        GradientLimit limit = new GradientLimit(10, 4, 100, 0);
+        runWindows(limit, 50, MILLIS, false);
+
+        assertTrue(limit.getLimit() > 10, "limit was " + limit.getLimit());
+        assertTrue(limit.getLimit() <= 100);
+    }
+
+    @Test
+    void limitShrinksWhenLatencyRises() {
+        GradientLimit limit = new GradientLimit(50, 4, 100, 0);
+        runWindows(limit, 30, MILLIS, false);
+        int beforeSpike = limit.getLimit();
+
+        runWindows(limit, 10, 20 * MILLIS, false);
+
+        assertTrue(limit.getLimit() < beforeSpike, beforeSpike + " -> " + limit.getLimit());
+    }
+
+    @Test
+    void failuresBackOffMultiplicatively() {
+        GradientLimit limit = new GradientLimit(50, 4, 100, 0);
+        runWindows(limit, 1, MILLIS, true);
+
+        assertEquals(45, limit.getLimit());
+    }
+
+    @Test
+    void underusedLimitIsLeftAlone() {
+        GradientLimit limit = new GradientLimit(40, 4, 100, 0);
+        for (int i = 0; i < 20 * GradientLimit.MIN_WINDOW_SAMPLES; i++) {
+            limit.onSample(now++, MILLIS, 1, false);
+        }
+
+        assertEquals(40, limit.getLimit());
+    }
+
+    private void runWindows(GradientLimit limit, int windows, long rtt, boolean dropped) {
+        for (int w = 0; w < windows; w++) {
+            for (int i = 0; i < GradientLimit.MIN_WINDOW_SAMPLES; i++) {
+                limit.onSample(now++, rtt, limit.getLimit(), dropped);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.bookstore.api.BookstoreAPI.Throttling;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class RateLimitInterceptorTest {
+
+    private final RateLimiter rateLimiter = new RateLimiter(new SimpleMeterRegistry(), 0.001, 10);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new AsyncController())
+        .addInterceptors(new RateLimitInterceptor(rateLimiter, "X-API-Key"))
+        .build();
+
+    @Test
+    void asyncRequestIsChargedOnce() throws Exception {
+        MvcResult started = mockMvc.perform(get("/books/1").header("X-API-Key", "client"))
+            .andExpect(request().asyncStarted())
+            .andExpect(header().string(RateLimitInterceptor.REMAINING_HEADER, "9"))
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().string("book"));
+
+        assertEquals(8, rateLimiter.acquire("key:client"));
+    }
+
+    @RestController
+    static class AsyncController {
+        @GetMapping("/books/1")
+        WebAsyncTask<String> book() {
+            return new WebAsyncTask<>(() -> "book");
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.bookstore.api.BookstoreAPI.Throttling;
+
+import com.bookstore.api.BookstoreAPI.Metrics.AllocationMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestExecutorsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestExecutors executors = new RequestExecutors(meterRegistry, new AllocationMetrics(meterRegistry, false), true, 30_000, 2, 10, 1, 10);
+
+    @AfterEach
+    void shutdown() {
+        executors.shutdown();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readsAndWritesRunOnTheirOwnThreads() throws Exception {
+        assertTrue(submit(executors.read(() -> Thread.currentThread().getName())).get(5, TimeUnit.SECONDS).startsWith("read-handler-"));
+        assertTrue(submit(executors.write(() -> Thread.currentThread().getName())).get(5, TimeUnit.SECONDS).startsWith("write-handler-"));
+    }
+
+    @Test
+    void handlerThreadSeesTheRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/books/7");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        Object seen = submit(executors.read(() -> ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest()))
+            .get(5, TimeUnit.SECONDS);
+
+        assertSame(request, seen);
+    }
+
+    @Test
+    void writesQueueWithoutHoldingUpReads() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        submit(executors.write(() -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        submit(executors.write(() -> null));
+        submit(executors.write(() -> null));
+
+        assertEquals("ok", submit(executors.read(() -> "ok")).get(5, TimeUnit.SECONDS));
+        assertEquals(2.0, queueDepth("write"), 0.0);
+        assertEquals(0.0, queueDepth("read"), 0.0);
+        release.countDown();
+    }
+
+    @Test
+    void queuedReadsOvertakeQueuedWritesOnWriteThreads() throws Exception {
+        RequestExecutors oneEach = new RequestExecutors(meterRegistry, new AllocationMetrics(meterRegistry, false), true, 30_000, 1, 10, 1, 10);
+        try {
+            CountDownLatch releaseRead = new CountDownLatch(1);
+            CountDownLatch releaseWrite = new CountDownLatch(1);
+            CountDownLatch bothBusy = new CountDownLatch(2);
+            submit(oneEach.read(() -> {
+                bothBusy.countDown();
+                return releaseRead.await(5, TimeUnit.SECONDS);
+            }));
+            submit(oneEach.write(() -> {
+                bothBusy.countDown();
+                return releaseWrite.await(5, TimeUnit.SECONDS);
+            }));
+            assertTrue(bothBusy.await(5, TimeUnit.SECONDS));
+
+            List<String> order = new CopyOnWriteArrayList<>();
+            Future<String> queuedWrite = submit(oneEach.write(() -> {
+                order.add("write");
+                return Thread.currentThread().getName();
+            }));
+            Future<String> queuedRead = submit(oneEach.read(() -> {
+                order.add("read");
+                return Thread.currentThread().getName();
+            }));
+            releaseWrite.countDown();
+
+            assertTrue(queuedRead.get(5, TimeUnit.SECONDS).startsWith("write-handler-"));
+            queuedWrite.get(5, TimeUnit.SECONDS);
+            assertEquals(List.of("read", "write"), order);
+            releaseRead.countDown();
+        } finally {
+            oneEach.shutdown();
+        }
+    }
+
+    @Test
+    void timedOutRequestDoesNotLeaveItsThreadInterrupted() throws Exception {
+        RequestExecutors oneEach = new RequestExecutors(meterRegistry, new AllocationMetrics(meterRegistry, false), true, 30_000, 1, 10, 1, 10);
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch finished = new CountDownLatch(1);
+            String[] timedOutThread = new String[1];
+            // A handler busy in code that does not consume the interrupt, such as a JDBC call
+            Future<Boolean> timedOut = submit(oneEach.read(() -> {
+                timedOutThread[0] = Thread.currentThread().getName();
+                started.countDown();
+                while (!Thread.currentThread().isInterrupted()) {
+                    Thread.onSpinWait();
+                }
+                finished.countDown();
+                return true;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            // What WebAsyncManager does when the request times out
+            timedOut.cancel(true);
+            assertTrue(finished.await(5, TimeUnit.SECONDS));
+
+            // The next requests on that thread still get to wait, as BookReadModel.viewFor does
+            List<String> threads = new CopyOnWriteArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                assertFalse(submit(oneEach.read(() -> {
+                    threads.add(Thread.currentThread().getName());
+                    return new CountDownLatch(1).await(10, TimeUnit.MILLISECONDS);
+                })).get(5, TimeUnit.SECONDS));
+            }
+            assertTrue(threads.contains(timedOutThread[0]), threads + " does not include " + timedOutThread[0]);
+        } finally {
+            oneEach.shutdown();
+        }
+    }
+
+    @Test
+    void shutdownFailsQueuedRequestsAtOnce() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        submit(executors.write(() -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<Object> queued = submit(executors.write(() -> "ran"));
+
+        executors.shutdown();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> queued.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(TaskRejectedException.class, failure.getCause());
+        release.countDown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Future<T> submit(WebAsyncTask<T> task) {
+        return task.getExecutor().submit((Callable<T>) task.getCallable());
+    }
+
+    private double queueDepth(String requestClass) {
+        return meterRegistry.get("request_executor_queue_depth").tag("class", requestClass).gauge().value();
+    }
+}
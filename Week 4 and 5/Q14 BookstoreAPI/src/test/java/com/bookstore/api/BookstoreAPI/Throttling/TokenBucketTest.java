@@ -0,0 +1,37 @@
+package com.bookstore.api.BookstoreAPI.Throttling;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void burstIsSpentThenRejected() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+
+        assertEquals(2, bucket.tryConsume(0));
+        assertEquals(1, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(TokenBucket.REJECTED, bucket.tryConsume(0));
+        assertEquals(SECOND / 10, bucket.nanosUntilNextToken(0));
+    }
+
+    @Test
+    void tokensRefillAtTheConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+        for (int i = 0; i < 3; i++) {
+            bucket.tryConsume(0);
+        }
+
+        assertEquals(TokenBucket.REJECTED, bucket.tryConsume(SECOND / 20));
+        assertEquals(0, bucket.tryConsume(SECOND / 10));
+        assertFalse(bucket.isFull(SECOND / 10));
+        assertTrue(bucket.isFull(SECOND));
+        assertEquals(2, bucket.tryConsume(SECOND));
+    }
+}